@@ -0,0 +1,89 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.ssh.mock.MkAnswer;
+import com.jcabi.ssh.mock.MkServer;
+import java.io.Closeable;
+import java.io.IOException;
+import org.cactoos.io.ResourceOf;
+import org.cactoos.text.TextOf;
+import org.cactoos.text.UncheckedText;
+
+/**
+ * Embedded SSH server for benchmarks, on loopback.
+ *
+ * <p>Accepts both public key and password authentication and runs
+ * {@link MkAnswer.Script} commands; port forwarding is allowed.</p>
+ *
+ * @since 2.0
+ */
+final class BenchServer implements Closeable {
+
+    /**
+     * Loopback address.
+     */
+    private static final String HOST = "127.0.0.1";
+
+    /**
+     * The server.
+     */
+    private final transient MkServer sshd;
+
+    /**
+     * Ctor.
+     */
+    BenchServer() {
+        this.sshd = new MkServer(new MkAnswer.Script());
+    }
+
+    /**
+     * Start it.
+     * @return This
+     * @throws IOException If fails
+     */
+    BenchServer start() throws IOException {
+        this.sshd.start();
+        return this;
+    }
+
+    /**
+     * Shell, which authenticates with a private key.
+     * @return Shell
+     * @throws IOException If fails
+     */
+    Ssh byKey() throws IOException {
+        return new Ssh(
+            BenchServer.HOST, this.sshd.port(), MkServer.LOGIN,
+            new UncheckedText(
+                new TextOf(new ResourceOf("com/jcabi/ssh/private.key"))
+            ).asString()
+        );
+    }
+
+    /**
+     * Shell, which authenticates with a password.
+     * @return Shell
+     * @throws IOException If fails
+     */
+    SshByPassword byPassword() throws IOException {
+        return this.byPassword(new Options());
+    }
+
+    /**
+     * Shell, which authenticates with a password, with options.
+     * @param opts Options of connections
+     * @return Shell
+     * @throws IOException If fails
+     */
+    SshByPassword byPassword(final Options opts) throws IOException {
+        return this.sshd.shell(opts);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.sshd.close();
+    }
+}
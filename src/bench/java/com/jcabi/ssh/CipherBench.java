@@ -0,0 +1,142 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.cactoos.io.DeadInputStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of stdout with different ciphers and compression levels.
+ *
+ * <p>Every invocation reads {@link #MEGABYTES} of stdout through one
+ * pooled session, which is opened with {@link Options}. The secondary
+ * "megabytes" result is the throughput in MB/s. The output of the
+ * benchmark command is very repetitive, so compression looks better
+ * here than it would with real data.</p>
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class CipherBench {
+
+    /**
+     * How many megabytes to read in one invocation.
+     */
+    private static final int MEGABYTES = 16;
+
+    /**
+     * Cipher.
+     */
+    @Param({
+        "aes128-ctr",
+        "aes256-ctr",
+        "aes128-gcm@openssh.com",
+        "aes256-gcm@openssh.com"
+    })
+    public String cipher;
+
+    /**
+     * Level of compression, zero for none.
+     */
+    @Param({"0", "1", "6"})
+    public int compression;
+
+    /**
+     * The server.
+     */
+    private BenchServer server;
+
+    /**
+     * Shell with pooling.
+     */
+    private SshPool pool;
+
+    /**
+     * Start the server.
+     * @throws IOException If fails
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.server = new BenchServer().start();
+        this.pool = new SshPool(
+            this.server.byPassword(
+                new Options()
+                    .ciphers(this.cipher)
+                    .compression(this.compression)
+            )
+        );
+    }
+
+    /**
+     * Stop the server.
+     * @throws IOException If fails
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.pool.close();
+        this.server.close();
+    }
+
+    /**
+     * Read large stdout.
+     * @param traffic Counter of megabytes
+     * @return Exit code
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public int download(final CipherBench.Traffic traffic) throws IOException {
+        final int code = this.pool.exec(
+            String.format("bytes %d", (long) CipherBench.MEGABYTES << 20),
+            new DeadInputStream(),
+            OutputStream.nullOutputStream(),
+            OutputStream.nullOutputStream()
+        );
+        traffic.megabytes += CipherBench.MEGABYTES;
+        return code;
+    }
+
+    /**
+     * Counter of megabytes transferred, reported by JMH as a rate.
+     * @since 2.0
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Traffic {
+
+        /**
+         * Megabytes transferred.
+         */
+        public long megabytes;
+
+        /**
+         * Reset it before each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.megabytes = 0L;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of TCP connect, key exchange and authentication, without
+ * running any commands.
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class ConnectBench {
+
+    /**
+     * The server.
+     */
+    private BenchServer server;
+
+    /**
+     * Shell with key authentication.
+     */
+    private AbstractSshShell key;
+
+    /**
+     * Shell with password authentication.
+     */
+    private AbstractSshShell password;
+
+    /**
+     * Start the server.
+     * @throws IOException If fails
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.server = new BenchServer().start();
+        this.key = this.server.byKey();
+        this.password = this.server.byPassword();
+    }
+
+    /**
+     * Stop the server.
+     * @throws IOException If fails
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.server.close();
+    }
+
+    /**
+     * Connect with a private key.
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public void byKey() throws IOException {
+        this.key.session().disconnect();
+    }
+
+    /**
+     * Connect with a password.
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public void byPassword() throws IOException {
+        this.password.session().disconnect();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of a single short command, end to end.
+ *
+ * <p>{@link #fresh()} connects and authenticates for every command,
+ * {@link #pooled()} reuses the sessions of {@link SshPool}.</p>
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class ExecBench {
+
+    /**
+     * The server.
+     */
+    private BenchServer server;
+
+    /**
+     * Shell without pooling.
+     */
+    private Shell ssh;
+
+    /**
+     * Shell with pooling.
+     */
+    private SshPool pool;
+
+    /**
+     * Start the server.
+     * @throws IOException If fails
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.server = new BenchServer().start();
+        this.ssh = this.server.byKey();
+        this.pool = new SshPool(this.server.byKey());
+    }
+
+    /**
+     * Stop the server.
+     * @throws IOException If fails
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.pool.close();
+        this.server.close();
+    }
+
+    /**
+     * New session for every command.
+     * @return Stdout
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public String fresh() throws IOException {
+        return new Shell.Plain(this.ssh).exec("echo");
+    }
+
+    /**
+     * Pooled sessions.
+     * @return Stdout
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public String pooled() throws IOException {
+        return new Shell.Plain(this.pool).exec("echo");
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Large stdout saved to a file, through streams or through
+ * {@link Shell.Nio} and a {@link FileChannel}.
+ *
+ * <p>Divide {@link #megabytes} by the score to get MB/s.</p>
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class FileBench {
+
+    /**
+     * How many megabytes to transfer.
+     */
+    @Param({"64", "256"})
+    public int megabytes;
+
+    /**
+     * The server.
+     */
+    private BenchServer server;
+
+    /**
+     * Shell with pooling.
+     */
+    private SshPool pool;
+
+    /**
+     * The file.
+     */
+    private Path file;
+
+    /**
+     * Start the server.
+     * @throws IOException If fails
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.server = new BenchServer().start();
+        this.pool = new SshPool(this.server.byKey());
+        this.file = Files.createTempFile("jcabi-ssh", ".bin");
+    }
+
+    /**
+     * Stop the server.
+     * @throws IOException If fails
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.pool.close();
+        this.server.close();
+        Files.delete(this.file);
+    }
+
+    /**
+     * Save stdout through an output stream.
+     * @return Exit code
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public int stream() throws IOException {
+        try (OutputStream out = Files.newOutputStream(this.file)) {
+            return this.pool.exec(
+                this.command(),
+                InputStream.nullInputStream(),
+                out,
+                OutputStream.nullOutputStream()
+            );
+        }
+    }
+
+    /**
+     * Save stdout through a file channel.
+     * @return Exit code
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public int channel() throws IOException {
+        try (FileChannel out = FileChannel.open(
+            this.file, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            return new Shell.Nio(this.pool).exec(
+                this.command(),
+                Channels.newChannel(InputStream.nullInputStream()),
+                out,
+                Channels.newChannel(OutputStream.nullOutputStream())
+            );
+        }
+    }
+
+    /**
+     * The command.
+     * @return Command that prints the bytes
+     */
+    private String command() {
+        return String.format("bytes %d", (long) this.megabytes << 20);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.cactoos.io.DeadInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of large stdout and stdin, through one pooled session.
+ *
+ * <p>Divide {@link #megabytes} by the score to get MB/s.</p>
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class StreamBench {
+
+    /**
+     * How many megabytes to transfer.
+     */
+    @Param({"1", "64"})
+    public int megabytes;
+
+    /**
+     * The server.
+     */
+    private BenchServer server;
+
+    /**
+     * Shell with pooling.
+     */
+    private SshPool pool;
+
+    /**
+     * Start the server.
+     * @throws IOException If fails
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.server = new BenchServer().start();
+        this.pool = new SshPool(this.server.byKey());
+    }
+
+    /**
+     * Stop the server.
+     * @throws IOException If fails
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.pool.close();
+        this.server.close();
+    }
+
+    /**
+     * Read large stdout.
+     * @return Exit code
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public int download() throws IOException {
+        return this.pool.exec(
+            String.format("bytes %d", this.bytes()),
+            new DeadInputStream(),
+            OutputStream.nullOutputStream(),
+            OutputStream.nullOutputStream()
+        );
+    }
+
+    /**
+     * Write large stdin.
+     * @return Exit code
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public int upload() throws IOException {
+        return this.pool.exec(
+            "consume",
+            new StreamBench.Zeros(this.bytes()),
+            OutputStream.nullOutputStream(),
+            OutputStream.nullOutputStream()
+        );
+    }
+
+    /**
+     * Total bytes to transfer.
+     * @return Bytes
+     */
+    private long bytes() {
+        return (long) this.megabytes << 20;
+    }
+
+    /**
+     * Stream of zeros of the given length.
+     * @since 2.0
+     */
+    private static final class Zeros extends InputStream {
+
+        /**
+         * Bytes left.
+         */
+        private long left;
+
+        /**
+         * Ctor.
+         * @param total Total length
+         */
+        Zeros(final long total) {
+            super();
+            this.left = total;
+        }
+
+        @Override
+        public int read() {
+            int data = -1;
+            if (this.left > 0L) {
+                --this.left;
+                data = 0;
+            }
+            return data;
+        }
+
+        @Override
+        public int read(final byte[] buf, final int off, final int len) {
+            int done = -1;
+            if (this.left > 0L) {
+                done = (int) Math.min(len, this.left);
+                Arrays.fill(buf, off, off + done, (byte) 0);
+                this.left -= done;
+            }
+            return done;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Commands per second, at different levels of concurrency.
+ *
+ * <p>Every invocation starts {@link #concurrency} commands at once
+ * through {@link AsyncShell} on top of {@link SshPool} and waits for all
+ * of them. Multiply the score by the concurrency to get commands per
+ * second.</p>
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class ThroughputBench {
+
+    /**
+     * How many commands run at the same time.
+     */
+    @Param({"1", "8", "32", "128"})
+    public int concurrency;
+
+    /**
+     * The server.
+     */
+    private BenchServer server;
+
+    /**
+     * Shell with pooling.
+     */
+    private SshPool pool;
+
+    /**
+     * Async shell.
+     */
+    private AsyncShell.Plain shell;
+
+    /**
+     * Start the server.
+     * @throws IOException If fails
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.server = new BenchServer().start();
+        this.pool = new SshPool(this.server.byKey());
+        this.shell = new AsyncShell.Plain(new AsyncShell.Wrap(this.pool));
+    }
+
+    /**
+     * Stop the server.
+     * @throws IOException If fails
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.pool.close();
+        this.server.close();
+    }
+
+    /**
+     * Run a batch of commands concurrently.
+     */
+    @Benchmark
+    public void batch() {
+        final CompletableFuture<?>[] all =
+            new CompletableFuture<?>[this.concurrency];
+        for (int idx = 0; idx < all.length; ++idx) {
+            all[idx] = this.shell.exec("echo");
+        }
+        CompletableFuture.allOf(all).join();
+    }
+}
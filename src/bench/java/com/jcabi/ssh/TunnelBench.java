@@ -0,0 +1,220 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of connections through {@link Tunnels}.
+ *
+ * <p>Every invocation opens a new connection through the tunnel, to
+ * a sink on loopback, and writes {@link #MEGABYTES} into it, after their
+ * length; the sink confirms when it has read everything. The length goes
+ * first, because JSch closes the channel on the end of the local stream.
+ * Without data it is the cost of opening a connection through
+ * the session. The secondary "megabytes" result is the throughput
+ * in MB/s.</p>
+ *
+ * @since 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class TunnelBench {
+
+    /**
+     * How many megabytes to write in one invocation.
+     */
+    private static final int MEGABYTES = 16;
+
+    /**
+     * Kind of forwarding: "local" or "socks".
+     */
+    @Param({"local", "socks"})
+    public String kind;
+
+    /**
+     * Write the data, or only open the connection.
+     */
+    @Param({"true", "false"})
+    public boolean data;
+
+    /**
+     * The server.
+     */
+    private BenchServer server;
+
+    /**
+     * The sink.
+     */
+    private ServerSocket sink;
+
+    /**
+     * The tunnels.
+     */
+    private Tunnels tunnels;
+
+    /**
+     * The tunnel.
+     */
+    private Tunnel tunnel;
+
+    /**
+     * Start the server, the sink and the tunnel.
+     * @throws IOException If fails
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.server = new BenchServer().start();
+        this.sink = new ServerSocket(0);
+        final Thread thread = new Thread(this::drain, "tunnel-bench-sink");
+        thread.setDaemon(true);
+        thread.start();
+        this.tunnels = new Tunnels(this.server.byPassword());
+        if ("socks".equals(this.kind)) {
+            this.tunnel = this.tunnels.socks();
+        } else {
+            this.tunnel = this.tunnels.local(
+                "127.0.0.1", this.sink.getLocalPort()
+            );
+        }
+    }
+
+    /**
+     * Stop everything.
+     * @throws IOException If fails
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.tunnels.close();
+        this.sink.close();
+        this.server.close();
+    }
+
+    /**
+     * Write through the tunnel.
+     * @param traffic Counter of megabytes
+     * @return Confirmation from the sink
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public int upload(final TunnelBench.Traffic traffic) throws IOException {
+        try (Socket socket = this.connect()) {
+            final DataOutputStream out = new DataOutputStream(
+                socket.getOutputStream()
+            );
+            if (this.data) {
+                out.writeLong((long) TunnelBench.MEGABYTES << 20);
+                final byte[] chunk = new byte[1 << 16];
+                for (int idx = 0; idx < TunnelBench.MEGABYTES << 4; ++idx) {
+                    out.write(chunk);
+                }
+                traffic.megabytes += TunnelBench.MEGABYTES;
+            } else {
+                out.writeLong(0L);
+            }
+            out.flush();
+            return socket.getInputStream().read();
+        }
+    }
+
+    /**
+     * Open a connection through the tunnel.
+     * @return Socket, connected
+     * @throws IOException If fails
+     */
+    private Socket connect() throws IOException {
+        final Socket socket;
+        if ("socks".equals(this.kind)) {
+            socket = new Socket(
+                new Proxy(
+                    Proxy.Type.SOCKS,
+                    new InetSocketAddress("127.0.0.1", this.tunnel.port())
+                )
+            );
+            socket.connect(
+                InetSocketAddress.createUnresolved(
+                    "127.0.0.1", this.sink.getLocalPort()
+                )
+            );
+        } else {
+            socket = new Socket("127.0.0.1", this.tunnel.port());
+        }
+        return socket;
+    }
+
+    /**
+     * Read all connections of the sink and confirm.
+     */
+    private void drain() {
+        while (!this.sink.isClosed()) {
+            try (Socket socket = this.sink.accept()) {
+                final DataInputStream input = new DataInputStream(
+                    socket.getInputStream()
+                );
+                final byte[] buf = new byte[1 << 16];
+                long left = input.readLong();
+                while (left > 0L) {
+                    final int len = input.read(
+                        buf, 0, (int) Math.min(buf.length, left)
+                    );
+                    if (len < 0) {
+                        break;
+                    }
+                    left -= len;
+                }
+                socket.getOutputStream().write(1);
+            } catch (final IOException ex) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Counter of megabytes transferred, reported by JMH as a rate.
+     * @since 2.0
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Traffic {
+
+        /**
+         * Megabytes transferred.
+         */
+        public long megabytes;
+
+        /**
+         * Reset it before each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.megabytes = 0L;
+        }
+    }
+}
@@ -57,13 +57,7 @@ abstract class AbstractSshShell implements Shell {
     public int exec(final String command, final InputStream stdin,
         final OutputStream stdout, final OutputStream stderr)
         throws IOException {
-        return new Execution(
-            command,
-            stdin,
-            stdout,
-            stderr,
-            this.session()
-        ).exec();
+        return this.exec(command, stdin, stdout, stderr, Probe.NONE);
     }
 
     /**
@@ -96,4 +90,77 @@ abstract class AbstractSshShell implements Shell {
      * @throws IOException If some IO problem inside
      */
     protected abstract Session session() throws IOException;
+
+    /**
+     * Give back a session, previously obtained from {@link #session()},
+     * when it is not needed anymore.
+     *
+     * <p>By default the session is disconnected. Shells that keep
+     * sessions alive between commands override this method.</p>
+     *
+     * @param session The session
+     * @since 2.0
+     */
+    protected void release(final Session session) {
+        session.disconnect();
+    }
+
+    /**
+     * Execute and report phases to the probe.
+     * @param command Command
+     * @param stdin Stdin (will be closed)
+     * @param stdout Stdout (will be closed)
+     * @param stderr Stderr (will be closed)
+     * @param probe Where to report
+     * @return Exit code
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    int exec(final String command, final InputStream stdin,
+        final OutputStream stdout, final OutputStream stderr,
+        final Probe probe) throws IOException {
+        final long start = System.nanoTime();
+        final Session session = this.session(probe);
+        probe.since(Metrics.Phase.SESSION, start);
+        try {
+            return new Execution(
+                command,
+                stdin,
+                stdout,
+                stderr,
+                session,
+                probe
+            ).exec();
+        } finally {
+            this.release(session);
+        }
+    }
+
+    /**
+     * Take a session, which is connected already, if there is one.
+     *
+     * <p>By default there is none. Shells that keep sessions alive
+     * between commands override this method. The session taken must be
+     * given back to {@link #release(Session)}.</p>
+     *
+     * @return JSch session or NULL if a new one has to be opened
+     */
+    Session idle() {
+        return null;
+    }
+
+    /**
+     * Create and return a session, connected, reporting the phases
+     * of the handshake to the probe.
+     *
+     * <p>By default the probe is ignored. Shells that open sessions
+     * override this method.</p>
+     *
+     * @param probe Where to report
+     * @return JSch session
+     * @throws IOException If some IO problem inside
+     */
+    Session session(final Probe probe) throws IOException {
+        return this.session();
+    }
 }
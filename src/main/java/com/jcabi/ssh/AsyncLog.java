@@ -0,0 +1,237 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.log.Logger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.ToString;
+
+/**
+ * Log, which accepts lines without waiting and prints them
+ * in another thread.
+ *
+ * <p>Lines wait in a bounded queue. When it is full, new lines are dropped
+ * and counted, and the number of lines dropped is logged with
+ * WARNING level as soon as the queue is drained. Consecutive lines
+ * of the same level are printed as one log record, up to
+ * {@link #BATCH} lines in it.</p>
+ *
+ * @since 2.0
+ */
+@ToString(of = "source")
+final class AsyncLog {
+
+    /**
+     * Maximum lines in one record.
+     */
+    private static final int BATCH = 256;
+
+    /**
+     * Thread of all logs.
+     */
+    private static final ExecutorService THREAD =
+        Executors.newSingleThreadExecutor(
+            task -> {
+                final Thread thread = new Thread(task, "jcabi-ssh-log");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+
+    /**
+     * Source of log records.
+     */
+    private final transient Object source;
+
+    /**
+     * Lines waiting.
+     */
+    private final transient BlockingQueue<AsyncLog.Line> queue;
+
+    /**
+     * Where to print.
+     */
+    private final transient Executor printer;
+
+    /**
+     * Lines dropped since the start.
+     */
+    private final transient AtomicLong drops;
+
+    /**
+     * Is printing scheduled?
+     */
+    private final transient AtomicBoolean scheduled;
+
+    /**
+     * Lines dropped, which were reported already; used only
+     * by the printer.
+     */
+    private transient long reported;
+
+    /**
+     * Ctor.
+     * @param src Source of log records
+     * @param capacity How many lines may wait
+     */
+    AsyncLog(final Object src, final int capacity) {
+        this(src, capacity, AsyncLog.THREAD);
+    }
+
+    /**
+     * Ctor.
+     * @param src Source of log records
+     * @param capacity How many lines may wait
+     * @param exec Where to print, one task at a time
+     */
+    AsyncLog(final Object src, final int capacity, final Executor exec) {
+        this.source = src;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.printer = exec;
+        this.drops = new AtomicLong();
+        this.scheduled = new AtomicBoolean();
+    }
+
+    /**
+     * Log a line with INFO level.
+     * @param line The line
+     */
+    void info(final String line) {
+        this.offer(new AsyncLog.Line(false, line));
+    }
+
+    /**
+     * Log a line with WARNING level.
+     * @param line The line
+     */
+    void warn(final String line) {
+        this.offer(new AsyncLog.Line(true, line));
+    }
+
+    /**
+     * How many lines were dropped since the start.
+     * @return Total
+     */
+    long dropped() {
+        return this.drops.get();
+    }
+
+    /**
+     * Put the line into the queue, or drop it.
+     * @param line The line
+     */
+    private void offer(final AsyncLog.Line line) {
+        if (!this.queue.offer(line)) {
+            this.drops.incrementAndGet();
+        }
+        this.schedule();
+    }
+
+    /**
+     * Make sure the printer will drain the queue.
+     */
+    private void schedule() {
+        if (this.scheduled.compareAndSet(false, true)) {
+            this.printer.execute(this::drain);
+        }
+    }
+
+    /**
+     * Print everything waiting and report drops; if printing fails,
+     * the next line schedules it again.
+     */
+    private void drain() {
+        try {
+            final List<AsyncLog.Line> batch = new ArrayList<>(AsyncLog.BATCH);
+            while (this.queue.drainTo(batch, AsyncLog.BATCH) > 0) {
+                this.print(batch);
+                batch.clear();
+            }
+            final long total = this.drops.get();
+            if (total > this.reported) {
+                Logger.warn(
+                    this.source,
+                    "%d line(s) of output were not logged, the log is too slow",
+                    total - this.reported
+                );
+                this.reported = total;
+            }
+        } finally {
+            this.scheduled.set(false);
+            if (!this.queue.isEmpty()) {
+                this.schedule();
+            }
+        }
+    }
+
+    /**
+     * Print lines, grouping consecutive lines of the same level.
+     * @param lines Lines to print
+     */
+    private void print(final List<AsyncLog.Line> lines) {
+        final StringBuilder text = new StringBuilder(0);
+        boolean error = lines.get(0).error;
+        for (final AsyncLog.Line line : lines) {
+            if (line.error != error) {
+                this.record(error, text);
+                text.setLength(0);
+                error = line.error;
+            }
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            text.append(line.text);
+        }
+        this.record(error, text);
+    }
+
+    /**
+     * Print one record.
+     * @param error Is it from stderr?
+     * @param text The text
+     */
+    private void record(final boolean error, final CharSequence text) {
+        if (error) {
+            Logger.warn(this.source, "%s", text);
+        } else {
+            Logger.info(this.source, "%s", text);
+        }
+    }
+
+    /**
+     * Line waiting in the queue.
+     * @since 2.0
+     */
+    private static final class Line {
+
+        /**
+         * Is it from stderr?
+         */
+        private final boolean error;
+
+        /**
+         * The text.
+         */
+        private final String text;
+
+        /**
+         * Ctor.
+         * @param err Is it from stderr?
+         * @param txt The text
+         */
+        Line(final boolean err, final String txt) {
+            this.error = err;
+            this.text = txt;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.aspects.Immutable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.cactoos.io.DeadInputStream;
+
+/**
+ * Asynchronous shell.
+ *
+ * <p>It runs commands without blocking the caller, and returns
+ * futures, which can be composed together:</p>
+ *
+ * <pre> AsyncShell shell = new AsyncShell.Wrap(
+ *   new SshPool(new Ssh("ssh.example.com", 22, "yegor", "..."))
+ * );
+ * CompletableFuture&lt;String&gt; uptime = new AsyncShell.Plain(shell)
+ *   .exec("uptime");</pre>
+ *
+ * <p>By default every command runs in its own virtual thread (on Java 21+),
+ * a custom {@link Executor} may be provided instead.</p>
+ *
+ * <p>A command of {@link AsyncShell.Wrap} is interrupted when its future
+ * is cancelled with {@code cancel(true)}; then the remote command
+ * is killed.</p>
+ *
+ * @since 2.0
+ */
+@Immutable
+@FunctionalInterface
+public interface AsyncShell {
+
+    /**
+     * Execute and return a future exit code.
+     * @param command Command
+     * @param stdin Stdin (will be closed)
+     * @param stdout Stdout (will be closed)
+     * @param stderr Stderr (will be closed)
+     * @return Exit code, in the future
+     * @checkstyle ParameterNumberCheck (5 line)
+     */
+    CompletableFuture<Integer> exec(String command, InputStream stdin,
+        OutputStream stdout, OutputStream stderr);
+
+    /**
+     * Asynchronous shell on top of a synchronous one.
+     *
+     * <p>If the original shell throws {@link IOException}, the future
+     * completes exceptionally with {@link UncheckedIOException}.</p>
+     *
+     * @since 2.0
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode(of = "origin")
+    final class Wrap implements AsyncShell {
+
+        /**
+         * Original.
+         */
+        private final transient Shell origin;
+
+        /**
+         * Executor to run commands in.
+         */
+        private final transient Executor threads;
+
+        /**
+         * Ctor.
+         * @param shell Original shell
+         */
+        public Wrap(final Shell shell) {
+            this(shell, new VirtualThreads());
+        }
+
+        /**
+         * Ctor.
+         * @param shell Original shell
+         * @param exec Executor to run commands in
+         */
+        public Wrap(final Shell shell, final Executor exec) {
+            this.origin = shell;
+            this.threads = exec;
+        }
+
+        @Override
+        public CompletableFuture<Integer> exec(final String command,
+            final InputStream stdin, final OutputStream stdout,
+            final OutputStream stderr) {
+            final Interruptible<Integer> future = new Interruptible<>();
+            this.threads.execute(
+                () -> future.run(
+                    () -> {
+                        try {
+                            return this.origin.exec(
+                                command, stdin, stdout, stderr
+                            );
+                        } catch (final IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    }
+                )
+            );
+            return future;
+        }
+    }
+
+    /**
+     * Safe run (the future fails if exit code is not zero).
+     * @since 2.0
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode(of = "origin")
+    final class Safe implements AsyncShell {
+
+        /**
+         * Original.
+         */
+        private final transient AsyncShell origin;
+
+        /**
+         * Ctor.
+         * @param shell Original shell
+         */
+        public Safe(final AsyncShell shell) {
+            this.origin = shell;
+        }
+
+        @Override
+        public CompletableFuture<Integer> exec(final String command,
+            final InputStream stdin, final OutputStream stdout,
+            final OutputStream stderr) {
+            return this.origin.exec(command, stdin, stdout, stderr).thenApply(
+                exit -> {
+                    if (exit != 0) {
+                        throw new IllegalArgumentException(
+                            String.format(
+                                "non-zero exit code #%d: %s", exit, command
+                            )
+                        );
+                    }
+                    return exit;
+                }
+            );
+        }
+    }
+
+    /**
+     * With output only.
+     * @since 2.0
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode(of = "origin")
+    final class Plain {
+
+        /**
+         * Original.
+         */
+        private final transient AsyncShell origin;
+
+        /**
+         * Ctor.
+         * @param shell Original shell
+         */
+        public Plain(final AsyncShell shell) {
+            this.origin = shell;
+        }
+
+        /**
+         * Just exec.
+         * @param cmd Command
+         * @return Stdout and stderr, in the future
+         */
+        public CompletableFuture<String> exec(final String cmd) {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            return this.origin.exec(cmd, new DeadInputStream(), baos, baos)
+                .thenApply(exit -> baos.toString(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.log.Logger;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attempts to open a session, retried according to the policy.
+ *
+ * @since 2.0
+ */
+final class Attempts {
+
+    /**
+     * The policy.
+     */
+    private final transient Retry policy;
+
+    /**
+     * Name of the host, like "login@addr:port", for logging.
+     */
+    private final transient String host;
+
+    /**
+     * Ctor.
+     * @param retry The policy
+     * @param name Name of the host, for logging
+     */
+    Attempts(final Retry retry, final String name) {
+        this.policy = retry;
+        this.host = name;
+    }
+
+    /**
+     * Open a session, trying again until it works or the policy gives up.
+     * @param probe Where to report retries
+     * @param attempt One attempt
+     * @return The session, connected
+     * @throws IOException If all attempts failed
+     */
+    Session open(final Probe probe, final Attempts.Attempt attempt)
+        throws IOException {
+        final long start = System.nanoTime();
+        int number = 0;
+        while (true) {
+            ++number;
+            final Exception error;
+            try {
+                return attempt.session();
+            } catch (final JSchException | IOException ex) {
+                error = ex;
+            }
+            final long elapsed = TimeUnit.NANOSECONDS.toMillis(
+                System.nanoTime() - start
+            );
+            final long delay = this.policy.delay(number, elapsed, error);
+            if (delay < 0L) {
+                throw Attempts.failure(error, number, elapsed, this.host);
+            }
+            probe.retry();
+            Logger.warn(
+                this,
+                String.join(
+                    " ",
+                    "Attempt #%d to open SSH session to %s failed in %[ms]s,",
+                    "retrying in %[ms]s: %s"
+                ),
+                number, this.host, elapsed, delay, error.getMessage()
+            );
+            try {
+                Thread.sleep(delay);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(
+                    String.format(
+                        "Interrupted while retrying SSH session to %s",
+                        this.host
+                    ),
+                    ex
+                );
+            }
+        }
+    }
+
+    /**
+     * The final error.
+     * @param error Why the last attempt failed
+     * @param number How many attempts were made
+     * @param elapsed Milliseconds since the first attempt
+     * @param host Name of the host
+     * @return The error to throw
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static IOException failure(final Exception error, final int number,
+        final long elapsed, final String host) {
+        final IOException failure;
+        if (number == 1 && error instanceof IOException) {
+            failure = (IOException) error;
+        } else {
+            failure = new IOException(
+                String.format(
+                    "Can't open SSH session to %s after %d attempt(s) in %d ms",
+                    host, number, elapsed
+                ),
+                error
+            );
+        }
+        return failure;
+    }
+
+    /**
+     * One attempt.
+     * @since 2.0
+     */
+    @FunctionalInterface
+    interface Attempt {
+        /**
+         * Open a session.
+         * @return The session, connected
+         * @throws JSchException If JSch fails
+         * @throws IOException If fails
+         */
+        Session session() throws JSchException, IOException;
+    }
+}
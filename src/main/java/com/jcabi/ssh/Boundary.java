@@ -0,0 +1,103 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Marker, which separates output of one command from the output of
+ * the next one, in a stream produced by a remote shell.
+ *
+ * <p>The first byte of the marker must not appear anywhere else
+ * in it, which makes it possible to find the marker in one pass,
+ * without looking back.</p>
+ *
+ * @since 2.0
+ */
+final class Boundary {
+
+    /**
+     * How many bytes to collect before writing them to the output.
+     */
+    private static final int CHUNK = 8192;
+
+    /**
+     * The marker.
+     */
+    private final transient byte[] marker;
+
+    /**
+     * Ctor.
+     * @param mark The marker
+     */
+    Boundary(final String mark) {
+        this.marker = mark.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copy bytes from input to output until the marker is found.
+     * @param input Where to read from
+     * @param output Where to write to (will NOT be closed)
+     * @return The rest of the line after the marker, trimmed
+     * @throws IOException If fails or the input ends before the marker
+     */
+    String copy(final InputStream input, final OutputStream output)
+        throws IOException {
+        final ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        int matched = 0;
+        while (matched < this.marker.length) {
+            final int data = Boundary.next(input);
+            if (data == Byte.toUnsignedInt(this.marker[matched])) {
+                ++matched;
+                continue;
+            }
+            if (matched > 0) {
+                chunk.write(this.marker, 0, matched);
+                matched = 0;
+                if (data == Byte.toUnsignedInt(this.marker[0])) {
+                    matched = 1;
+                    continue;
+                }
+            }
+            chunk.write(data);
+            if (chunk.size() >= Boundary.CHUNK || input.available() == 0) {
+                chunk.writeTo(output);
+                chunk.reset();
+            }
+        }
+        chunk.writeTo(output);
+        output.flush();
+        final ByteArrayOutputStream tail = new ByteArrayOutputStream();
+        while (true) {
+            final int data = Boundary.next(input);
+            if (data == '\n') {
+                break;
+            }
+            tail.write(data);
+        }
+        return tail.toString(StandardCharsets.UTF_8).trim();
+    }
+
+    /**
+     * Read next byte.
+     * @param input The input
+     * @return The byte
+     * @throws IOException If the input is over
+     */
+    private static int next(final InputStream input) throws IOException {
+        final int data = input.read();
+        if (data < 0) {
+            throw new EOFException(
+                "The remote shell closed the stream before the end of command"
+            );
+        }
+        return data;
+    }
+}
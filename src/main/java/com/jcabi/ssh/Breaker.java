@@ -0,0 +1,381 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.log.Logger;
+import com.jcraft.jsch.Session;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * SSH shell with a circuit breaker, which stops trying to connect
+ * to a host that keeps failing.
+ *
+ * <p>After the configured number of consecutive failures to open
+ * a session (including failed authentication and {@link Error}s)
+ * the circuit opens, and all commands fail immediately with
+ * an {@link IOException}, without touching the network. When
+ * the cool-down period is over, the circuit becomes half-open and lets
+ * one trial session through: if it succeeds, the circuit is closed
+ * again, otherwise it is open for another cool-down period.</p>
+ *
+ * <pre> Shell shell = new Breaker(
+ *   new SshPool(new Ssh("ssh.example.com", 22, "yegor", "...")),
+ *   5, 30L, TimeUnit.SECONDS
+ * );</pre>
+ *
+ * <p>The state of the circuit is shared by all breakers in the JVM with
+ * the same login, address and port, so one failing host stops all
+ * callers at once, and so are the threshold and the cool-down: the first
+ * breaker of the host sets them for the life of the JVM, and a breaker
+ * of the same host with other ones can't be made, its constructor throws
+ * {@link IllegalArgumentException}. Failures are counted after
+ * {@link Retry} gives up, use {@link Retry#NEVER} in order to count every
+ * attempt. A session that is not opened because the thread was
+ * interrupted, for example by {@link Shell.Timed}, is not a failure
+ * of the host.</p>
+ *
+ * <p>Sessions that are already open and idle in {@link SshPool} are
+ * given out even when the circuit is open, since they need no network
+ * to be taken; only new sessions are refused.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 2.0
+ */
+@ToString(of = "origin")
+@EqualsAndHashCode(of = "origin", callSuper = true)
+public final class Breaker extends AbstractSshShell {
+
+    /**
+     * Circuits of all hosts of this JVM, by "login@addr:port".
+     */
+    private static final ConcurrentMap<String, Breaker.Circuit> CIRCUITS =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Shell that makes new sessions.
+     */
+    private final transient AbstractSshShell origin;
+
+    /**
+     * How many consecutive failures open the circuit.
+     */
+    private final transient int threshold;
+
+    /**
+     * How long the circuit stays open, in milliseconds.
+     */
+    private final transient long cooldown;
+
+    /**
+     * Constructor, which opens the circuit after five failures,
+     * for thirty seconds.
+     * @param shell Shell that makes new sessions
+     * @throws UnknownHostException If fails
+     */
+    public Breaker(final AbstractSshShell shell) throws UnknownHostException {
+        this(shell, 5, 30L, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Constructor.
+     * @param shell Shell that makes new sessions
+     * @param failures How many consecutive failures open the circuit
+     * @param time How long the circuit stays open
+     * @param unit Unit of time
+     * @throws UnknownHostException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Breaker(final AbstractSshShell shell, final int failures,
+        final long time, final TimeUnit unit) throws UnknownHostException {
+        super(shell.getAddr(), shell.getPort(), shell.getLogin());
+        if (failures < 1) {
+            throw new IllegalArgumentException(
+                String.format("Threshold must be positive: %d", failures)
+            );
+        }
+        this.origin = shell;
+        this.threshold = failures;
+        this.cooldown = unit.toMillis(time);
+        final Breaker.Circuit circuit = this.circuit();
+        if (!circuit.settings(failures, this.cooldown)) {
+            throw new IllegalArgumentException(
+                String.format(
+                    String.join(
+                        "",
+                        "Circuit of %s@%s:%d is %s already, ",
+                        "can't make it %d failures, %d ms"
+                    ),
+                    this.getLogin(), this.getAddr(), this.getPort(),
+                    circuit, failures, this.cooldown
+                )
+            );
+        }
+    }
+
+    /**
+     * Current state of the circuit of the host.
+     * @return State
+     */
+    public Breaker.State state() {
+        return this.circuit().state();
+    }
+
+    /**
+     * Number of consecutive failures of the host so far.
+     * @return Failures, zero if the last session was opened
+     */
+    public int failures() {
+        return this.circuit().failures();
+    }
+
+    // @checkstyle ProtectedMethodInFinalClassCheck (3 lines)
+    @Override
+    protected Session session() throws IOException {
+        return this.session(Probe.NONE);
+    }
+
+    // @checkstyle ProtectedMethodInFinalClassCheck (3 lines)
+    @Override
+    protected void release(final Session session) {
+        this.origin.release(session);
+    }
+
+    @Override
+    Session idle() {
+        return this.origin.idle();
+    }
+
+    @Override
+    Session session(final Probe probe) throws IOException {
+        final Session idle = this.origin.idle();
+        if (idle != null) {
+            return idle;
+        }
+        final Breaker.Circuit circuit = this.circuit();
+        final long wait = circuit.acquire();
+        if (wait > 0L) {
+            throw new IOException(
+                String.format(
+                    "Circuit to %s@%s:%d is open after %d failures, %d ms left",
+                    this.getLogin(), this.getAddr(), this.getPort(),
+                    circuit.failures(), wait
+                )
+            );
+        }
+        final Session session;
+        try {
+            session = this.origin.session(probe);
+        } catch (final IOException | RuntimeException | Error ex) {
+            if (Breaker.interrupted(ex)) {
+                circuit.cancel();
+            } else if (circuit.failure()) {
+                Logger.warn(
+                    this, "Circuit to %s@%s:%d opened for %[ms]s: %s",
+                    this.getLogin(), this.getAddr(), this.getPort(),
+                    this.cooldown, ex.getMessage()
+                );
+            }
+            throw ex;
+        }
+        circuit.success();
+        return session;
+    }
+
+    /**
+     * Circuit of the host.
+     * @return The circuit, shared
+     */
+    private Breaker.Circuit circuit() {
+        return Breaker.CIRCUITS.computeIfAbsent(
+            String.format(
+                "%s@%s:%d", this.getLogin(), this.getAddr(), this.getPort()
+            ),
+            key -> new Breaker.Circuit(this.threshold, this.cooldown)
+        );
+    }
+
+    /**
+     * Is it a failure because the thread was interrupted or cancelled,
+     * not because of the host?
+     * @param ex The failure
+     * @return TRUE if the host is not to blame
+     */
+    private static boolean interrupted(final Throwable ex) {
+        return (ex instanceof InterruptedIOException
+            && !(ex instanceof SocketTimeoutException))
+            || ex instanceof CancellationException
+            || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * State of a circuit.
+     *
+     * @since 2.0
+     */
+    public enum State {
+        /**
+         * Sessions are opened as usual.
+         */
+        CLOSED,
+
+        /**
+         * New sessions are not opened, commands that need them fail
+         * immediately.
+         */
+        OPEN,
+
+        /**
+         * Cool-down is over, the next session is a trial; while it is
+         * being opened, other commands fail immediately.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Circuit of one host.
+     *
+     * @since 2.0
+     */
+    private static final class Circuit {
+
+        /**
+         * How many consecutive failures open it.
+         */
+        private final int threshold;
+
+        /**
+         * How long it stays open, in milliseconds.
+         */
+        private final long cooldown;
+
+        /**
+         * Consecutive failures.
+         */
+        private int count;
+
+        /**
+         * When it was opened, in milliseconds, or zero if it is closed.
+         */
+        private long opened;
+
+        /**
+         * Is the trial session being opened now?
+         */
+        private boolean trial;
+
+        /**
+         * Ctor.
+         * @param failures How many consecutive failures open it
+         * @param time How long it stays open, in milliseconds
+         */
+        Circuit(final int failures, final long time) {
+            this.threshold = failures;
+            this.cooldown = time;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%d failures, %d ms", this.threshold, this.cooldown
+            );
+        }
+
+        /**
+         * Are these the settings of the circuit?
+         * @param failures How many consecutive failures open it
+         * @param time How long it stays open, in milliseconds
+         * @return TRUE if they are
+         */
+        boolean settings(final int failures, final long time) {
+            return this.threshold == failures && this.cooldown == time;
+        }
+
+        /**
+         * Current state.
+         * @return State
+         */
+        synchronized Breaker.State state() {
+            final Breaker.State state;
+            if (this.opened == 0L) {
+                state = Breaker.State.CLOSED;
+            } else if (this.trial
+                || System.currentTimeMillis() - this.opened >= this.cooldown) {
+                state = Breaker.State.HALF_OPEN;
+            } else {
+                state = Breaker.State.OPEN;
+            }
+            return state;
+        }
+
+        /**
+         * Consecutive failures.
+         * @return Count
+         */
+        synchronized int failures() {
+            return this.count;
+        }
+
+        /**
+         * Try to get a permission to open a session.
+         * @return Zero if permitted, otherwise milliseconds till
+         *  the next trial
+         */
+        synchronized long acquire() {
+            long wait = 0L;
+            if (this.opened != 0L) {
+                final long left = this.opened + this.cooldown
+                    - System.currentTimeMillis();
+                if (this.trial || left > 0L) {
+                    wait = Math.max(left, 1L);
+                } else {
+                    this.trial = true;
+                }
+            }
+            return wait;
+        }
+
+        /**
+         * Session was opened.
+         */
+        synchronized void success() {
+            this.count = 0;
+            this.opened = 0L;
+            this.trial = false;
+        }
+
+        /**
+         * Session was not opened, because the attempt was interrupted;
+         * the next one may be a trial.
+         */
+        synchronized void cancel() {
+            this.trial = false;
+        }
+
+        /**
+         * Session was not opened.
+         * @return TRUE if it has just been opened
+         */
+        synchronized boolean failure() {
+            ++this.count;
+            final boolean open = this.trial
+                || (this.opened == 0L && this.count >= this.threshold);
+            if (open) {
+                this.opened = System.currentTimeMillis();
+                this.trial = false;
+            }
+            return open;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import lombok.ToString;
+
+/**
+ * Pool of direct byte buffers of the same size.
+ *
+ * <p>Direct buffers are expensive to allocate and are freed only by
+ * the garbage collector, so they are taken from the pool and given back
+ * after use. When the pool is empty, a new buffer is allocated; when it
+ * is full, a buffer given back is dropped.</p>
+ *
+ * @since 2.0
+ */
+@ToString(of = "size")
+final class Buffers {
+
+    /**
+     * Size of every buffer, in bytes.
+     */
+    private final transient int size;
+
+    /**
+     * Idle buffers.
+     */
+    private final transient BlockingQueue<ByteBuffer> idle;
+
+    /**
+     * Ctor.
+     * @param bytes Size of every buffer, in bytes
+     * @param max How many idle buffers to keep
+     */
+    Buffers(final int bytes, final int max) {
+        this.size = bytes;
+        this.idle = new ArrayBlockingQueue<>(max);
+    }
+
+    /**
+     * Take a buffer.
+     * @return Empty buffer, ready for writing into it
+     */
+    ByteBuffer take() {
+        ByteBuffer buf = this.idle.poll();
+        if (buf == null) {
+            buf = ByteBuffer.allocateDirect(this.size);
+        }
+        buf.clear();
+        return buf;
+    }
+
+    /**
+     * Give the buffer back.
+     * @param buf The buffer, which must not be used anymore
+     */
+    void give(final ByteBuffer buf) {
+        this.idle.offer(buf);
+    }
+
+    /**
+     * How many buffers are idle.
+     * @return Total
+     */
+    int idle() {
+        return this.idle.size();
+    }
+}
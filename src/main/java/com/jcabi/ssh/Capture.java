@@ -0,0 +1,483 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.ToString;
+
+/**
+ * Output of a command, captured with a hard limit on memory.
+ *
+ * <p>Use it instead of {@link java.io.ByteArrayOutputStream}, when the
+ * output may be unexpectedly large:</p>
+ *
+ * <pre> Capture.Tail stderr = new Capture.Tail(64 * 1024);
+ * Capture.Spill stdout = new Capture.Spill(1024 * 1024);
+ * try {
+ *   shell.exec("find /", new DeadInputStream(), stdout, stderr);
+ *   try (Reader reader = stdout.reader()) {
+ *     // read it
+ *   }
+ * } finally {
+ *   stdout.delete();
+ * }</pre>
+ *
+ * <p>{@link Capture.Tail} keeps only the last bytes, in a ring buffer,
+ * which is usually enough for error reporting.
+ * {@link Capture.Spill} keeps bytes in memory until a threshold and then
+ * moves them to a memory-mapped temporary file, which doesn't take heap.
+ * In both cases the stream must be read after the command is finished.</p>
+ *
+ * @since 2.0
+ */
+public interface Capture {
+
+    /**
+     * Total number of bytes written, including those which were dropped.
+     * @return Bytes
+     */
+    long size();
+
+    /**
+     * Were some bytes dropped?
+     * @return TRUE if not all bytes are kept
+     */
+    boolean truncated();
+
+    /**
+     * Bytes kept.
+     * @return Stream of them, read lazily
+     * @throws IOException If fails
+     */
+    InputStream input() throws IOException;
+
+    /**
+     * Text kept, decoded as UTF-8.
+     * @return Reader, which reads lazily
+     * @throws IOException If fails
+     */
+    default Reader reader() throws IOException {
+        return new InputStreamReader(this.input(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Last bytes of the output, in a ring buffer of a fixed size.
+     *
+     * @since 2.0
+     */
+    @ToString(of = "total")
+    final class Tail extends OutputStream implements Capture {
+
+        /**
+         * The ring.
+         */
+        private final transient byte[] ring;
+
+        /**
+         * Total bytes written.
+         */
+        private transient long total;
+
+        /**
+         * Ctor.
+         * @param bytes How many last bytes to keep
+         */
+        public Tail(final int bytes) {
+            super();
+            if (bytes <= 0) {
+                throw new IllegalArgumentException(
+                    String.format("Size of the tail must be positive: %d", bytes)
+                );
+            }
+            this.ring = new byte[bytes];
+        }
+
+        @Override
+        public void write(final int data) {
+            synchronized (this.ring) {
+                this.ring[(int) (this.total % this.ring.length)] = (byte) data;
+                ++this.total;
+            }
+        }
+
+        @Override
+        public void write(final byte[] data, final int off, final int len) {
+            synchronized (this.ring) {
+                final int skip = Math.max(0, len - this.ring.length);
+                int pos = (int) ((this.total + skip) % this.ring.length);
+                int src = off + skip;
+                int left = len - skip;
+                while (left > 0) {
+                    final int chunk = Math.min(left, this.ring.length - pos);
+                    System.arraycopy(data, src, this.ring, pos, chunk);
+                    pos = (pos + chunk) % this.ring.length;
+                    src += chunk;
+                    left -= chunk;
+                }
+                this.total += len;
+            }
+        }
+
+        @Override
+        public long size() {
+            synchronized (this.ring) {
+                return this.total;
+            }
+        }
+
+        @Override
+        public boolean truncated() {
+            synchronized (this.ring) {
+                return this.total > this.ring.length;
+            }
+        }
+
+        @Override
+        public InputStream input() {
+            synchronized (this.ring) {
+                final InputStream input;
+                if (this.total <= this.ring.length) {
+                    input = new ByteArrayInputStream(
+                        this.ring, 0, (int) this.total
+                    );
+                } else {
+                    final int start = (int) (this.total % this.ring.length);
+                    input = new SequenceInputStream(
+                        new ByteArrayInputStream(
+                            this.ring, start, this.ring.length - start
+                        ),
+                        new ByteArrayInputStream(this.ring, 0, start)
+                    );
+                }
+                return input;
+            }
+        }
+    }
+
+    /**
+     * Output kept in memory until a threshold, and then in
+     * a memory-mapped temporary file.
+     *
+     * <p>Heap usage never exceeds the threshold. Bytes beyond the limit,
+     * if it is set, are dropped. The temporary file is deleted
+     * by {@link #delete()}.</p>
+     *
+     * @since 2.0
+     */
+    @ToString(of = { "total", "file" })
+    final class Spill extends OutputStream implements Capture {
+
+        /**
+         * Size of one mapped region of the file.
+         */
+        private static final int REGION = 1 << 24;
+
+        /**
+         * How many bytes to keep in memory.
+         */
+        private final transient int threshold;
+
+        /**
+         * How many bytes to keep in total.
+         */
+        private final transient long limit;
+
+        /**
+         * Mapped regions of the file.
+         */
+        private final transient List<MappedByteBuffer> regions;
+
+        /**
+         * Bytes in memory, or NULL if they are in the file.
+         */
+        private transient byte[] memory;
+
+        /**
+         * Total bytes written.
+         */
+        private transient long total;
+
+        /**
+         * Bytes kept.
+         */
+        private transient long kept;
+
+        /**
+         * The file, or NULL if bytes are in memory.
+         */
+        private transient Path file;
+
+        /**
+         * The channel of the file, or NULL.
+         */
+        private transient FileChannel channel;
+
+        /**
+         * Ctor.
+         * @param bytes How many bytes to keep in memory
+         */
+        public Spill(final int bytes) {
+            this(bytes, Long.MAX_VALUE);
+        }
+
+        /**
+         * Ctor.
+         * @param bytes How many bytes to keep in memory
+         * @param max How many bytes to keep in total, the rest is dropped
+         */
+        public Spill(final int bytes, final long max) {
+            super();
+            if (bytes < 0 || max < 0L) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "Sizes can't be negative: %d in memory, %d in total",
+                        bytes, max
+                    )
+                );
+            }
+            this.threshold = bytes;
+            this.limit = max;
+            this.regions = new ArrayList<>(0);
+            this.memory = new byte[0];
+        }
+
+        @Override
+        public void write(final int data) throws IOException {
+            this.write(new byte[] {(byte) data}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] data, final int off, final int len)
+            throws IOException {
+            synchronized (this.regions) {
+                this.total += len;
+                final int take = (int) Math.min(len, this.limit - this.kept);
+                if (take > 0) {
+                    if (this.memory != null
+                        && this.kept + take > this.threshold) {
+                        this.spill();
+                    }
+                    if (this.memory == null) {
+                        this.map(data, off, take, this.kept);
+                    } else {
+                        if (this.kept + take > this.memory.length) {
+                            this.memory = Arrays.copyOf(
+                                this.memory,
+                                (int) Math.min(
+                                    this.threshold,
+                                    Math.max(
+                                        this.kept + take,
+                                        this.memory.length * 2L
+                                    )
+                                )
+                            );
+                        }
+                        System.arraycopy(
+                            data, off, this.memory, (int) this.kept, take
+                        );
+                    }
+                    this.kept += take;
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (this.regions) {
+                if (this.channel != null) {
+                    this.channel.close();
+                }
+            }
+        }
+
+        @Override
+        public long size() {
+            synchronized (this.regions) {
+                return this.total;
+            }
+        }
+
+        @Override
+        public boolean truncated() {
+            synchronized (this.regions) {
+                return this.total > this.kept;
+            }
+        }
+
+        @Override
+        public InputStream input() {
+            synchronized (this.regions) {
+                final InputStream input;
+                if (this.memory == null) {
+                    final List<ByteBuffer> views = new ArrayList<>(
+                        this.regions.size()
+                    );
+                    long left = this.kept;
+                    for (final MappedByteBuffer region : this.regions) {
+                        final ByteBuffer view = region.asReadOnlyBuffer();
+                        view.clear();
+                        view.limit((int) Math.min(left, view.capacity()));
+                        left -= view.limit();
+                        views.add(view);
+                    }
+                    input = new Capture.Spill.Mapped(views);
+                } else {
+                    input = new ByteArrayInputStream(
+                        this.memory, 0, (int) this.kept
+                    );
+                }
+                return input;
+            }
+        }
+
+        /**
+         * Is it in the file?
+         * @return TRUE if the threshold was passed
+         */
+        public boolean spilled() {
+            synchronized (this.regions) {
+                return this.file != null;
+            }
+        }
+
+        /**
+         * Delete the temporary file, if it exists; the bytes kept in it
+         * are not available anymore.
+         *
+         * <p>On some platforms the file can't be deleted while
+         * it is mapped; then it is deleted when the JVM exits.</p>
+         *
+         * @throws IOException If fails
+         */
+        public void delete() throws IOException {
+            synchronized (this.regions) {
+                if (this.file != null) {
+                    this.close();
+                    this.regions.clear();
+                    try {
+                        Files.deleteIfExists(this.file);
+                    } catch (final IOException ex) {
+                        this.file.toFile().deleteOnExit();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Move bytes from memory to a new temporary file.
+         * @throws IOException If fails
+         */
+        private void spill() throws IOException {
+            this.file = Files.createTempFile("jcabi-ssh-", ".out");
+            this.channel = FileChannel.open(
+                this.file, StandardOpenOption.READ, StandardOpenOption.WRITE
+            );
+            this.map(this.memory, 0, (int) this.kept, 0L);
+            this.memory = null;
+        }
+
+        /**
+         * Write bytes to the mapped file.
+         * @param data Bytes
+         * @param off Offset in bytes
+         * @param len How many
+         * @param start Position in the file
+         * @throws IOException If fails
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        private void map(final byte[] data, final int off, final int len,
+            final long start) throws IOException {
+            long pos = start;
+            int src = off;
+            int left = len;
+            while (left > 0) {
+                final int idx = (int) (pos / Capture.Spill.REGION);
+                if (idx == this.regions.size()) {
+                    this.regions.add(
+                        this.channel.map(
+                            FileChannel.MapMode.READ_WRITE,
+                            (long) idx * Capture.Spill.REGION,
+                            Capture.Spill.REGION
+                        )
+                    );
+                }
+                final ByteBuffer region = this.regions.get(idx).duplicate();
+                region.position((int) (pos % Capture.Spill.REGION));
+                final int chunk = Math.min(left, region.remaining());
+                region.put(data, src, chunk);
+                pos += chunk;
+                src += chunk;
+                left -= chunk;
+            }
+        }
+
+        /**
+         * Input stream over mapped regions.
+         * @since 2.0
+         */
+        private static final class Mapped extends InputStream {
+
+            /**
+             * Regions, positioned.
+             */
+            private final List<ByteBuffer> views;
+
+            /**
+             * Current region.
+             */
+            private int current;
+
+            /**
+             * Ctor.
+             * @param bufs Regions, positioned
+             */
+            Mapped(final List<ByteBuffer> bufs) {
+                super();
+                this.views = bufs;
+            }
+
+            @Override
+            public int read() {
+                final byte[] one = new byte[1];
+                int data = -1;
+                if (this.read(one, 0, 1) > 0) {
+                    data = Byte.toUnsignedInt(one[0]);
+                }
+                return data;
+            }
+
+            @Override
+            public int read(final byte[] buf, final int off, final int len) {
+                while (this.current < this.views.size()
+                    && !this.views.get(this.current).hasRemaining()) {
+                    ++this.current;
+                }
+                int done = -1;
+                if (this.current < this.views.size()) {
+                    final ByteBuffer view = this.views.get(this.current);
+                    done = Math.min(len, view.remaining());
+                    view.get(buf, off, done);
+                }
+                return done;
+            }
+        }
+    }
+}
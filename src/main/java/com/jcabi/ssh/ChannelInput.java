@@ -0,0 +1,154 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+
+/**
+ * Input stream that reads a channel through a pooled direct buffer.
+ *
+ * <p>The channel is read in blocks of the size of the buffer, no matter
+ * how small the reads of the stream are, and the buffer is taken from
+ * the pool on the first read. JSch may close the stream
+ * while its other thread is reading it, so the buffer goes back to the
+ * pool when both are done.</p>
+ *
+ * @since 2.0
+ */
+final class ChannelInput extends InputStream {
+
+    /**
+     * The channel.
+     */
+    private final transient ReadableByteChannel channel;
+
+    /**
+     * The pool.
+     */
+    private final transient Buffers pool;
+
+    /**
+     * The buffer, or NULL if not taken yet.
+     */
+    private transient ByteBuffer buffer;
+
+    /**
+     * Is it being read now?
+     */
+    private transient boolean busy;
+
+    /**
+     * Is it closed?
+     */
+    private transient boolean closed;
+
+    /**
+     * Ctor.
+     * @param chnl The channel, in blocking mode
+     * @param buffers Pool of buffers
+     */
+    ChannelInput(final ReadableByteChannel chnl, final Buffers buffers) {
+        super();
+        if (chnl instanceof SelectableChannel
+            && !((SelectableChannel) chnl).isBlocking()) {
+            throw new IllegalArgumentException(
+                "The channel must be in blocking mode"
+            );
+        }
+        this.channel = chnl;
+        this.pool = buffers;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] one = new byte[1];
+        int data = -1;
+        if (this.read(one, 0, 1) > 0) {
+            data = one[0] & 0xff;
+        }
+        return data;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int off, final int len)
+        throws IOException {
+        final ByteBuffer buf;
+        synchronized (this) {
+            if (this.closed) {
+                throw new IOException("The stream is closed");
+            }
+            if (this.buffer == null) {
+                this.buffer = this.pool.take();
+                this.buffer.flip();
+            }
+            buf = this.buffer;
+            this.busy = true;
+        }
+        try {
+            int done = -1;
+            if (buf.hasRemaining() || this.fill(buf)) {
+                done = Math.min(len, buf.remaining());
+                buf.get(bytes, off, done);
+            }
+            return done;
+        } finally {
+            synchronized (this) {
+                this.busy = false;
+                if (this.closed) {
+                    this.release();
+                }
+            }
+        }
+    }
+
+    @Override
+    public int available() {
+        synchronized (this) {
+            int total = 0;
+            if (this.buffer != null && !this.busy) {
+                total = this.buffer.remaining();
+            }
+            return total;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            this.closed = true;
+            if (!this.busy) {
+                this.release();
+            }
+        }
+        this.channel.close();
+    }
+
+    /**
+     * Read the next block from the channel.
+     * @param buf Empty buffer
+     * @return FALSE if the channel is over
+     * @throws IOException If fails
+     */
+    private boolean fill(final ByteBuffer buf) throws IOException {
+        buf.clear();
+        final int len = this.channel.read(buf);
+        buf.flip();
+        return len > 0;
+    }
+
+    /**
+     * Give the buffer back to the pool, if it was taken.
+     */
+    private void release() {
+        if (this.buffer != null) {
+            this.pool.give(this.buffer);
+            this.buffer = null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Output stream that writes to a channel through a pooled direct buffer.
+ *
+ * <p>JSch writes every SSH packet separately and flushes after each
+ * of them. Here the packets are collected in the buffer and
+ * the channel is written only when the buffer is full, or when the
+ * stream is closed; {@link #flush()} does nothing. The buffer is taken
+ * from the pool on the first write and goes back on close.</p>
+ *
+ * @since 2.0
+ */
+final class ChannelOutput extends OutputStream {
+
+    /**
+     * The channel.
+     */
+    private final transient WritableByteChannel channel;
+
+    /**
+     * The pool.
+     */
+    private final transient Buffers pool;
+
+    /**
+     * The buffer, or NULL if not taken yet.
+     */
+    private transient ByteBuffer buffer;
+
+    /**
+     * Is it closed?
+     */
+    private transient boolean closed;
+
+    /**
+     * Ctor.
+     * @param chnl The channel, in blocking mode
+     * @param buffers Pool of buffers
+     */
+    ChannelOutput(final WritableByteChannel chnl, final Buffers buffers) {
+        super();
+        if (chnl instanceof SelectableChannel
+            && !((SelectableChannel) chnl).isBlocking()) {
+            throw new IllegalArgumentException(
+                "The channel must be in blocking mode"
+            );
+        }
+        this.channel = chnl;
+        this.pool = buffers;
+    }
+
+    @Override
+    public void write(final int data) throws IOException {
+        this.write(new byte[] {(byte) data}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int off, final int len)
+        throws IOException {
+        synchronized (this) {
+            if (this.closed) {
+                throw new IOException("The stream is closed");
+            }
+            if (this.buffer == null && len > 0) {
+                this.buffer = this.pool.take();
+            }
+            int pos = off;
+            int left = len;
+            while (left > 0) {
+                final int part = Math.min(left, this.buffer.remaining());
+                this.buffer.put(bytes, pos, part);
+                pos += part;
+                left -= part;
+                if (!this.buffer.hasRemaining()) {
+                    this.drain();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (!this.closed) {
+                this.closed = true;
+                try {
+                    if (this.buffer != null) {
+                        this.drain();
+                    }
+                } finally {
+                    if (this.buffer != null) {
+                        this.pool.give(this.buffer);
+                        this.buffer = null;
+                    }
+                    this.channel.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Write everything from the buffer to the channel.
+     * @throws IOException If fails
+     */
+    private void drain() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+}
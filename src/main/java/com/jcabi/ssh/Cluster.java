@@ -0,0 +1,424 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.log.Logger;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.cactoos.io.DeadInputStream;
+
+/**
+ * Many shells, running the same command in parallel.
+ *
+ * <pre> List&lt;Cluster.Result&gt; results = new Cluster(
+ *   Map.of(
+ *     "web-1", new Ssh("web-1.example.com", 22, "deploy", key),
+ *     "web-2", new Ssh("web-2.example.com", 22, "deploy", key)
+ *   ),
+ *   16
+ * ).exec("df -h");</pre>
+ *
+ * <p>No more than the configured number of hosts are busy at the same
+ * time. Stdout and stderr of each host are collected separately. Results
+ * are delivered to the listener as soon as each host finishes, in
+ * no particular order, from the threads of the executor. If the listener
+ * throws, the rest of the hosts are run and delivered to it anyway,
+ * and then the exception is thrown from {@code exec()}.</p>
+ *
+ * <p>In "fail fast" mode no new hosts are started after the first one
+ * failed (either with an exception or a non-zero exit code), but the
+ * commands already running are not interrupted. Hosts that were not
+ * started get results too, after all others, with
+ * {@link Result#skipped()} returning TRUE.</p>
+ *
+ * @since 2.0
+ */
+@ToString(of = "shells")
+@EqualsAndHashCode(of = { "shells", "parallel", "fast" })
+public final class Cluster {
+
+    /**
+     * Shells, by their names.
+     */
+    private final transient Map<String, Shell> shells;
+
+    /**
+     * How many hosts may be busy at the same time.
+     */
+    private final transient int parallel;
+
+    /**
+     * Stop after the first failure?
+     */
+    private final transient boolean fast;
+
+    /**
+     * Executor to run commands in.
+     */
+    private final transient Executor threads;
+
+    /**
+     * Ctor.
+     * @param list Shells, named by their positions in the list
+     * @param max How many hosts may be busy at the same time
+     */
+    public Cluster(final Collection<? extends Shell> list, final int max) {
+        this(Cluster.named(list), max);
+    }
+
+    /**
+     * Ctor.
+     * @param map Shells, by their names
+     * @param max How many hosts may be busy at the same time
+     */
+    public Cluster(final Map<String, ? extends Shell> map, final int max) {
+        this(map, max, false);
+    }
+
+    /**
+     * Ctor.
+     * @param map Shells, by their names
+     * @param max How many hosts may be busy at the same time
+     * @param stop Don't start new hosts after the first failure
+     */
+    public Cluster(final Map<String, ? extends Shell> map, final int max,
+        final boolean stop) {
+        this(map, max, stop, new VirtualThreads());
+    }
+
+    /**
+     * Ctor.
+     * @param map Shells, by their names
+     * @param max How many hosts may be busy at the same time
+     * @param stop Don't start new hosts after the first failure
+     * @param exec Executor to run commands in
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Cluster(final Map<String, ? extends Shell> map, final int max,
+        final boolean stop, final Executor exec) {
+        this.shells = Collections.unmodifiableMap(new LinkedHashMap<>(map));
+        this.parallel = max;
+        this.fast = stop;
+        this.threads = exec;
+    }
+
+    /**
+     * Run the command on all hosts and wait for all of them to finish.
+     * @param command The command
+     * @return Results of all hosts, in the order of completion, skipped
+     *  ones at the end
+     * @throws IOException If interrupted
+     */
+    public List<Cluster.Result> exec(final String command)
+        throws IOException {
+        return this.exec(command, result -> { });
+    }
+
+    /**
+     * Run the command on all hosts and wait for all of them to finish.
+     * @param command The command
+     * @param listener Receives results as soon as hosts finish, must
+     *  be thread-safe
+     * @return Results of all hosts, in the order of completion, skipped
+     *  ones at the end
+     * @throws IOException If interrupted
+     */
+    public List<Cluster.Result> exec(final String command,
+        final Consumer<Cluster.Result> listener) throws IOException {
+        final Queue<Map.Entry<String, Shell>> queue =
+            new ConcurrentLinkedQueue<>(this.shells.entrySet());
+        final List<Cluster.Result> results =
+            Collections.synchronizedList(new ArrayList<>(this.shells.size()));
+        final AtomicBoolean failed = new AtomicBoolean();
+        final AtomicReference<RuntimeException> broken =
+            new AtomicReference<>();
+        final int workers = Math.max(
+            1, Math.min(this.parallel, this.shells.size())
+        );
+        final CountDownLatch done = new CountDownLatch(workers);
+        for (int idx = 0; idx < workers; ++idx) {
+            this.threads.execute(
+                () -> {
+                    try {
+                        while (!this.fast || !failed.get()) {
+                            final Map.Entry<String, Shell> entry = queue.poll();
+                            if (entry == null) {
+                                break;
+                            }
+                            final Cluster.Result res = Cluster.run(
+                                entry.getKey(), entry.getValue(), command
+                            );
+                            if (!res.success()) {
+                                failed.set(true);
+                            }
+                            results.add(res);
+                            Cluster.deliver(listener, res, broken);
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            );
+        }
+        try {
+            done.await();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(
+                String.format("Interrupted while running '%s'", command),
+                ex
+            );
+        }
+        final int finished = results.size();
+        for (final Map.Entry<String, Shell> entry : queue) {
+            final Cluster.Result res = new Cluster.Result(entry.getKey());
+            results.add(res);
+            Cluster.deliver(listener, res, broken);
+        }
+        Logger.info(
+            this, "'%s' finished on %d host(s) out of %d, %d skipped",
+            command, finished, this.shells.size(), results.size() - finished
+        );
+        if (broken.get() != null) {
+            throw broken.get();
+        }
+        return new ArrayList<>(results);
+    }
+
+    /**
+     * Give the result to the listener and remember its failure, if any.
+     * @param listener The listener
+     * @param res The result
+     * @param broken The first failure of the listener, with others
+     *  suppressed by it
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private static void deliver(final Consumer<Cluster.Result> listener,
+        final Cluster.Result res,
+        final AtomicReference<RuntimeException> broken) {
+        try {
+            listener.accept(res);
+            // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final RuntimeException ex) {
+            if (!broken.compareAndSet(null, ex)) {
+                broken.get().addSuppressed(ex);
+            }
+        }
+    }
+
+    /**
+     * Run one command on one host.
+     * @param name Name of the host
+     * @param shell The shell
+     * @param command The command
+     * @return Result
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private static Cluster.Result run(final String name, final Shell shell,
+        final String command) {
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        final long start = System.currentTimeMillis();
+        int code = -1;
+        Exception error = null;
+        try {
+            code = shell.exec(command, new DeadInputStream(), stdout, stderr);
+            // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final Exception ex) {
+            error = ex;
+        }
+        return new Cluster.Result(
+            name, code, System.currentTimeMillis() - start,
+            stdout.toByteArray(), stderr.toByteArray(), error
+        );
+    }
+
+    /**
+     * Name shells by their positions.
+     * @param list The shells
+     * @return Shells by names
+     */
+    private static Map<String, Shell> named(
+        final Collection<? extends Shell> list) {
+        final Map<String, Shell> map = new LinkedHashMap<>(list.size());
+        for (final Shell shell : list) {
+            map.put(String.format("#%d", map.size()), shell);
+        }
+        return map;
+    }
+
+    /**
+     * Result of a command on one host.
+     * @since 2.0
+     */
+    @ToString(of = { "host", "code", "msec", "skip" })
+    @EqualsAndHashCode(of = { "host", "code" })
+    public static final class Result {
+
+        /**
+         * Name of the host.
+         */
+        private final transient String host;
+
+        /**
+         * Exit code.
+         */
+        private final transient int code;
+
+        /**
+         * How long it took, in milliseconds.
+         */
+        private final transient long msec;
+
+        /**
+         * Stdout.
+         */
+        private final transient byte[] stdout;
+
+        /**
+         * Stderr.
+         */
+        private final transient byte[] stderr;
+
+        /**
+         * Exception, if any.
+         */
+        private final transient Exception error;
+
+        /**
+         * Was it not started at all?
+         */
+        private final transient boolean skip;
+
+        /**
+         * Ctor, of a host that was not started.
+         * @param name Name of the host
+         */
+        Result(final String name) {
+            this(name, -1, 0L, new byte[0], new byte[0], null, true);
+        }
+
+        /**
+         * Ctor.
+         * @param name Name of the host
+         * @param exit Exit code
+         * @param time How long it took, in milliseconds
+         * @param out Stdout
+         * @param err Stderr
+         * @param failure Exception or NULL
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Result(final String name, final int exit, final long time,
+            final byte[] out, final byte[] err, final Exception failure) {
+            this(name, exit, time, out, err, failure, false);
+        }
+
+        /**
+         * Ctor.
+         * @param name Name of the host
+         * @param exit Exit code
+         * @param time How long it took, in milliseconds
+         * @param out Stdout
+         * @param err Stderr
+         * @param failure Exception or NULL
+         * @param skipped Was it not started at all?
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        private Result(final String name, final int exit, final long time,
+            final byte[] out, final byte[] err, final Exception failure,
+            final boolean skipped) {
+            this.host = name;
+            this.code = exit;
+            this.msec = time;
+            this.stdout = out;
+            this.stderr = err;
+            this.error = failure;
+            this.skip = skipped;
+        }
+
+        /**
+         * Name of the host.
+         * @return Name
+         */
+        public String host() {
+            return this.host;
+        }
+
+        /**
+         * Exit code, or -1 if the command failed with an exception
+         * or was not started.
+         * @return Exit code
+         */
+        public int code() {
+            return this.code;
+        }
+
+        /**
+         * How long it took, in milliseconds.
+         * @return Milliseconds
+         */
+        public long millis() {
+            return this.msec;
+        }
+
+        /**
+         * Stdout of the command.
+         * @return Stdout
+         */
+        public String stdout() {
+            return new String(this.stdout, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Stderr of the command.
+         * @return Stderr
+         */
+        public String stderr() {
+            return new String(this.stderr, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Exception, which stopped the command, if any.
+         * @return Exception
+         */
+        public Optional<Exception> error() {
+            return Optional.ofNullable(this.error);
+        }
+
+        /**
+         * Was the host skipped, because another one failed
+         * in "fail fast" mode?
+         * @return TRUE if the command was not started on it
+         */
+        public boolean skipped() {
+            return this.skip;
+        }
+
+        /**
+         * Finished with zero exit code?
+         * @return TRUE if succeeded
+         */
+        public boolean success() {
+            return this.error == null && this.code == 0;
+        }
+    }
+}
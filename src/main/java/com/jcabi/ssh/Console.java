@@ -0,0 +1,281 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.log.Logger;
+import com.jcraft.jsch.ChannelShell;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Shell that runs all commands, one after another, in one
+ * long-living "shell" channel.
+ *
+ * <p>The channel is opened with the first command and stays open
+ * until {@link #close()}, so the state of the remote shell, like current
+ * directory or environment variables, is shared between commands:</p>
+ *
+ * <pre> try (Console console = new Console(new Ssh(...))) {
+ *   Shell shell = new Shell.Safe(console);
+ *   shell.exec("cd /var/www", ...);
+ *   shell.exec("export MODE=prod", ...);
+ *   String files = new Shell.Plain(console).exec("ls");
+ * }</pre>
+ *
+ * <p>The end of each command is detected by a unique marker, which the
+ * remote shell prints to stdout, together with the exit code, and
+ * to stderr. Commands read their stdin from {@code /dev/null}, the stdin
+ * provided to {@link #exec(String, InputStream, OutputStream, OutputStream)}
+ * is closed and ignored. A command must not {@code exit} the remote
+ * shell; if it does, or if the channel is broken for any other reason,
+ * the exec fails and the next one opens a new channel.</p>
+ *
+ * <p>The login shell of the user on the server must be compatible with
+ * POSIX {@code sh}, like {@code bash}, {@code dash} or {@code zsh}, since
+ * every command is wrapped into a group with {@code printf} after it;
+ * {@code csh} or {@code fish} won't work. The channel is opened without
+ * a terminal, so the shell doesn't print prompts or echo commands.</p>
+ *
+ * <p>Commands are executed one at a time; the class is thread-safe.</p>
+ *
+ * @since 2.0
+ */
+@ToString(of = "origin")
+@EqualsAndHashCode(of = "origin")
+public final class Console implements Shell, Closeable {
+
+    /**
+     * Shell that makes sessions.
+     */
+    private final transient AbstractSshShell origin;
+
+    /**
+     * Executor to read stderr in.
+     */
+    private final transient Executor threads;
+
+    /**
+     * Lock, for one command at a time.
+     */
+    private final transient Object lock;
+
+    /**
+     * Currently open channel, or NULL.
+     */
+    private transient Console.Link link;
+
+    /**
+     * Ctor.
+     * @param shell Shell that makes sessions
+     */
+    public Console(final AbstractSshShell shell) {
+        this(shell, new VirtualThreads());
+    }
+
+    /**
+     * Ctor.
+     * @param shell Shell that makes sessions
+     * @param exec Executor to read stderr in
+     */
+    public Console(final AbstractSshShell shell, final Executor exec) {
+        this.origin = shell;
+        this.threads = exec;
+        this.lock = new Object();
+    }
+
+    @Override
+    public int exec(final String command, final InputStream stdin,
+        final OutputStream stdout, final OutputStream stderr)
+        throws IOException {
+        synchronized (this.lock) {
+            try {
+                if (this.link == null || !this.link.alive()) {
+                    this.close();
+                    this.link = new Console.Link(this.origin);
+                }
+                return this.link.run(command, stdout, stderr, this.threads);
+            } catch (final IOException ex) {
+                this.close();
+                throw ex;
+            } finally {
+                stdin.close();
+                stdout.close();
+                stderr.close();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this.lock) {
+            if (this.link != null) {
+                this.link.close();
+                this.link = null;
+            }
+        }
+    }
+
+    /**
+     * Open "shell" channel.
+     * @since 2.0
+     */
+    private static final class Link {
+
+        /**
+         * Shell that made the session.
+         */
+        private final AbstractSshShell shell;
+
+        /**
+         * The session.
+         */
+        private final Session session;
+
+        /**
+         * The channel.
+         */
+        private final ChannelShell channel;
+
+        /**
+         * Stdin of the remote shell.
+         */
+        private final OutputStream input;
+
+        /**
+         * Stdout of the remote shell.
+         */
+        private final InputStream output;
+
+        /**
+         * Stderr of the remote shell.
+         */
+        private final InputStream errors;
+
+        /**
+         * Ctor.
+         * @param sh Shell that makes sessions
+         * @throws IOException If fails
+         */
+        Link(final AbstractSshShell sh) throws IOException {
+            this.shell = sh;
+            this.session = sh.session();
+            try {
+                this.channel = ChannelShell.class.cast(
+                    this.session.openChannel("shell")
+                );
+                this.channel.setPty(false);
+                this.input = this.channel.getOutputStream();
+                this.output = new BufferedInputStream(
+                    this.channel.getInputStream()
+                );
+                this.errors = new BufferedInputStream(
+                    this.channel.getExtInputStream()
+                );
+                this.channel.connect((int) TimeUnit.SECONDS.toMillis(10L));
+            } catch (final JSchException ex) {
+                sh.release(this.session);
+                throw new IOException(ex);
+            }
+            Logger.debug(
+                this, "Shell channel opened to %s@%s:%d",
+                sh.getLogin(), sh.getAddr(), sh.getPort()
+            );
+        }
+
+        /**
+         * Is it still open?
+         * @return TRUE if open
+         */
+        boolean alive() {
+            return this.channel.isConnected() && !this.channel.isClosed();
+        }
+
+        /**
+         * Run one command.
+         * @param command The command
+         * @param stdout Where to copy stdout
+         * @param stderr Where to copy stderr
+         * @param exec Executor to read stderr in
+         * @return Exit code
+         * @throws IOException If fails
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        int run(final String command, final OutputStream stdout,
+            final OutputStream stderr, final Executor exec)
+            throws IOException {
+            final String mark = UUID.randomUUID().toString();
+            final Boundary boundary = new Boundary(
+                String.format("\u001e%s", mark)
+            );
+            this.input.write(
+                String.join(
+                    "\n",
+                    "{",
+                    command,
+                    "} < /dev/null",
+                    String.format("printf '\\036%%s %%d\\n' %s \"$?\"", mark),
+                    String.format("printf '\\036%%s\\n' %s >&2", mark),
+                    ""
+                ).getBytes(StandardCharsets.UTF_8)
+            );
+            this.input.flush();
+            Logger.info(this, "+ %s", command);
+            final CompletableFuture<String> err = CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return boundary.copy(this.errors, stderr);
+                    } catch (final IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                },
+                exec
+            );
+            final String code = boundary.copy(this.output, stdout);
+            try {
+                err.get();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            } catch (final ExecutionException ex) {
+                throw new IOException(ex.getCause());
+            }
+            try {
+                return Integer.parseInt(code);
+            } catch (final NumberFormatException ex) {
+                throw new IOException(
+                    String.format("Invalid exit code '%s' of: %s", code, command),
+                    ex
+                );
+            }
+        }
+
+        /**
+         * Close the channel and give the session back.
+         */
+        void close() {
+            this.channel.disconnect();
+            this.shell.release(this.session);
+            Logger.debug(
+                this, "Shell channel closed to %s@%s:%d",
+                this.shell.getLogin(), this.shell.getAddr(),
+                this.shell.getPort()
+            );
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Input stream that counts bytes read.
+ *
+ * @since 2.0
+ */
+final class CountingInput extends FilterInputStream {
+
+    /**
+     * Bytes read so far.
+     */
+    private final transient AtomicLong total;
+
+    /**
+     * Ctor.
+     * @param stream Original stream
+     */
+    CountingInput(final InputStream stream) {
+        super(stream);
+        this.total = new AtomicLong();
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int data = this.in.read();
+        if (data >= 0) {
+            this.total.incrementAndGet();
+        }
+        return data;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int off, final int len)
+        throws IOException {
+        final int done = this.in.read(bytes, off, len);
+        if (done > 0) {
+            this.total.addAndGet(done);
+        }
+        return done;
+    }
+
+    /**
+     * Bytes read so far.
+     * @return Total
+     */
+    long bytes() {
+        return this.total.get();
+    }
+}
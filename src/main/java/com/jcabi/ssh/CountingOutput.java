@@ -0,0 +1,53 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Output stream that counts bytes written.
+ *
+ * @since 2.0
+ */
+final class CountingOutput extends FilterOutputStream {
+
+    /**
+     * Bytes written so far.
+     */
+    private final transient AtomicLong total;
+
+    /**
+     * Ctor.
+     * @param stream Original stream
+     */
+    CountingOutput(final OutputStream stream) {
+        super(stream);
+        this.total = new AtomicLong();
+    }
+
+    @Override
+    public void write(final int data) throws IOException {
+        this.out.write(data);
+        this.total.incrementAndGet();
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int off, final int len)
+        throws IOException {
+        this.out.write(bytes, off, len);
+        this.total.addAndGet(len);
+    }
+
+    /**
+     * Bytes written so far.
+     * @return Total
+     */
+    long bytes() {
+        return this.total.get();
+    }
+}
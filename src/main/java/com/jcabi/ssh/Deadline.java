@@ -0,0 +1,130 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline of the current thread, which interrupts it when expired.
+ *
+ * <p>It must be started and stopped by the same thread. After it is
+ * stopped the thread is never interrupted by it, and the interrupted
+ * status, if it was set by the deadline, is cleared. If the thread
+ * is interrupted already when the deadline expires, the deadline
+ * doesn't interrupt it and leaves the status as it is.</p>
+ *
+ * @since 2.0
+ */
+final class Deadline {
+
+    /**
+     * Timer of all deadlines.
+     */
+    private static final ScheduledThreadPoolExecutor TIMER =
+        Deadline.timer();
+
+    /**
+     * The thread.
+     */
+    private final transient Thread thread;
+
+    /**
+     * Time left, in nanoseconds.
+     */
+    private final transient long nanos;
+
+    /**
+     * Alarm, or NULL if not started.
+     */
+    private transient Future<?> alarm;
+
+    /**
+     * Is it stopped?
+     */
+    private transient boolean stopped;
+
+    /**
+     * Is it expired?
+     */
+    private transient boolean expired;
+
+    /**
+     * Has it interrupted the thread?
+     */
+    private transient boolean interrupted;
+
+    /**
+     * Ctor.
+     * @param time Time left
+     * @param unit Unit of time
+     */
+    Deadline(final long time, final TimeUnit unit) {
+        this.thread = Thread.currentThread();
+        this.nanos = unit.toNanos(time);
+    }
+
+    /**
+     * Start counting.
+     * @return This
+     */
+    synchronized Deadline start() {
+        this.alarm = Deadline.TIMER.schedule(
+            this::expire, this.nanos, TimeUnit.NANOSECONDS
+        );
+        return this;
+    }
+
+    /**
+     * Stop counting.
+     * @return TRUE if it has expired
+     */
+    synchronized boolean stop() {
+        if (!this.stopped) {
+            this.stopped = true;
+            if (this.alarm != null) {
+                this.alarm.cancel(false);
+            }
+            if (this.interrupted) {
+                Thread.interrupted();
+            }
+        }
+        return this.expired;
+    }
+
+    /**
+     * Interrupt the thread, unless stopped or interrupted already.
+     */
+    private synchronized void expire() {
+        if (!this.stopped) {
+            this.expired = true;
+            if (!this.thread.isInterrupted()) {
+                this.interrupted = true;
+                this.thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Make a timer.
+     * @return Timer, with a daemon thread
+     */
+    private static ScheduledThreadPoolExecutor timer() {
+        final ScheduledThreadPoolExecutor timer =
+            new ScheduledThreadPoolExecutor(
+                1,
+                task -> {
+                    final Thread thread = new Thread(
+                        task, "jcabi-ssh-deadline"
+                    );
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+}
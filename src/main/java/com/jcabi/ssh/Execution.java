@@ -11,7 +11,9 @@ import com.jcraft.jsch.Session;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Execution of a single command.
@@ -19,6 +21,11 @@ import java.util.concurrent.TimeUnit;
  */
 final class Execution {
 
+    /**
+     * How long a killed command may finish after TERM, in milliseconds.
+     */
+    private static final long GRACE = 2000L;
+
     /**
      * Command.
      */
@@ -45,22 +52,45 @@ final class Execution {
     private final transient Session session;
 
     /**
-     * Uses an SSH session to execute a single command and disconnect
-     * immediately.
+     * Where to report phases.
+     */
+    private final transient Probe probe;
+
+    /**
+     * Uses an SSH session to execute a single command in its own
+     * channel, the session stays connected.
      * @param cmd Command
      * @param input Stdin (will be closed)
      * @param out Stdout (will be closed)
      * @param err Stderr (will be closed)
-     * @param sess SSH session (will be disconnected)
+     * @param sess SSH session (will NOT be disconnected)
      */
     Execution(final String cmd, final InputStream input,
         final OutputStream out, final OutputStream err,
         final Session sess) {
+        this(cmd, input, out, err, sess, Probe.NONE);
+    }
+
+    /**
+     * Uses an SSH session to execute a single command in its own
+     * channel, the session stays connected.
+     * @param cmd Command
+     * @param input Stdin (will be closed)
+     * @param out Stdout (will be closed)
+     * @param err Stderr (will be closed)
+     * @param sess SSH session (will NOT be disconnected)
+     * @param prb Where to report phases
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Execution(final String cmd, final InputStream input,
+        final OutputStream out, final OutputStream err,
+        final Session sess, final Probe prb) {
         this.command = cmd;
         this.stdin = input;
         this.stdout = out;
         this.stderr = err;
         this.session = sess;
+        this.probe = prb;
     }
 
     /**
@@ -71,71 +101,119 @@ final class Execution {
     @SuppressWarnings("PMD.PublicMemberInNonPublicType")
     public int exec() throws IOException {
         try {
+            final long start = System.nanoTime();
             final ChannelExec channel = ChannelExec.class.cast(
                 this.session.openChannel("exec")
             );
-            channel.setErrStream(this.stderr, false);
-            channel.setOutputStream(this.stdout, false);
+            final CountDownLatch done = new CountDownLatch(2);
+            final LongAdder drain = new LongAdder();
+            channel.setErrStream(
+                new LatchedStream(this.stderr, done, drain), false
+            );
+            channel.setOutputStream(
+                new LatchedStream(this.stdout, done, drain), false
+            );
             channel.setInputStream(this.stdin, false);
             channel.setCommand(this.command);
             channel.setPty(false);
             channel.connect((int) TimeUnit.SECONDS.toMillis(10L));
+            this.probe.since(Metrics.Phase.CHANNEL, start);
             Logger.info(this, "+ %s", this.command);
-            return this.exec(channel);
+            final long run = System.nanoTime();
+            final int code = this.exec(channel, done);
+            this.probe.since(Metrics.Phase.RUN, run);
+            this.probe.took(Metrics.Phase.DRAIN, drain.sum());
+            return code;
         } catch (final JSchException ex) {
             throw new IOException(ex);
-        } finally {
-            this.session.disconnect();
         }
     }
 
-    private int exec(final ChannelExec channel) throws IOException {
+    private int exec(final ChannelExec channel, final CountDownLatch done)
+        throws IOException {
         try {
-            return this.code(channel);
+            return this.code(channel, done);
         } finally {
             channel.disconnect();
         }
     }
 
-    @SuppressWarnings("PMD.AvoidCatchingGenericException")
-    private int code(final ChannelExec channel) throws IOException {
+    /**
+     * Wait for the channel to close and return the exit code.
+     *
+     * <p>JSch closes both stdout and stderr when the channel is closed
+     * by the server, which happens after the exit status has arrived. The
+     * thread sleeps until that moment, without polling. It wakes up once
+     * a minute only to report progress and to double-check that the channel
+     * is still open.</p>
+     *
+     * <p>If the thread is interrupted, the remote command is killed,
+     * since otherwise it would keep running after the channel
+     * is closed.</p>
+     *
+     * @param channel The channel
+     * @param done Latch released when both stdout and stderr are closed
+     * @return Exit code
+     * @throws IOException If fails
+     */
+    private int code(final ChannelExec channel, final CountDownLatch done)
+        throws IOException {
         final long start = System.currentTimeMillis();
-        while (!channel.isClosed()) {
-            try {
-                this.session.sendKeepAliveMsg();
-                // @checkstyle IllegalCatch (1 line)
-            } catch (final Exception ex) {
-                throw new IOException(
-                    "Failed to sendKeepAliveMsg() to the SSH session",
-                    ex
-                );
-            }
-            try {
-                TimeUnit.SECONDS.sleep(1L);
-            } catch (final InterruptedException ex) {
-                Thread.currentThread().interrupt();
-                throw new IOException(
-                    Logger.format(
-                        "Interrupted after %[ms]s of waiting",
-                        System.currentTimeMillis() - start
-                    ),
-                    ex
+        try {
+            while (!channel.isClosed() && !done.await(1L, TimeUnit.MINUTES)) {
+                Logger.debug(
+                    this,
+                    "Waiting for SSH channel to %s:%d to close, already %[ms]s...",
+                    this.session.getHost(),
+                    this.session.getPort(),
+                    System.currentTimeMillis() - start
                 );
             }
-            if (Logger.isDebugEnabled(this)) {
-                try {
-                    Logger.debug(
-                        this,
-                        "Waiting for SSH session to %s:%d to close, already %[ms]s...",
-                        channel.getSession().getHost(),
-                        channel.getSession().getPort(),
-                        System.currentTimeMillis() - start
-                    );
-                } catch (final JSchException ex) {
-                    throw new IOException(ex);
-                }
-            }
+        } catch (final InterruptedException ex) {
+            this.kill(channel, done);
+            Thread.currentThread().interrupt();
+            throw new IOException(
+                Logger.format(
+                    "Interrupted after %[ms]s of waiting",
+                    System.currentTimeMillis() - start
+                ),
+                ex
+            );
         }
         return channel.getExitStatus();
     }
+
+    /**
+     * Kill the remote command: ask it to terminate and, if it is still
+     * running after a short grace period, kill it.
+     *
+     * <p>Servers are free to ignore signals (OpenSSH supports them
+     * since version 7.9), then the command lives until it notices that
+     * its stdout is closed.</p>
+     *
+     * @param channel The channel
+     * @param done Latch released when both stdout and stderr are closed
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void kill(final ChannelExec channel, final CountDownLatch done) {
+        try {
+            channel.sendSignal("TERM");
+            if (!done.await(Execution.GRACE, TimeUnit.MILLISECONDS)) {
+                channel.sendSignal("KILL");
+            }
+            Logger.info(
+                this, "Killed at %s:%d: %s",
+                this.session.getHost(), this.session.getPort(), this.command
+            );
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final Exception ex) {
+            Logger.warn(
+                this, "Failed to kill at %s:%d: %s",
+                this.session.getHost(), this.session.getPort(),
+                ex.getMessage()
+            );
+        }
+    }
 }
@@ -0,0 +1,565 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Shell that injects faults, in order to imitate slow and flaky
+ * hosts in load tests.
+ *
+ * <p>It works around any shell, including {@link Shell.Fake}. Every
+ * fault is turned off by default and is turned on by its method; the
+ * object is immutable, every method returns a new one:</p>
+ *
+ * <pre> Shell shell = new Faulty(new Shell.Fake(0, "done", ""), 42L)
+ *   .latency(new Faulty.Exponential(200L, TimeUnit.MILLISECONDS))
+ *   .refusals(0.05)
+ *   .drops(0.01, 1024L)
+ *   .bandwidth(64 * 1024)
+ *   .failures(0.02, 255);</pre>
+ *
+ * <p>All random decisions of a command are made at once, when it
+ * starts, with a generator made from the seed, so a sequence
+ * of commands meets the same faults in every run. Commands running
+ * in parallel get their decisions in the order they start.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 2.0
+ */
+@ToString(of = { "origin", "seed" })
+@EqualsAndHashCode(
+    of = {
+        "origin", "seed", "delays", "refuse", "drop", "cut",
+        "rate", "fail", "code",
+    }
+)
+@SuppressWarnings("PMD.TooManyFields")
+public final class Faulty implements Shell {
+
+    /**
+     * Original shell.
+     */
+    private final transient Shell origin;
+
+    /**
+     * Seed of the generator.
+     */
+    private final transient long seed;
+
+    /**
+     * Random generator.
+     */
+    private final transient Random random;
+
+    /**
+     * Latency before every command.
+     */
+    private final transient Faulty.Latency delays;
+
+    /**
+     * Probability of a refused connection.
+     */
+    private final transient double refuse;
+
+    /**
+     * Probability of a broken connection.
+     */
+    private final transient double drop;
+
+    /**
+     * Maximum number of bytes of output before the connection breaks.
+     */
+    private final transient long cut;
+
+    /**
+     * Maximum bytes per second of output, or zero if not limited.
+     */
+    private final transient long rate;
+
+    /**
+     * Probability of a failed command.
+     */
+    private final transient double fail;
+
+    /**
+     * Exit code of a failed command.
+     */
+    private final transient int code;
+
+    /**
+     * Ctor.
+     * @param shell Original shell
+     * @param sed Seed of the random generator
+     */
+    public Faulty(final Shell shell, final long sed) {
+        this(
+            shell, sed, new Faulty.Fixed(0L, TimeUnit.MILLISECONDS),
+            0.0d, 0.0d, 0L, 0L, 0.0d, 0
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param shell Original shell
+     * @param sed Seed of the random generator
+     * @param latency Latency before every command
+     * @param refusals Probability of a refused connection
+     * @param drops Probability of a broken connection
+     * @param limit Bytes of output before the connection breaks
+     * @param bps Bytes per second of output, or zero
+     * @param failures Probability of a failed command
+     * @param exit Exit code of a failed command
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Faulty(final Shell shell, final long sed,
+        final Faulty.Latency latency, final double refusals,
+        final double drops, final long limit, final long bps,
+        final double failures, final int exit) {
+        this.origin = shell;
+        this.seed = sed;
+        this.random = new Random(sed);
+        this.delays = latency;
+        this.refuse = refusals;
+        this.drop = drops;
+        this.cut = limit;
+        this.rate = bps;
+        this.fail = failures;
+        this.code = exit;
+    }
+
+    /**
+     * Wait before every command, as if the host was far away.
+     * @param latency Distribution of the latency
+     * @return New shell
+     */
+    public Faulty latency(final Faulty.Latency latency) {
+        return new Faulty(
+            this.origin, this.seed, latency, this.refuse, this.drop,
+            this.cut, this.rate, this.fail, this.code
+        );
+    }
+
+    /**
+     * Refuse some connections, throwing {@link ConnectException} before
+     * the command starts.
+     * @param probability Probability of a refusal, from 0 to 1
+     * @return New shell
+     */
+    public Faulty refusals(final double probability) {
+        return new Faulty(
+            this.origin, this.seed, this.delays,
+            Faulty.probability(probability), this.drop, this.cut,
+            this.rate, this.fail, this.code
+        );
+    }
+
+    /**
+     * Break some connections in the middle of the output, throwing
+     * {@link SocketException} after a random number of bytes.
+     *
+     * <p>Commands with no more output than the chosen number of bytes
+     * are not broken.</p>
+     *
+     * @param probability Probability of a break, from 0 to 1
+     * @param limit Maximum number of bytes before the break
+     * @return New shell
+     */
+    public Faulty drops(final double probability, final long limit) {
+        if (limit < 1L) {
+            throw new IllegalArgumentException(
+                String.format("Limit of bytes must be positive: %d", limit)
+            );
+        }
+        return new Faulty(
+            this.origin, this.seed, this.delays, this.refuse,
+            Faulty.probability(probability), limit, this.rate,
+            this.fail, this.code
+        );
+    }
+
+    /**
+     * Limit the throughput of stdout and stderr together.
+     * @param bps Bytes per second, or zero to remove the limit
+     * @return New shell
+     */
+    public Faulty bandwidth(final long bps) {
+        if (bps < 0L) {
+            throw new IllegalArgumentException(
+                String.format("Bandwidth can't be negative: %d", bps)
+            );
+        }
+        return new Faulty(
+            this.origin, this.seed, this.delays, this.refuse, this.drop,
+            this.cut, bps, this.fail, this.code
+        );
+    }
+
+    /**
+     * Fail some commands, which succeed otherwise, replacing their
+     * exit code.
+     * @param probability Probability of a failure, from 0 to 1
+     * @param exit Exit code to return instead, like 255
+     * @return New shell
+     */
+    public Faulty failures(final double probability, final int exit) {
+        return new Faulty(
+            this.origin, this.seed, this.delays, this.refuse, this.drop,
+            this.cut, this.rate, Faulty.probability(probability), exit
+        );
+    }
+
+    @Override
+    public int exec(final String command, final InputStream stdin,
+        final OutputStream stdout, final OutputStream stderr)
+        throws IOException {
+        final long delay;
+        final boolean refused;
+        final long broken;
+        final boolean failed;
+        synchronized (this.random) {
+            delay = this.delays.millis(this.random);
+            refused = this.random.nextDouble() < this.refuse;
+            final boolean dropped = this.random.nextDouble() < this.drop;
+            final long at = (long) (this.random.nextDouble() * this.cut);
+            if (dropped) {
+                broken = at;
+            } else {
+                broken = -1L;
+            }
+            failed = this.random.nextDouble() < this.fail;
+        }
+        Faulty.sleep(delay);
+        if (refused) {
+            throw new ConnectException(
+                String.format("Connection refused (injected): %s", command)
+            );
+        }
+        final Faulty.Wire wire = new Faulty.Wire(broken, this.rate);
+        int exit = this.origin.exec(
+            command, stdin,
+            new Faulty.Faucet(stdout, wire),
+            new Faulty.Faucet(stderr, wire)
+        );
+        if (wire.broken()) {
+            throw new SocketException(
+                String.format(
+                    "Connection reset after %d bytes (injected): %s",
+                    broken, command
+                )
+            );
+        }
+        if (failed && exit == 0) {
+            Logger.debug(this, "Exit code %d injected: %s", this.code, command);
+            exit = this.code;
+        }
+        return exit;
+    }
+
+    /**
+     * Check the probability.
+     * @param value The probability
+     * @return The same
+     */
+    private static double probability(final double value) {
+        if (value < 0.0d || value > 1.0d) {
+            throw new IllegalArgumentException(
+                String.format("Probability must be between 0 and 1: %f", value)
+            );
+        }
+        return value;
+    }
+
+    /**
+     * Sleep, unless interrupted.
+     * @param msec Milliseconds
+     * @throws InterruptedIOException If interrupted
+     */
+    private static void sleep(final long msec) throws InterruptedIOException {
+        if (msec > 0L) {
+            try {
+                Thread.sleep(msec);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Distribution of latency.
+     *
+     * @since 2.0
+     */
+    @FunctionalInterface
+    public interface Latency {
+        /**
+         * Next latency.
+         * @param random Random generator
+         * @return Milliseconds
+         */
+        long millis(Random random);
+    }
+
+    /**
+     * Same latency every time.
+     *
+     * @since 2.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    public static final class Fixed implements Faulty.Latency {
+
+        /**
+         * Milliseconds.
+         */
+        private final long msec;
+
+        /**
+         * Ctor.
+         * @param time The latency
+         * @param unit Unit of time
+         */
+        public Fixed(final long time, final TimeUnit unit) {
+            this.msec = unit.toMillis(time);
+        }
+
+        @Override
+        public long millis(final Random random) {
+            return this.msec;
+        }
+    }
+
+    /**
+     * Latency evenly distributed between two values.
+     *
+     * @since 2.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    public static final class Uniform implements Faulty.Latency {
+
+        /**
+         * Minimum, in milliseconds.
+         */
+        private final long min;
+
+        /**
+         * Maximum, in milliseconds.
+         */
+        private final long max;
+
+        /**
+         * Ctor.
+         * @param low Minimum
+         * @param high Maximum
+         * @param unit Unit of time
+         */
+        public Uniform(final long low, final long high, final TimeUnit unit) {
+            if (low < 0L || high < low) {
+                throw new IllegalArgumentException(
+                    String.format("Invalid range of latency: %d..%d", low, high)
+                );
+            }
+            this.min = unit.toMillis(low);
+            this.max = unit.toMillis(high);
+        }
+
+        @Override
+        public long millis(final Random random) {
+            return this.min
+                + (long) (random.nextDouble() * (this.max - this.min + 1L));
+        }
+    }
+
+    /**
+     * Exponentially distributed latency, which is mostly short, but
+     * sometimes many times longer than the mean, like on a congested
+     * network.
+     *
+     * @since 2.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    public static final class Exponential implements Faulty.Latency {
+
+        /**
+         * Mean, in milliseconds.
+         */
+        private final double mean;
+
+        /**
+         * Ctor.
+         * @param avg Mean latency
+         * @param unit Unit of time
+         */
+        public Exponential(final long avg, final TimeUnit unit) {
+            this.mean = (double) unit.toMillis(avg);
+        }
+
+        @Override
+        public long millis(final Random random) {
+            return (long) (-this.mean * Math.log(1.0d - random.nextDouble()));
+        }
+    }
+
+    /**
+     * Connection of one command, shared by its stdout and stderr.
+     *
+     * @since 2.0
+     */
+    private static final class Wire {
+
+        /**
+         * Bytes after which it breaks, or negative if never.
+         */
+        private final long limit;
+
+        /**
+         * Bytes per second, or zero.
+         */
+        private final long rate;
+
+        /**
+         * When the first byte passed, in nanoseconds.
+         */
+        private long start;
+
+        /**
+         * Bytes passed.
+         */
+        private long total;
+
+        /**
+         * Is it broken?
+         */
+        private boolean cut;
+
+        /**
+         * Ctor.
+         * @param bytes Bytes after which it breaks, or negative
+         * @param bps Bytes per second, or zero
+         */
+        Wire(final long bytes, final long bps) {
+            this.limit = bytes;
+            this.rate = bps;
+        }
+
+        /**
+         * Is it broken?
+         * @return TRUE if it is
+         */
+        synchronized boolean broken() {
+            return this.cut;
+        }
+
+        /**
+         * Let the bytes through.
+         * @param len How many bytes want to pass
+         * @return How many may pass now
+         * @throws IOException If broken
+         */
+        long take(final int len) throws IOException {
+            final long allowed;
+            final long wait;
+            synchronized (this) {
+                if (this.cut) {
+                    throw new SocketException("Connection reset (injected)");
+                }
+                if (this.total == 0L) {
+                    this.start = System.nanoTime();
+                }
+                long next = len;
+                if (this.limit >= 0L && this.total + next > this.limit) {
+                    next = this.limit - this.total;
+                    this.cut = true;
+                }
+                this.total += next;
+                allowed = next;
+                if (this.rate > 0L) {
+                    // whole seconds and the rest apart, since nanoseconds
+                    // of all bytes overflow long after 9 GB
+                    wait = TimeUnit.NANOSECONDS.toMillis(
+                        this.start
+                            + TimeUnit.SECONDS.toNanos(this.total / this.rate)
+                            + TimeUnit.SECONDS.toNanos(this.total % this.rate)
+                                / this.rate
+                            - System.nanoTime()
+                    );
+                } else {
+                    wait = 0L;
+                }
+            }
+            Faulty.sleep(wait);
+            return allowed;
+        }
+    }
+
+    /**
+     * Output, which goes through the wire.
+     *
+     * @since 2.0
+     */
+    private static final class Faucet extends OutputStream {
+
+        /**
+         * Original stream.
+         */
+        private final OutputStream origin;
+
+        /**
+         * The wire.
+         */
+        private final Faulty.Wire wire;
+
+        /**
+         * Ctor.
+         * @param out Original stream
+         * @param wre The wire
+         */
+        Faucet(final OutputStream out, final Faulty.Wire wre) {
+            super();
+            this.origin = out;
+            this.wire = wre;
+        }
+
+        @Override
+        public void write(final int data) throws IOException {
+            this.write(new byte[] {(byte) data}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] data, final int off, final int len)
+            throws IOException {
+            final int allowed = (int) this.wire.take(len);
+            this.origin.write(data, off, allowed);
+            if (allowed < len) {
+                this.origin.flush();
+                throw new SocketException("Connection reset (injected)");
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.origin.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.origin.close();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JSch logger of one session, which watches its handshake.
+ *
+ * <p>JSch doesn't expose any hooks into the handshake, but it does
+ * report the end of each phase and the negotiated algorithms to
+ * the logger, at INFO level. This logger catches these messages, reports
+ * the phases to the probe, remembers the algorithms, and passes all
+ * messages to the original logger, if it wants them. Only the first key
+ * exchange is watched, re-keying is ignored.</p>
+ *
+ * @since 2.0
+ */
+final class Handshake implements com.jcraft.jsch.Logger {
+
+    /**
+     * Cipher and MAC negotiated for one direction.
+     */
+    private static final Pattern CIPHER = Pattern.compile(
+        "kex: (server->client|client->server) cipher: (\\S+) MAC: (\\S+).*"
+    );
+
+    /**
+     * Original logger.
+     */
+    private final transient com.jcraft.jsch.Logger origin;
+
+    /**
+     * Where to report.
+     */
+    private final transient Probe probe;
+
+    /**
+     * Negotiated algorithms, by JSch config keys.
+     */
+    private final transient Map<String, String> algorithms;
+
+    /**
+     * When the previous phase ended, or zero if all phases are over.
+     */
+    private transient long last;
+
+    /**
+     * Ctor.
+     * @param logger Original logger
+     * @param prb Where to report
+     */
+    Handshake(final com.jcraft.jsch.Logger logger, final Probe prb) {
+        this.origin = logger;
+        this.probe = prb;
+        this.algorithms = new HashMap<>(0);
+        this.last = System.nanoTime();
+    }
+
+    @Override
+    public boolean isEnabled(final int level) {
+        return level == com.jcraft.jsch.Logger.INFO && this.last != 0L
+            || this.origin.isEnabled(level);
+    }
+
+    @Override
+    public void log(final int level, final String msg) {
+        if (level == com.jcraft.jsch.Logger.INFO && this.last != 0L) {
+            this.watch(msg);
+        }
+        if (this.origin.isEnabled(level)) {
+            this.origin.log(level, msg);
+        }
+    }
+
+    /**
+     * Algorithms negotiated, when the handshake is over.
+     * @return JSch config keys and the algorithms, or an empty map
+     *  if the handshake is not over yet
+     */
+    Map<String, String> algorithms() {
+        final Map<String, String> result;
+        if (this.last == 0L) {
+            result = Collections.unmodifiableMap(this.algorithms);
+        } else {
+            result = Collections.emptyMap();
+        }
+        return result;
+    }
+
+    /**
+     * Look at the message.
+     * @param msg The message from JSch
+     */
+    private void watch(final String msg) {
+        if (msg.startsWith("Connection established")) {
+            this.next(Metrics.Phase.CONNECT);
+        } else if (msg.startsWith("kex: algorithm:")) {
+            this.algorithms.put("kex", Handshake.value(msg));
+        } else if (msg.startsWith("kex: host key algorithm:")) {
+            this.algorithms.put("server_host_key", Handshake.value(msg));
+        } else if (msg.startsWith("SSH_MSG_NEWKEYS received")) {
+            this.next(Metrics.Phase.KEX);
+        } else if (msg.startsWith("Authentication succeeded (")) {
+            this.algorithms.put(
+                "PreferredAuthentications",
+                msg.substring(msg.indexOf('(') + 1, msg.indexOf(')'))
+            );
+            this.next(Metrics.Phase.AUTH);
+            this.last = 0L;
+        } else {
+            final Matcher mtr = Handshake.CIPHER.matcher(msg);
+            if (mtr.matches()) {
+                final String dir;
+                if ("server->client".equals(mtr.group(1))) {
+                    dir = "s2c";
+                } else {
+                    dir = "c2s";
+                }
+                this.algorithms.put(String.format("cipher.%s", dir), mtr.group(2));
+                if (mtr.group(3).charAt(0) != '<') {
+                    this.algorithms.put(
+                        String.format("mac.%s", dir), mtr.group(3)
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * The phase is over.
+     * @param phase The phase
+     */
+    private void next(final Metrics.Phase phase) {
+        final long now = System.nanoTime();
+        this.probe.took(phase, now - this.last);
+        this.last = now;
+    }
+
+    /**
+     * Value after the last colon.
+     * @param msg The message
+     * @return The value
+     */
+    private static String value(final String msg) {
+        return msg.substring(msg.lastIndexOf(':') + 1).trim();
+    }
+}
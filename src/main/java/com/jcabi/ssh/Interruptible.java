@@ -0,0 +1,70 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Future of a task, which interrupts the task when cancelled.
+ *
+ * <p>Unlike {@link CompletableFuture#supplyAsync}, which ignores
+ * the argument of {@link #cancel(boolean)}, it interrupts the thread
+ * running the task, if the argument is TRUE. The thread is never
+ * interrupted after the task is over.</p>
+ *
+ * @param <T> Type of result
+ * @since 2.0
+ */
+final class Interruptible<T> extends CompletableFuture<T> {
+
+    /**
+     * The thread running the task, or NULL.
+     */
+    private transient Thread runner;
+
+    @Override
+    public boolean cancel(final boolean interrupt) {
+        final boolean done = super.cancel(interrupt);
+        if (done && interrupt) {
+            synchronized (this) {
+                if (this.runner != null) {
+                    this.runner.interrupt();
+                }
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Run the task in the current thread, unless cancelled already.
+     * @param task The task
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    void run(final Callable<T> task) {
+        final boolean start;
+        synchronized (this) {
+            start = !this.isDone();
+            if (start) {
+                this.runner = Thread.currentThread();
+            }
+        }
+        if (start) {
+            try {
+                this.complete(task.call());
+                // @checkstyle IllegalCatchCheck (1 line)
+            } catch (final Exception ex) {
+                this.completeExceptionally(ex);
+            } finally {
+                synchronized (this) {
+                    this.runner = null;
+                    if (this.isCancelled()) {
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.log.Logger;
+import com.jcraft.jsch.Channel;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Proxy;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SocketFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection to the target through a bastion, in a direct-tcpip
+ * channel of the session of the bastion, like {@code ssh -J}.
+ *
+ * <p>A new instance is made for every session to the target, while
+ * the session to the bastion is shared by all of them: it is opened
+ * when the first one connects and closed when the last one has been
+ * closed for {@link #LINGER} milliseconds. If the session to the bastion
+ * is lost, the next connection opens a new one.</p>
+ *
+ * @since 2.0
+ */
+final class Jump implements Proxy {
+
+    /**
+     * How long an idle session to a bastion stays open, in milliseconds.
+     */
+    private static final long LINGER = TimeUnit.SECONDS.toMillis(10L);
+
+    /**
+     * Hops of this JVM, by bastion.
+     */
+    private static final ConcurrentMap<AbstractSshShell, Jump.Hop> HOPS =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Timer of idle sessions.
+     */
+    private static final ScheduledThreadPoolExecutor TIMER = Jump.timer();
+
+    /**
+     * The hop.
+     */
+    private final transient Jump.Hop hop;
+
+    /**
+     * The channel, or NULL if not connected.
+     */
+    private transient Channel channel;
+
+    /**
+     * Input from the target.
+     */
+    private transient InputStream input;
+
+    /**
+     * Output to the target.
+     */
+    private transient OutputStream output;
+
+    /**
+     * Ctor.
+     * @param bastion Shell of the bastion
+     */
+    Jump(final AbstractSshShell bastion) {
+        this.hop = Jump.HOPS.computeIfAbsent(bastion, Jump.Hop::new);
+    }
+
+    @Override
+    public void connect(final SocketFactory factory, final String host,
+        final int port, final int timeout) throws Exception {
+        final Session session = this.hop.acquire();
+        try {
+            final Channel chnl = session.getStreamForwarder(host, port);
+            this.input = chnl.getInputStream();
+            this.output = chnl.getOutputStream();
+            chnl.connect(timeout);
+            synchronized (this) {
+                this.channel = chnl;
+            }
+        } catch (final JSchException | IOException ex) {
+            this.hop.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return this.input;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return this.output;
+    }
+
+    @Override
+    public Socket getSocket() {
+        return null;
+    }
+
+    @Override
+    public void close() {
+        final Channel chnl;
+        synchronized (this) {
+            chnl = this.channel;
+            this.channel = null;
+        }
+        if (chnl != null) {
+            chnl.disconnect();
+            this.hop.release();
+        }
+    }
+
+    /**
+     * Make a timer.
+     * @return Timer, with a daemon thread
+     */
+    private static ScheduledThreadPoolExecutor timer() {
+        final ScheduledThreadPoolExecutor timer =
+            new ScheduledThreadPoolExecutor(
+                1,
+                task -> {
+                    final Thread thread = new Thread(task, "jcabi-ssh-jump");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * Shared session to one bastion.
+     * @since 2.0
+     */
+    private static final class Hop {
+
+        /**
+         * Shell of the bastion.
+         */
+        private final AbstractSshShell shell;
+
+        /**
+         * The session, or NULL if not open.
+         */
+        private Session session;
+
+        /**
+         * Channels open through the session.
+         */
+        private int count;
+
+        /**
+         * Closing of the idle session, or NULL if not scheduled.
+         */
+        private Future<?> closing;
+
+        /**
+         * Ctor.
+         * @param bastion Shell of the bastion
+         */
+        Hop(final AbstractSshShell bastion) {
+            this.shell = bastion;
+        }
+
+        /**
+         * Take the session, opening it if necessary.
+         * @return The session, connected
+         * @throws IOException If fails
+         */
+        synchronized Session acquire() throws IOException {
+            if (this.closing != null) {
+                this.closing.cancel(false);
+                this.closing = null;
+            }
+            if (this.session != null && !this.session.isConnected()) {
+                Logger.warn(
+                    this, "Session to bastion %s is lost, %d channel(s) open",
+                    this.shell, this.count
+                );
+                this.shell.release(this.session);
+                this.session = null;
+            }
+            if (this.session == null) {
+                this.session = this.shell.session();
+            }
+            ++this.count;
+            return this.session;
+        }
+
+        /**
+         * Give the session back.
+         */
+        synchronized void release() {
+            --this.count;
+            if (this.count == 0 && this.session != null) {
+                this.closing = Jump.TIMER.schedule(
+                    this::expire, Jump.LINGER, TimeUnit.MILLISECONDS
+                );
+            }
+        }
+
+        /**
+         * Close the session, if it is still idle.
+         */
+        private synchronized void expire() {
+            if (this.count == 0 && this.session != null) {
+                this.shell.release(this.session);
+                this.session = null;
+                this.closing = null;
+                Jump.HOPS.remove(this.shell, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Output stream that counts down a latch when it is closed.
+ *
+ * <p>JSch closes the streams of a channel when the channel is
+ * closed by the server, which lets {@link Execution} wait for this event
+ * instead of polling the channel. The latch is counted down only once,
+ * no matter how many times the stream is closed. Time spent writing
+ * to the original stream is added to the counter, in nanoseconds.</p>
+ *
+ * @since 2.0
+ */
+final class LatchedStream extends FilterOutputStream {
+
+    /**
+     * The latch.
+     */
+    private final transient CountDownLatch latch;
+
+    /**
+     * Closed already?
+     */
+    private final transient AtomicBoolean closed;
+
+    /**
+     * Time spent writing, in nanoseconds.
+     */
+    private final transient LongAdder busy;
+
+    /**
+     * Ctor.
+     * @param stream Original stream
+     * @param done The latch to count down on close
+     * @param nanos Time spent writing, in nanoseconds
+     */
+    LatchedStream(final OutputStream stream, final CountDownLatch done,
+        final LongAdder nanos) {
+        super(stream);
+        this.latch = done;
+        this.closed = new AtomicBoolean();
+        this.busy = nanos;
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int off, final int len)
+        throws IOException {
+        final long start = System.nanoTime();
+        this.out.write(bytes, off, len);
+        this.busy.add(System.nanoTime() - start);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed.compareAndSet(false, true)) {
+            try {
+                this.out.close();
+            } finally {
+                this.latch.countDown();
+            }
+        }
+    }
+}
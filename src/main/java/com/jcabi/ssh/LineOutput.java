@@ -0,0 +1,179 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Output stream that decodes bytes as they arrive and sends
+ * complete lines to the sink.
+ *
+ * <p>Bytes are decoded incrementally, so a character split between two
+ * writes is decoded correctly, and malformed bytes are replaced.
+ * Line ends are either {@code \n} or {@code \r\n}, they are not included
+ * into lines. The last line, if it doesn't end with a line end, is sent
+ * to the sink when the stream is closed.</p>
+ *
+ * @since 2.0
+ */
+final class LineOutput extends OutputStream {
+
+    /**
+     * Size of buffers.
+     */
+    private static final int SIZE = 8192;
+
+    /**
+     * Where to send lines.
+     */
+    private final transient LineOutput.Sink sink;
+
+    /**
+     * Decoder.
+     */
+    private final transient CharsetDecoder decoder;
+
+    /**
+     * Bytes not decoded yet.
+     */
+    private final transient ByteBuffer bytes;
+
+    /**
+     * Characters decoded.
+     */
+    private final transient CharBuffer chars;
+
+    /**
+     * Current line, not finished yet.
+     */
+    private final transient StringBuilder line;
+
+    /**
+     * Closed already?
+     */
+    private transient boolean closed;
+
+    /**
+     * Ctor.
+     * @param charset Charset of the bytes
+     * @param target Where to send lines
+     */
+    LineOutput(final Charset charset, final LineOutput.Sink target) {
+        super();
+        this.sink = target;
+        this.decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.bytes = ByteBuffer.allocate(LineOutput.SIZE);
+        this.chars = CharBuffer.allocate(LineOutput.SIZE);
+        this.line = new StringBuilder(0);
+    }
+
+    @Override
+    public void write(final int data) throws IOException {
+        this.write(new byte[] {(byte) data}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] data, final int off, final int len)
+        throws IOException {
+        int pos = off;
+        final int end = off + len;
+        while (pos < end) {
+            final int chunk = Math.min(end - pos, this.bytes.remaining());
+            this.bytes.put(data, pos, chunk);
+            pos += chunk;
+            this.bytes.flip();
+            this.decode(false);
+            this.bytes.compact();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!this.closed) {
+            this.closed = true;
+            this.bytes.flip();
+            this.decode(true);
+            CoderResult result;
+            do {
+                result = this.decoder.flush(this.chars);
+                this.drain();
+            } while (result.isOverflow());
+            if (this.line.length() > 0) {
+                this.emit();
+            }
+        }
+    }
+
+    /**
+     * Decode all bytes available.
+     * @param last TRUE if there will be no more bytes
+     * @throws IOException If the sink fails
+     */
+    private void decode(final boolean last) throws IOException {
+        while (true) {
+            final CoderResult result = this.decoder.decode(
+                this.bytes, this.chars, last
+            );
+            this.drain();
+            if (!result.isOverflow()) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Move decoded characters into lines.
+     * @throws IOException If the sink fails
+     */
+    private void drain() throws IOException {
+        this.chars.flip();
+        while (this.chars.hasRemaining()) {
+            final char chr = this.chars.get();
+            if (chr == '\n') {
+                final int len = this.line.length();
+                if (len > 0 && this.line.charAt(len - 1) == '\r') {
+                    this.line.setLength(len - 1);
+                }
+                this.emit();
+            } else {
+                this.line.append(chr);
+            }
+        }
+        this.chars.clear();
+    }
+
+    /**
+     * Send the current line to the sink.
+     * @throws IOException If the sink fails
+     */
+    private void emit() throws IOException {
+        final String text = this.line.toString();
+        this.line.setLength(0);
+        this.sink.line(text);
+    }
+
+    /**
+     * Receiver of lines.
+     * @since 2.0
+     */
+    @FunctionalInterface
+    interface Sink {
+        /**
+         * Next line.
+         * @param line The line, without line end
+         * @throws IOException If fails
+         */
+        void line(String line) throws IOException;
+    }
+}
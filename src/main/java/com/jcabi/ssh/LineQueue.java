@@ -0,0 +1,175 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Bounded queue of lines, between a running command and a consumer.
+ *
+ * <p>The command puts lines in and waits when the queue is full.
+ * The consumer takes them out through a {@link Stream}. When the stream
+ * is closed, the queue is cancelled: it drops all lines and the next
+ * {@link #line(String)} fails, which makes the command stop, if it
+ * wasn't stopped by other means already.</p>
+ *
+ * @since 2.0
+ */
+final class LineQueue implements LineOutput.Sink {
+
+    /**
+     * End of lines.
+     */
+    private static final Object END = new Object();
+
+    /**
+     * Lines, the error or the end.
+     */
+    private final transient BlockingQueue<Object> queue;
+
+    /**
+     * Cancelled by the consumer?
+     */
+    private final transient AtomicBoolean cancelled;
+
+    /**
+     * Ctor.
+     * @param capacity Maximum number of lines waiting for the consumer
+     */
+    LineQueue(final int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.cancelled = new AtomicBoolean();
+    }
+
+    @Override
+    public void line(final String line) throws IOException {
+        this.put(line);
+    }
+
+    /**
+     * There will be no more lines.
+     * @throws IOException If cancelled or interrupted
+     */
+    void end() throws IOException {
+        this.put(LineQueue.END);
+    }
+
+    /**
+     * The command failed, there will be no more lines.
+     * @param error The failure
+     */
+    void fail(final IOException error) {
+        try {
+            this.put(error);
+        } catch (final IOException ex) {
+            error.addSuppressed(ex);
+        }
+    }
+
+    /**
+     * Lines, as they arrive.
+     * @return Stream, which cancels the queue when closed
+     */
+    Stream<String> stream() {
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                new LineQueue.Lines(this.queue),
+                Spliterator.ORDERED | Spliterator.NONNULL
+            ),
+            false
+        ).onClose(
+            () -> {
+                this.cancelled.set(true);
+                this.queue.clear();
+            }
+        );
+    }
+
+    /**
+     * Put an item into the queue, waiting for space.
+     * @param item The item
+     * @throws IOException If cancelled or interrupted
+     */
+    private void put(final Object item) throws IOException {
+        try {
+            while (!this.cancelled.get()
+                && !this.queue.offer(item, 1L, TimeUnit.SECONDS)) {
+                continue;
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ex.getMessage());
+        }
+        if (this.cancelled.get()) {
+            this.queue.clear();
+            throw new IOException("Lines are not consumed anymore");
+        }
+    }
+
+    /**
+     * Iterator over the queue.
+     * @since 2.0
+     */
+    private static final class Lines implements Iterator<String> {
+
+        /**
+         * The queue.
+         */
+        private final BlockingQueue<Object> queue;
+
+        /**
+         * Next item taken from the queue, or NULL.
+         */
+        private Object next;
+
+        /**
+         * Ctor.
+         * @param items The queue
+         */
+        Lines(final BlockingQueue<Object> items) {
+            this.queue = items;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.next == null) {
+                try {
+                    this.next = this.queue.take();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(
+                        new InterruptedIOException(ex.getMessage())
+                    );
+                }
+            }
+            if (this.next instanceof IOException) {
+                throw new UncheckedIOException((IOException) this.next);
+            }
+            return this.next != LineQueue.END;
+        }
+
+        @Override
+        public String next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException("No more lines");
+            }
+            final String line = (String) this.next;
+            this.next = null;
+            return line;
+        }
+    }
+}
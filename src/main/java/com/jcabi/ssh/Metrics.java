@@ -0,0 +1,117 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+/**
+ * Receiver of measurements, made by {@link Shell.Metered}.
+ *
+ * <p>Implement it in order to bridge measurements to your metrics
+ * system, or use {@link MetricsRegistry}, which keeps them in memory. All
+ * methods do nothing by default, so implement only those you need.
+ * Methods are called from many threads at the same time, including
+ * JSch internal threads, and must be fast and non-blocking.</p>
+ *
+ * @since 2.0
+ */
+public interface Metrics {
+
+    /**
+     * One phase of a command is over.
+     * @param host The host
+     * @param phase The phase
+     * @param nanos How long it took, in nanoseconds
+     */
+    default void phase(final String host, final Metrics.Phase phase,
+        final long nanos) {
+        // nothing by default
+    }
+
+    /**
+     * Bytes transferred by a command.
+     * @param host The host
+     * @param sent Bytes sent to stdin
+     * @param received Bytes received from stdout and stderr
+     */
+    default void bytes(final String host, final long sent,
+        final long received) {
+        // nothing by default
+    }
+
+    /**
+     * Command finished with this exit code.
+     * @param host The host
+     * @param code Exit code
+     */
+    default void exit(final String host, final int code) {
+        // nothing by default
+    }
+
+    /**
+     * Attempt to open a session failed; it is retried, unless
+     * all attempts are used.
+     * @param host The host
+     */
+    default void retry(final String host) {
+        // nothing by default
+    }
+
+    /**
+     * Phase of a command.
+     *
+     * <p>Host names are resolved once, in the constructor of the shell,
+     * that's why there is no DNS phase here.</p>
+     *
+     * @since 2.0
+     */
+    enum Phase {
+        /**
+         * Waiting for a free slot of the host in {@link Throttle}
+         * (this time is a part of {@link #SESSION}).
+         */
+        QUEUE,
+
+        /**
+         * TCP connection to the server, when a new session is opened.
+         */
+        CONNECT,
+
+        /**
+         * Key exchange, when a new session is opened.
+         */
+        KEX,
+
+        /**
+         * User authentication, when a new session is opened.
+         */
+        AUTH,
+
+        /**
+         * Getting a session ready: opening a new one or taking
+         * it from a pool.
+         */
+        SESSION,
+
+        /**
+         * Opening an "exec" channel in the session.
+         */
+        CHANNEL,
+
+        /**
+         * Running the command, until its stdout and stderr are closed.
+         */
+        RUN,
+
+        /**
+         * Writing stdout and stderr to the streams provided by the caller
+         * (this time is a part of {@link #RUN}).
+         */
+        DRAIN,
+
+        /**
+         * Everything, from the beginning to the end.
+         */
+        TOTAL
+    }
+}
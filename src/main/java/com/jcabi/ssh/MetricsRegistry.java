@@ -0,0 +1,379 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.ToString;
+
+/**
+ * Metrics, kept in memory, per host.
+ *
+ * <pre> MetricsRegistry registry = new MetricsRegistry();
+ * Shell shell = new Shell.Metered(new Ssh(...), registry);
+ * shell.exec(...);
+ * long p99 = registry.histogram("10.0.0.1:22", Metrics.Phase.TOTAL)
+ *   .percentile(0.99);</pre>
+ *
+ * <p>Latencies are counted in histograms with power-of-two buckets of
+ * nanoseconds, all counters are striped ({@link LongAdder}), so recording
+ * takes no locks and allocates nothing, once the host is seen for
+ * the first time. Readings are not atomic snapshots: a measurement
+ * that is being recorded at the same time may be seen partially.</p>
+ *
+ * @since 2.0
+ */
+@ToString(of = "hosts")
+public final class MetricsRegistry implements Metrics {
+
+    /**
+     * Stats of a host never seen.
+     */
+    private static final MetricsRegistry.Stats EMPTY =
+        new MetricsRegistry.Stats();
+
+    /**
+     * Stats per host.
+     */
+    private final transient ConcurrentMap<String, MetricsRegistry.Stats> hosts;
+
+    /**
+     * Ctor.
+     */
+    public MetricsRegistry() {
+        this.hosts = new ConcurrentHashMap<>(0);
+    }
+
+    @Override
+    public void phase(final String host, final Metrics.Phase phase,
+        final long nanos) {
+        this.stats(host).phase(phase, nanos);
+    }
+
+    @Override
+    public void bytes(final String host, final long sent,
+        final long received) {
+        final MetricsRegistry.Stats stats = this.stats(host);
+        stats.sent.add(sent);
+        stats.received.add(received);
+    }
+
+    @Override
+    public void exit(final String host, final int code) {
+        this.stats(host).exit(code);
+    }
+
+    @Override
+    public void retry(final String host) {
+        this.stats(host).retries.increment();
+    }
+
+    /**
+     * All hosts seen so far.
+     * @return Names of hosts
+     */
+    public Set<String> hosts() {
+        return Collections.unmodifiableSet(this.hosts.keySet());
+    }
+
+    /**
+     * Latencies of the phase.
+     * @param host The host
+     * @param phase The phase
+     * @return Histogram
+     */
+    public MetricsRegistry.Histogram histogram(final String host,
+        final Metrics.Phase phase) {
+        final MetricsRegistry.Stats stats = this.find(host);
+        final LongAdder[] adders = stats.buckets[phase.ordinal()];
+        final long[] counts = new long[adders.length];
+        for (int idx = 0; idx < adders.length; ++idx) {
+            counts[idx] = adders[idx].sum();
+        }
+        return new MetricsRegistry.Histogram(
+            counts, stats.totals[phase.ordinal()].sum()
+        );
+    }
+
+    /**
+     * Total bytes sent to stdin of commands.
+     * @param host The host
+     * @return Bytes
+     */
+    public long sent(final String host) {
+        return this.find(host).sent.sum();
+    }
+
+    /**
+     * Total bytes received from stdout and stderr of commands.
+     * @param host The host
+     * @return Bytes
+     */
+    public long received(final String host) {
+        return this.find(host).received.sum();
+    }
+
+    /**
+     * Failed attempts to open a session.
+     * @param host The host
+     * @return Total
+     */
+    public long retries(final String host) {
+        return this.find(host).retries.sum();
+    }
+
+    /**
+     * Distribution of exit codes.
+     * @param host The host
+     * @return Exit codes and how many times they were seen
+     */
+    public Map<Integer, Long> exits(final String host) {
+        final MetricsRegistry.Stats stats = this.find(host);
+        final Map<Integer, Long> map = new TreeMap<>();
+        for (int code = 0; code < stats.codes.length; ++code) {
+            final long count = stats.codes[code].sum();
+            if (count > 0L) {
+                map.put(code, count);
+            }
+        }
+        stats.others.forEach((code, count) -> map.put(code, count.sum()));
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Stats of the host, or empty ones if the host was never seen.
+     * @param host The host
+     * @return Stats
+     */
+    private MetricsRegistry.Stats find(final String host) {
+        return this.hosts.getOrDefault(host, MetricsRegistry.EMPTY);
+    }
+
+    /**
+     * Stats of the host, created if absent.
+     * @param host The host
+     * @return Stats
+     */
+    private MetricsRegistry.Stats stats(final String host) {
+        MetricsRegistry.Stats stats = this.hosts.get(host);
+        if (stats == null) {
+            stats = this.hosts.computeIfAbsent(
+                host, key -> new MetricsRegistry.Stats()
+            );
+        }
+        return stats;
+    }
+
+    /**
+     * Histogram of latencies.
+     *
+     * <p>Bucket number N counts latencies from 2^(N-1) to 2^N-1
+     * nanoseconds, bucket zero counts zero latencies.</p>
+     *
+     * @since 2.0
+     */
+    @ToString
+    public static final class Histogram {
+
+        /**
+         * Counts in buckets.
+         */
+        private final transient long[] counts;
+
+        /**
+         * Sum of all latencies, in nanoseconds.
+         */
+        private final transient long total;
+
+        /**
+         * Ctor.
+         * @param buckets Counts in buckets
+         * @param sum Sum of all latencies, in nanoseconds
+         */
+        Histogram(final long[] buckets, final long sum) {
+            this.counts = buckets;
+            this.total = sum;
+        }
+
+        /**
+         * Number of measurements.
+         * @return Total
+         */
+        public long count() {
+            long count = 0L;
+            for (final long bucket : this.counts) {
+                count += bucket;
+            }
+            return count;
+        }
+
+        /**
+         * Sum of all latencies.
+         * @return Nanoseconds
+         */
+        public long sum() {
+            return this.total;
+        }
+
+        /**
+         * Average latency.
+         * @return Nanoseconds, or zero if there were no measurements
+         */
+        public long mean() {
+            final long count = this.count();
+            long mean = 0L;
+            if (count > 0L) {
+                mean = this.total / count;
+            }
+            return mean;
+        }
+
+        /**
+         * Percentile, approximate: the upper bound of the bucket
+         * it falls into.
+         * @param share Share of measurements, from 0.0 to 1.0
+         * @return Nanoseconds, or zero if there were no measurements
+         */
+        public long percentile(final double share) {
+            final long rank = (long) Math.ceil(share * this.count());
+            long seen = 0L;
+            long result = 0L;
+            for (int idx = 0; idx < this.counts.length; ++idx) {
+                seen += this.counts[idx];
+                if (seen >= rank && seen > 0L) {
+                    result = MetricsRegistry.Histogram.upper(idx);
+                    break;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Counts in buckets.
+         * @return Counts, bucket number N counts latencies from 2^(N-1)
+         *  to 2^N-1 nanoseconds
+         */
+        public long[] buckets() {
+            return this.counts.clone();
+        }
+
+        /**
+         * Upper bound of the bucket.
+         * @param bucket Bucket number
+         * @return Nanoseconds
+         */
+        private static long upper(final int bucket) {
+            final long upper;
+            if (bucket >= Long.SIZE - 1) {
+                upper = Long.MAX_VALUE;
+            } else {
+                upper = (1L << bucket) - 1L;
+            }
+            return upper;
+        }
+    }
+
+    /**
+     * Counters of one host.
+     * @since 2.0
+     */
+    private static final class Stats {
+
+        /**
+         * Histogram buckets, per phase.
+         */
+        private final LongAdder[][] buckets;
+
+        /**
+         * Sums of latencies, per phase.
+         */
+        private final LongAdder[] totals;
+
+        /**
+         * Exit codes from 0 to 255.
+         */
+        private final LongAdder[] codes;
+
+        /**
+         * Other exit codes.
+         */
+        private final ConcurrentMap<Integer, LongAdder> others;
+
+        /**
+         * Bytes sent.
+         */
+        private final LongAdder sent;
+
+        /**
+         * Bytes received.
+         */
+        private final LongAdder received;
+
+        /**
+         * Failed attempts to open a session.
+         */
+        private final LongAdder retries;
+
+        /**
+         * Ctor.
+         */
+        Stats() {
+            final int phases = Metrics.Phase.values().length;
+            this.buckets = new LongAdder[phases][Long.SIZE + 1];
+            this.totals = new LongAdder[phases];
+            for (int phase = 0; phase < phases; ++phase) {
+                MetricsRegistry.Stats.fill(this.buckets[phase]);
+            }
+            MetricsRegistry.Stats.fill(this.totals);
+            this.codes = new LongAdder[256];
+            MetricsRegistry.Stats.fill(this.codes);
+            this.others = new ConcurrentHashMap<>(0);
+            this.sent = new LongAdder();
+            this.received = new LongAdder();
+            this.retries = new LongAdder();
+        }
+
+        /**
+         * Record latency of a phase.
+         * @param phase The phase
+         * @param nanos Latency
+         */
+        void phase(final Metrics.Phase phase, final long nanos) {
+            final long positive = Math.max(0L, nanos);
+            this.buckets[phase.ordinal()][
+                Long.SIZE - Long.numberOfLeadingZeros(positive)
+            ].increment();
+            this.totals[phase.ordinal()].add(positive);
+        }
+
+        /**
+         * Record exit code.
+         * @param code The code
+         */
+        void exit(final int code) {
+            if (code >= 0 && code < this.codes.length) {
+                this.codes[code].increment();
+            } else {
+                this.others.computeIfAbsent(code, key -> new LongAdder())
+                    .increment();
+            }
+        }
+
+        /**
+         * Fill array with new adders.
+         * @param adders The array
+         */
+        private static void fill(final LongAdder[] adders) {
+            for (int idx = 0; idx < adders.length; ++idx) {
+                adders[idx] = new LongAdder();
+            }
+        }
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Options of SSH connections, accepted by {@link Ssh}
+ * and {@link SshByPassword}.
+ *
+ * <p>The object is immutable, every method returns a new one:</p>
+ *
+ * <pre> Shell shell = new SshByPassword(
+ *   "example.com", 22, "jeff", "secret",
+ *   new Options()
+ *     .ciphers("aes128-gcm@openssh.com", "aes128-ctr")
+ *     .compression(6)
+ *     .readTimeout(30L, TimeUnit.SECONDS)
+ * );</pre>
+ *
+ * <p>Algorithms are listed in the order of preference, with their
+ * standard SSH names; only the listed ones are offered to the server.
+ * Everything that is not set stays as the shell sets it by default.</p>
+ *
+ * @since 2.0
+ */
+@ToString
+@EqualsAndHashCode(of = { "config", "connect", "read", "policy", "bastion" })
+public final class Options {
+
+    /**
+     * Compression algorithms, when compression is on.
+     */
+    private static final String ZLIB = "zlib@openssh.com,zlib,none";
+
+    /**
+     * JSch config keys and values.
+     */
+    private final transient Map<String, String> config;
+
+    /**
+     * Connect timeout, in milliseconds.
+     */
+    private final transient long connect;
+
+    /**
+     * Read timeout, in milliseconds, or negative if not set.
+     */
+    private final transient long read;
+
+    /**
+     * Policy of retrying.
+     */
+    private final transient Retry policy;
+
+    /**
+     * Shell of the bastion, or NULL to connect directly.
+     */
+    private final transient AbstractSshShell bastion;
+
+    /**
+     * Ctor.
+     */
+    public Options() {
+        this(
+            Collections.emptyMap(), TimeUnit.SECONDS.toMillis(10L), -1L,
+            new Retry.Backoff(), null
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param cfg JSch config keys and values
+     * @param cnct Connect timeout, in milliseconds
+     * @param rd Read timeout, in milliseconds, or negative if not set
+     * @param retry Policy of retrying
+     * @param jump Shell of the bastion, or NULL
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Options(final Map<String, String> cfg, final long cnct,
+        final long rd, final Retry retry, final AbstractSshShell jump) {
+        this.config = cfg;
+        this.connect = cnct;
+        this.read = rd;
+        this.policy = retry;
+        this.bastion = jump;
+    }
+
+    /**
+     * Key exchange algorithms.
+     * @param algos Algorithms, like "curve25519-sha256"
+     * @return New options
+     */
+    public Options kex(final String... algos) {
+        return this.with(Options.list(algos), "kex");
+    }
+
+    /**
+     * Ciphers, in both directions.
+     * @param algos Ciphers, like "aes128-ctr"
+     * @return New options
+     */
+    public Options ciphers(final String... algos) {
+        return this.with(Options.list(algos), "cipher.c2s", "cipher.s2c");
+    }
+
+    /**
+     * Message authentication codes, in both directions.
+     * @param algos MACs, like "hmac-sha2-256"
+     * @return New options
+     */
+    public Options macs(final String... algos) {
+        return this.with(Options.list(algos), "mac.c2s", "mac.s2c");
+    }
+
+    /**
+     * Host key algorithms.
+     * @param algos Algorithms, like "ssh-ed25519"
+     * @return New options
+     */
+    public Options hostKeys(final String... algos) {
+        return this.with(Options.list(algos), "server_host_key");
+    }
+
+    /**
+     * Compression, in both directions.
+     *
+     * <p>Compression helps with large and repetitive output on slow
+     * links, but costs CPU, which is the bottleneck on fast links.
+     * It is turned off by default.</p>
+     *
+     * @param level Level of zlib, from 1 to 9, or zero to turn it off
+     * @return New options
+     */
+    public Options compression(final int level) {
+        if (level < 0 || level > 9) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Compression level must be between 0 and 9: %d", level
+                )
+            );
+        }
+        final Options opts;
+        if (level == 0) {
+            opts = this.with("none", "compression.c2s", "compression.s2c");
+        } else {
+            opts = this.with(
+                Options.ZLIB, "compression.c2s", "compression.s2c"
+            ).with(Integer.toString(level), "compression_level");
+        }
+        return opts;
+    }
+
+    /**
+     * Timeout of opening a connection, including the handshake
+     * (ten seconds by default).
+     * @param time The time
+     * @param unit Unit of time
+     * @return New options
+     */
+    public Options connectTimeout(final long time, final TimeUnit unit) {
+        return new Options(
+            this.config, Options.positive(unit.toMillis(time)), this.read,
+            this.policy, this.bastion
+        );
+    }
+
+    /**
+     * Timeout of silence of the server; zero means waiting forever.
+     *
+     * <p>While a command is running, the session sends keepalive
+     * messages to the server every second or so (the interval of the
+     * shell, but no longer than this timeout), and the server
+     * answers them even when the command prints nothing. When nothing at
+     * all comes from the server for this long, the session fails,
+     * together with all its commands. So, the timeout doesn't limit
+     * commands that are quiet, only servers and networks that are
+     * dead; use {@link Shell.Timed} for the former.</p>
+     *
+     * @param time The time
+     * @param unit Unit of time
+     * @return New options
+     */
+    public Options readTimeout(final long time, final TimeUnit unit) {
+        final long msec = unit.toMillis(time);
+        if (msec < 0L || msec > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                String.format("Read timeout is out of range: %d ms", msec)
+            );
+        }
+        return new Options(
+            this.config, this.connect, msec, this.policy, this.bastion
+        );
+    }
+
+    /**
+     * Policy of retrying, when a session can't be opened
+     * (by default, {@link Retry.Backoff}).
+     * @param retry The policy, like {@link Retry#NEVER}
+     * @return New options
+     */
+    public Options retry(final Retry retry) {
+        return new Options(
+            this.config, this.connect, this.read, retry, this.bastion
+        );
+    }
+
+    /**
+     * Connect through the bastion, like {@code ssh -J}.
+     *
+     * <p>The connection to the target goes through a direct-tcpip channel
+     * of a session to the bastion. All targets with the same bastion share
+     * one session to it, which is closed when it has not been used for
+     * ten seconds. In order to jump through many hosts, give the bastion
+     * its own options with the previous bastion:</p>
+     *
+     * <pre> Shell target = new Ssh(
+     *   "10.0.0.5", 22, "app", key, null,
+     *   new Options().jump(
+     *     new Ssh(
+     *       "10.0.0.1", 22, "ops", key, null,
+     *       new Options().jump(new Ssh("bastion.example.com", 22, "ops", key))
+     *     )
+     *   )
+     * );</pre>
+     *
+     * <p>The address of the target is resolved here, not on the bastion,
+     * so use an IP address if its name is known only behind the
+     * bastion.</p>
+     *
+     * @param shell Shell of the bastion, like {@link Ssh}
+     * @return New options
+     */
+    public Options jump(final AbstractSshShell shell) {
+        return new Options(
+            this.config, this.connect, this.read, this.policy, shell
+        );
+    }
+
+    /**
+     * Apply them to a session, which is not connected yet.
+     * @param session The session
+     * @throws JSchException If fails
+     */
+    void apply(final Session session) throws JSchException {
+        for (final Map.Entry<String, String> ent : this.config.entrySet()) {
+            session.setConfig(ent.getKey(), ent.getValue());
+        }
+        if (this.read == 0L) {
+            session.setServerAliveCountMax(Integer.MAX_VALUE);
+        } else if (this.read > 0L) {
+            int interval = session.getServerAliveInterval();
+            if (interval <= 0 || interval > this.read) {
+                interval = (int) this.read;
+            }
+            session.setServerAliveInterval(interval);
+            session.setServerAliveCountMax(
+                (int) ((this.read + interval - 1L) / interval) - 1
+            );
+        }
+        if (this.bastion != null) {
+            session.setProxy(new Jump(this.bastion));
+        }
+    }
+
+    /**
+     * Connect timeout.
+     * @return Milliseconds
+     */
+    int timeout() {
+        return (int) this.connect;
+    }
+
+    /**
+     * Attempts to open a session to the host.
+     * @param host Name of the host, like "login@addr:port"
+     * @return Attempts
+     */
+    Attempts attempts(final String host) {
+        return new Attempts(this.policy, host);
+    }
+
+    /**
+     * Same options with one more config value.
+     * @param value The value
+     * @param keys JSch config keys
+     * @return New options
+     */
+    private Options with(final String value, final String... keys) {
+        final Map<String, String> cfg = new TreeMap<>(this.config);
+        for (final String key : keys) {
+            cfg.put(key, value);
+        }
+        return new Options(
+            Collections.unmodifiableMap(cfg), this.connect, this.read,
+            this.policy, this.bastion
+        );
+    }
+
+    /**
+     * Comma-separated list of algorithms.
+     * @param algos Algorithms
+     * @return The list
+     */
+    private static String list(final String... algos) {
+        if (algos.length == 0) {
+            throw new IllegalArgumentException(
+                "At least one algorithm is required"
+            );
+        }
+        for (final String algo : algos) {
+            if (algo.isEmpty() || algo.indexOf(',') >= 0) {
+                throw new IllegalArgumentException(
+                    String.format("Invalid name of algorithm: \"%s\"", algo)
+                );
+            }
+        }
+        return String.join(",", algos);
+    }
+
+    /**
+     * Check that the timeout is positive and fits into int.
+     * @param msec Milliseconds
+     * @return The same
+     */
+    private static long positive(final long msec) {
+        if (msec <= 0L || msec > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                String.format("Connect timeout is out of range: %d ms", msec)
+            );
+        }
+        return msec;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Metrics of one host, passed through the layers of a shell.
+ *
+ * @since 2.0
+ */
+final class Probe {
+
+    /**
+     * Probe that reports to nowhere.
+     */
+    static final Probe NONE = new Probe(new Metrics() { }, "");
+
+    /**
+     * Where to report.
+     */
+    private final transient Metrics metrics;
+
+    /**
+     * Name of the host.
+     */
+    private final transient String host;
+
+    /**
+     * Ctor.
+     * @param mtr Where to report
+     * @param name Name of the host
+     */
+    Probe(final Metrics mtr, final String name) {
+        this.metrics = mtr;
+        this.host = name;
+    }
+
+    /**
+     * The phase, which started at the given moment, is over.
+     * @param phase The phase
+     * @param start When it started, as in {@link System#nanoTime()}
+     */
+    void since(final Metrics.Phase phase, final long start) {
+        this.took(phase, System.nanoTime() - start);
+    }
+
+    /**
+     * The phase is over.
+     * @param phase The phase
+     * @param nanos How long it took
+     */
+    void took(final Metrics.Phase phase, final long nanos) {
+        this.metrics.phase(this.host, phase, nanos);
+    }
+
+    /**
+     * Bytes transferred.
+     * @param sent Bytes sent
+     * @param received Bytes received
+     */
+    void bytes(final long sent, final long received) {
+        this.metrics.bytes(this.host, sent, received);
+    }
+
+    /**
+     * Exit code.
+     * @param code The code
+     */
+    void exit(final int code) {
+        this.metrics.exit(this.host, code);
+    }
+
+    /**
+     * Attempt to open a session failed.
+     */
+    void retry() {
+        this.metrics.retry(this.host);
+    }
+
+    /**
+     * Shell that reports to a probe.
+     * @since 2.0
+     */
+    @FunctionalInterface
+    interface Target {
+        /**
+         * Execute and report to the probe.
+         * @param command Command
+         * @param stdin Stdin (will be closed)
+         * @param stdout Stdout (will be closed)
+         * @param stderr Stderr (will be closed)
+         * @param probe Where to report
+         * @return Exit code
+         * @throws IOException If fails
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        int exec(String command, InputStream stdin, OutputStream stdout,
+            OutputStream stderr, Probe probe) throws IOException;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.log.Logger;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handshake profiles of hosts: algorithms and authentication method
+ * that worked last time.
+ *
+ * <p>When a session is opened to a host, which was seen recently,
+ * the algorithms and the authentication method negotiated last time
+ * are put first into the session config, while all other choices stay
+ * where they were. Thus, the client doesn't try authentication methods
+ * which the server doesn't accept, and the negotiation still succeeds
+ * if the server has changed. A profile expires after a while, and
+ * is forgotten as soon as a connection fails.</p>
+ *
+ * @since 2.0
+ */
+final class Profiles {
+
+    /**
+     * Profiles of all hosts of this JVM.
+     */
+    static final Profiles SHARED = new Profiles(TimeUnit.HOURS.toMillis(1L));
+
+    /**
+     * Profiles by hosts.
+     */
+    private final transient ConcurrentMap<String, Profiles.Profile> hosts;
+
+    /**
+     * How long a profile lives, in milliseconds.
+     */
+    private final transient long ttl;
+
+    /**
+     * Ctor.
+     * @param msec How long a profile lives, in milliseconds
+     */
+    Profiles(final long msec) {
+        this.hosts = new ConcurrentHashMap<>(0);
+        this.ttl = msec;
+    }
+
+    /**
+     * Connect the session, using and updating the profile of the host.
+     * @param host Name of the host, like "login@addr:port"
+     * @param session The session, not connected yet
+     * @param probe Where to report phases of the handshake
+     * @param timeout Timeout, in milliseconds
+     * @throws JSchException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    void connect(final String host, final Session session, final Probe probe,
+        final int timeout) throws JSchException {
+        final Profiles.Profile known = this.hosts.get(host);
+        if (known != null && known.alive()) {
+            for (final Map.Entry<String, String> ent : known.algorithms.entrySet()) {
+                session.setConfig(
+                    ent.getKey(),
+                    Profiles.first(ent.getValue(), session.getConfig(ent.getKey()))
+                );
+            }
+        }
+        final Handshake handshake = new Handshake(session.getLogger(), probe);
+        session.setLogger(handshake);
+        try {
+            session.connect(timeout);
+        } catch (final JSchException ex) {
+            if (this.hosts.remove(host) != null) {
+                Logger.debug(this, "Handshake profile of %s forgotten", host);
+            }
+            throw ex;
+        }
+        final Map<String, String> algorithms = handshake.algorithms();
+        if (!algorithms.isEmpty()) {
+            this.hosts.put(
+                host,
+                new Profiles.Profile(
+                    algorithms, System.currentTimeMillis() + this.ttl
+                )
+            );
+        }
+    }
+
+    /**
+     * Put the choice first in the comma-separated list, if it is there.
+     *
+     * <p>A choice, which is not in the list, is not added, since
+     * the list may be narrowed down by {@link Options} on purpose.</p>
+     *
+     * @param choice The choice
+     * @param list The list, or NULL
+     * @return New list
+     */
+    private static String first(final String choice, final String list) {
+        final String result;
+        if (list == null) {
+            result = choice;
+        } else if (Arrays.asList(list.split(",")).contains(choice)) {
+            final StringBuilder out = new StringBuilder(choice);
+            for (final String item : list.split(",")) {
+                if (!item.isEmpty() && !item.equals(choice)) {
+                    out.append(',').append(item);
+                }
+            }
+            result = out.toString();
+        } else {
+            result = list;
+        }
+        return result;
+    }
+
+    /**
+     * Profile of one host.
+     * @since 2.0
+     */
+    private static final class Profile {
+
+        /**
+         * JSch config keys and algorithms.
+         */
+        private final Map<String, String> algorithms;
+
+        /**
+         * When it expires, in milliseconds.
+         */
+        private final long expires;
+
+        /**
+         * Ctor.
+         * @param algos JSch config keys and algorithms
+         * @param time When it expires, in milliseconds
+         */
+        Profile(final Map<String, String> algos, final long time) {
+            this.algorithms = algos;
+            this.expires = time;
+        }
+
+        /**
+         * Is it still valid?
+         * @return TRUE if not expired
+         */
+        boolean alive() {
+            return System.currentTimeMillis() < this.expires;
+        }
+    }
+}
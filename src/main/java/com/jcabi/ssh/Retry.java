@@ -0,0 +1,224 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Policy of retrying, when a new SSH session can't be opened.
+ *
+ * <p>Set it through {@link Options#retry(Retry)}. By default,
+ * {@link Retry.Backoff} is used, which gives up after seven attempts
+ * or two minutes, whichever comes first:</p>
+ *
+ * <pre> Shell shell = new Ssh(
+ *   "example.com", 22, "jeff", key, null,
+ *   new Options().retry(
+ *     new Retry.Backoff(3, 1L, 10L, 30L, TimeUnit.SECONDS)
+ *   )
+ * );</pre>
+ *
+ * <p>Every failed attempt, which is going to be retried, is logged and
+ * reported to {@link Metrics#retry(String)}, if the shell
+ * is {@link Shell.Metered}.</p>
+ *
+ * @since 2.0
+ */
+public interface Retry {
+
+    /**
+     * Never retry.
+     */
+    Retry NEVER = (attempt, elapsed, error) -> -1L;
+
+    /**
+     * How long to wait before the next attempt.
+     * @param attempt How many attempts failed, starting from one
+     * @param elapsed Milliseconds since the first attempt started
+     * @param error Why the last attempt failed
+     * @return Milliseconds to wait, or a negative number to give up
+     */
+    long delay(int attempt, long elapsed, Exception error);
+
+    /**
+     * What to do with an error.
+     *
+     * @since 2.0
+     */
+    enum Verdict {
+        /**
+         * Don't retry, it won't help, like a failed authentication.
+         */
+        STOP,
+
+        /**
+         * Retry soon, without growing the delay, like when the connection
+         * is refused, because the server is restarting.
+         */
+        FAST,
+
+        /**
+         * Retry with exponential backoff, like after a timeout.
+         */
+        SLOW
+    }
+
+    /**
+     * Exponential backoff with jitter and a deadline.
+     *
+     * <p>The delay doubles after each {@link Retry.Verdict#SLOW} error,
+     * starting from the first one and up to the maximum, while after
+     * {@link Retry.Verdict#FAST} errors it is always the first one.
+     * A random jitter takes up to a half of the delay away, in order
+     * not to retry many sessions at the same moment. The deadline
+     * limits the time spent in waiting and in attempts, except the
+     * last attempt, which is limited by the connect timeout.</p>
+     *
+     * @since 2.0
+     */
+    @ToString(of = { "attempts", "first", "max", "deadline" })
+    @EqualsAndHashCode(of = { "attempts", "first", "max", "deadline" })
+    final class Backoff implements Retry {
+
+        /**
+         * Maximum number of attempts.
+         */
+        private final transient int attempts;
+
+        /**
+         * First delay, in milliseconds.
+         */
+        private final transient long first;
+
+        /**
+         * Maximum delay, in milliseconds.
+         */
+        private final transient long max;
+
+        /**
+         * Deadline, in milliseconds since the first attempt.
+         */
+        private final transient long deadline;
+
+        /**
+         * Classifier of errors.
+         */
+        private final transient Function<Throwable, Retry.Verdict> classifier;
+
+        /**
+         * Ctor.
+         */
+        public Backoff() {
+            this(7, 1L, 30L, 120L, TimeUnit.SECONDS);
+        }
+
+        /**
+         * Ctor.
+         * @param total Maximum number of attempts
+         * @param start First delay
+         * @param longest Maximum delay
+         * @param limit Deadline, since the first attempt
+         * @param unit Unit of time
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        public Backoff(final int total, final long start, final long longest,
+            final long limit, final TimeUnit unit) {
+            this(total, start, longest, limit, unit, new Retry.Errors());
+        }
+
+        /**
+         * Ctor.
+         * @param total Maximum number of attempts
+         * @param start First delay
+         * @param longest Maximum delay
+         * @param limit Deadline, since the first attempt
+         * @param unit Unit of time
+         * @param errors Classifier of errors
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        public Backoff(final int total, final long start, final long longest,
+            final long limit, final TimeUnit unit,
+            final Function<Throwable, Retry.Verdict> errors) {
+            if (total < 1 || start < 0L || longest < start) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "Invalid backoff: %d attempts, delays from %d to %d",
+                        total, start, longest
+                    )
+                );
+            }
+            this.attempts = total;
+            this.first = unit.toMillis(start);
+            this.max = unit.toMillis(longest);
+            this.deadline = unit.toMillis(limit);
+            this.classifier = errors;
+        }
+
+        @Override
+        public long delay(final int attempt, final long elapsed,
+            final Exception error) {
+            final Retry.Verdict verdict = this.classifier.apply(error);
+            long delay = -1L;
+            if (attempt < this.attempts && verdict != Retry.Verdict.STOP) {
+                long full = this.first;
+                if (verdict == Retry.Verdict.SLOW) {
+                    full = this.first << Math.min(attempt - 1, 30);
+                    if (full < this.first || full > this.max) {
+                        full = this.max;
+                    }
+                }
+                final long half = full / 2L;
+                final long next = full - half
+                    + ThreadLocalRandom.current().nextLong(half + 1L);
+                if (elapsed + next < this.deadline) {
+                    delay = next;
+                }
+            }
+            return delay;
+        }
+    }
+
+    /**
+     * Default classifier of errors.
+     *
+     * <p>Failed authentication, broken keys and unknown hosts
+     * are {@link Retry.Verdict#STOP}, a refused connection
+     * is {@link Retry.Verdict#FAST}, everything else
+     * is {@link Retry.Verdict#SLOW}. The chain of causes is checked
+     * too, since JSch wraps network errors.</p>
+     *
+     * @since 2.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    final class Errors implements Function<Throwable, Retry.Verdict> {
+        @Override
+        public Retry.Verdict apply(final Throwable error) {
+            Retry.Verdict verdict = Retry.Verdict.SLOW;
+            Throwable cause = error;
+            while (cause != null) {
+                final String msg = String.valueOf(cause.getMessage());
+                if (cause instanceof UnknownHostException
+                    || msg.startsWith("Auth fail")
+                    || msg.startsWith("Auth cancel")
+                    || msg.startsWith("invalid privatekey")) {
+                    verdict = Retry.Verdict.STOP;
+                    break;
+                }
+                if (cause instanceof ConnectException) {
+                    verdict = Retry.Verdict.FAST;
+                }
+                cause = cause.getCause();
+            }
+            return verdict;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.log.Logger;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * File transfer over SFTP.
+ *
+ * <pre> Sftp sftp = new Sftp(new Ssh("ssh.example.com", 22, "yegor", key));
+ * sftp.upload(Paths.get("target/app.jar"), "/opt/app/app.jar");
+ * sftp.download("/var/log/app.log", Paths.get("app.log"));</pre>
+ *
+ * <p>Every transfer opens its own "sftp" channel in a session taken
+ * from the shell, so with {@link SshPool} many transfers may share one
+ * connection. Local files are read and written through {@link FileChannel},
+ * and the bytes are copied between it and JSch through one heap buffer
+ * of 256 KiB per transfer, so that every SFTP request carries as much
+ * data as it may. By default, 64 read requests (see
+ * {@link ChannelSftp#setBulkRequests(int)}) are sent to the server without
+ * waiting for replies, in order to keep the link busy.</p>
+ *
+ * @since 2.0
+ */
+@ToString(of = "shell")
+@EqualsAndHashCode(of = "shell")
+public final class Sftp {
+
+    /**
+     * Size of the transfer buffer.
+     */
+    private static final int BUFFER = 1 << 18;
+
+    /**
+     * Default number of read requests sent without waiting for replies.
+     */
+    private static final int REQUESTS = 64;
+
+    /**
+     * Shell that makes sessions.
+     */
+    private final transient AbstractSshShell shell;
+
+    /**
+     * Number of read requests sent without waiting for replies.
+     */
+    private final transient int requests;
+
+    /**
+     * Ctor.
+     * @param sh Shell that makes sessions
+     */
+    public Sftp(final AbstractSshShell sh) {
+        this(sh, Sftp.REQUESTS);
+    }
+
+    /**
+     * Ctor.
+     * @param sh Shell that makes sessions
+     * @param bulk Number of read requests sent without waiting for replies
+     */
+    public Sftp(final AbstractSshShell sh, final int bulk) {
+        this.shell = sh;
+        this.requests = bulk;
+    }
+
+    /**
+     * Upload local file.
+     * @param local Local file
+     * @param remote Path of the remote file (will be overwritten)
+     * @throws IOException If fails
+     */
+    public void upload(final Path local, final String remote)
+        throws IOException {
+        this.upload(local, remote, (done, total) -> { });
+    }
+
+    /**
+     * Upload local file.
+     * @param local Local file
+     * @param remote Path of the remote file (will be overwritten)
+     * @param progress Progress listener
+     * @throws IOException If fails
+     */
+    public void upload(final Path local, final String remote,
+        final Sftp.Progress progress) throws IOException {
+        try (FileChannel file = FileChannel.open(local, StandardOpenOption.READ)) {
+            final long total = file.size();
+            this.transfer(
+                sftp -> {
+                    try (OutputStream out = sftp.put(remote, ChannelSftp.OVERWRITE)) {
+                        final ByteBuffer buf = ByteBuffer.allocate(Sftp.BUFFER);
+                        long done = 0L;
+                        while (true) {
+                            buf.clear();
+                            final int len = file.read(buf);
+                            if (len < 0) {
+                                break;
+                            }
+                            out.write(buf.array(), 0, len);
+                            done += len;
+                            progress.bytes(done, total);
+                        }
+                    }
+                },
+                remote
+            );
+        }
+    }
+
+    /**
+     * Upload the content of the stream.
+     * @param input The stream (will be closed)
+     * @param remote Path of the remote file (will be overwritten)
+     * @param progress Progress listener, total is always -1
+     * @throws IOException If fails
+     */
+    public void upload(final InputStream input, final String remote,
+        final Sftp.Progress progress) throws IOException {
+        try (InputStream src = input) {
+            this.transfer(
+                sftp -> {
+                    try (OutputStream out = sftp.put(remote, ChannelSftp.OVERWRITE)) {
+                        Sftp.copy(src, out, progress, -1L);
+                    }
+                },
+                remote
+            );
+        }
+    }
+
+    /**
+     * Download remote file.
+     * @param remote Path of the remote file
+     * @param local Local file (will be overwritten)
+     * @throws IOException If fails
+     */
+    public void download(final String remote, final Path local)
+        throws IOException {
+        this.download(remote, local, (done, total) -> { });
+    }
+
+    /**
+     * Download remote file.
+     *
+     * <p>The content goes into a temporary file next to the local one,
+     * which replaces the local file only when the download is complete,
+     * so a failed download leaves the local file as it was.</p>
+     *
+     * @param remote Path of the remote file
+     * @param local Local file (will be overwritten)
+     * @param progress Progress listener
+     * @throws IOException If fails
+     */
+    public void download(final String remote, final Path local,
+        final Sftp.Progress progress) throws IOException {
+        final Path dir = local.toAbsolutePath().getParent();
+        final Path temp = Files.createTempFile(
+            dir, String.format(".%s", local.getFileName()), ".part"
+        );
+        try {
+            try (FileChannel file = FileChannel.open(
+                temp, StandardOpenOption.WRITE
+            )) {
+                this.fetch(remote, file, progress);
+            }
+            Sftp.chmod(temp, local);
+            Files.move(
+                temp, local, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING
+            );
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Download remote file into the stream.
+     * @param remote Path of the remote file
+     * @param output The stream (will be closed)
+     * @param progress Progress listener
+     * @throws IOException If fails
+     */
+    public void download(final String remote, final OutputStream output,
+        final Sftp.Progress progress) throws IOException {
+        try (OutputStream dest = output) {
+            this.transfer(
+                sftp -> {
+                    final long total = sftp.stat(remote).getSize();
+                    try (InputStream in = sftp.get(remote)) {
+                        Sftp.copy(in, dest, progress, total);
+                    }
+                },
+                remote
+            );
+        }
+    }
+
+    /**
+     * Download remote file into a local channel.
+     * @param remote Path of the remote file
+     * @param file Local file
+     * @param progress Progress listener
+     * @throws IOException If fails
+     */
+    private void fetch(final String remote, final FileChannel file,
+        final Sftp.Progress progress) throws IOException {
+        this.transfer(
+            sftp -> {
+                final long total = sftp.stat(remote).getSize();
+                try (InputStream in = sftp.get(remote)) {
+                    final ByteBuffer buf = ByteBuffer.allocate(Sftp.BUFFER);
+                    long done = 0L;
+                    while (true) {
+                        buf.clear();
+                        final int len = in.read(buf.array());
+                        if (len < 0) {
+                            break;
+                        }
+                        buf.limit(len);
+                        while (buf.hasRemaining()) {
+                            file.write(buf);
+                        }
+                        done += len;
+                        progress.bytes(done, total);
+                    }
+                }
+            },
+            remote
+        );
+    }
+
+    /**
+     * Run an action in a new "sftp" channel.
+     * @param action The action
+     * @param remote Path of the remote file, for logging
+     * @throws IOException If fails
+     */
+    private void transfer(final Sftp.Action action, final String remote)
+        throws IOException {
+        final Session session = this.shell.session();
+        try {
+            final ChannelSftp sftp = ChannelSftp.class.cast(
+                session.openChannel("sftp")
+            );
+            sftp.setBulkRequests(this.requests);
+            sftp.connect((int) TimeUnit.SECONDS.toMillis(10L));
+            final long start = System.currentTimeMillis();
+            try {
+                action.run(sftp);
+            } finally {
+                sftp.disconnect();
+            }
+            Logger.info(
+                this, "SFTP %s@%s:%s in %[ms]s",
+                this.shell.getLogin(), this.shell.getAddr(), remote,
+                System.currentTimeMillis() - start
+            );
+        } catch (final JSchException | SftpException ex) {
+            throw new IOException(
+                String.format("SFTP transfer of '%s' failed", remote),
+                ex
+            );
+        } finally {
+            this.shell.release(session);
+        }
+    }
+
+    /**
+     * Give the temporary file the permissions of the local one, or
+     * the usual ones, if there is no local file yet.
+     * @param temp Temporary file
+     * @param local Local file
+     * @throws IOException If fails
+     */
+    private static void chmod(final Path temp, final Path local)
+        throws IOException {
+        try {
+            final Set<PosixFilePermission> perms;
+            if (Files.exists(local)) {
+                perms = Files.getPosixFilePermissions(local);
+            } else {
+                perms = PosixFilePermissions.fromString("rw-r--r--");
+            }
+            Files.setPosixFilePermissions(temp, perms);
+        } catch (final UnsupportedOperationException ex) {
+            Logger.debug(Sftp.class, "Can't chmod %s: %s", temp, ex);
+        }
+    }
+
+    /**
+     * Copy stream to stream.
+     * @param input Input
+     * @param output Output
+     * @param progress Progress listener
+     * @param total Total bytes expected, or -1 if unknown
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static void copy(final InputStream input, final OutputStream output,
+        final Sftp.Progress progress, final long total) throws IOException {
+        final byte[] buf = new byte[Sftp.BUFFER];
+        long done = 0L;
+        while (true) {
+            final int len = input.read(buf);
+            if (len < 0) {
+                break;
+            }
+            output.write(buf, 0, len);
+            done += len;
+            progress.bytes(done, total);
+        }
+    }
+
+    /**
+     * Progress of a transfer.
+     * @since 2.0
+     */
+    @FunctionalInterface
+    public interface Progress {
+        /**
+         * More bytes transferred.
+         * @param done Bytes transferred so far
+         * @param total Total bytes, or -1 if unknown
+         */
+        void bytes(long done, long total);
+    }
+
+    /**
+     * Action in an SFTP channel.
+     * @since 2.0
+     */
+    @FunctionalInterface
+    private interface Action {
+        /**
+         * Run it.
+         * @param sftp The channel
+         * @throws IOException If fails
+         * @throws SftpException If fails
+         */
+        void run(ChannelSftp sftp) throws IOException, SftpException;
+    }
+}
@@ -10,8 +10,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.logging.Level;
+import java.util.stream.Stream;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.cactoos.io.DeadInput;
@@ -131,7 +138,7 @@ public interface Shell {
 
         private static byte[] copyArray(final byte[] array) {
             byte[] res = new byte[0];
-            if (array == null) {
+            if (array != null) {
                 res = array.clone();
             }
             return res;
@@ -282,4 +289,451 @@ public interface Shell {
             );
         }
     }
+
+    /**
+     * Verbose run, which doesn't slow down the command.
+     *
+     * <pre> Shell shell = new Shell.Logged(new SshPool(new Ssh(...)));</pre>
+     *
+     * <p>Like {@link Shell.Verbose}, stdout is logged with INFO level and
+     * stderr with WARNING, line by line. Unlike it, lines are handed over
+     * to another thread, which prints them in batches, so a slow log
+     * doesn't hold the thread reading the channel. When too many lines
+     * are waiting, new ones are dropped; the log then tells how many
+     * of them, and {@link #dropped()} returns the total.</p>
+     *
+     * @since 2.0
+     */
+    @ToString(of = "origin")
+    @EqualsAndHashCode(of = "origin")
+    final class Logged implements Shell {
+
+        /**
+         * How many lines may wait by default.
+         */
+        private static final int CAPACITY = 10_000;
+
+        /**
+         * Original.
+         */
+        private final transient Shell origin;
+
+        /**
+         * The log.
+         */
+        private final transient AsyncLog log;
+
+        /**
+         * Ctor.
+         * @param shell Original shell
+         */
+        public Logged(final Shell shell) {
+            this(shell, Shell.Logged.CAPACITY);
+        }
+
+        /**
+         * Ctor.
+         * @param shell Original shell
+         * @param capacity How many lines may wait to be logged
+         */
+        public Logged(final Shell shell, final int capacity) {
+            this(shell, new AsyncLog(Shell.Logged.class, capacity));
+        }
+
+        /**
+         * Ctor.
+         * @param shell Original shell
+         * @param alog The log
+         */
+        Logged(final Shell shell, final AsyncLog alog) {
+            this.origin = shell;
+            this.log = alog;
+        }
+
+        @Override
+        public int exec(final String command, final InputStream stdin,
+            final OutputStream stdout, final OutputStream stderr)
+            throws IOException {
+            return this.origin.exec(
+                command, stdin,
+                new TeeOutputStream(
+                    stdout,
+                    new LineOutput(StandardCharsets.UTF_8, this.log::info)
+                ),
+                new TeeOutputStream(
+                    stderr,
+                    new LineOutput(StandardCharsets.UTF_8, this.log::warn)
+                )
+            );
+        }
+
+        /**
+         * How many lines were not logged, since the log was too slow.
+         * @return Total, for all commands of this shell
+         */
+        public long dropped() {
+            return this.log.dropped();
+        }
+    }
+
+    /**
+     * Lines of stdout, as they arrive.
+     *
+     * <pre> try (Stream&lt;String&gt; lines = new Shell.Lines(shell).exec("find /")) {
+     *   lines.filter(line -&gt; line.endsWith(".log")).forEach(System.out::println);
+     * }</pre>
+     *
+     * <p>Unlike {@link Shell.Plain}, the output is not buffered: the stream
+     * is populated while the command is running, and the command waits
+     * when the consumer is slow and the buffer of a thousand
+     * lines is full. Stdout and stderr are kept apart:
+     * lines of stderr go to the consumer provided, or to the log,
+     * with WARNING level.</p>
+     *
+     * <p>The stream must be closed. If it is closed before the end, the command
+     * is cancelled: the thread running it is interrupted, which kills
+     * the remote command without waiting for its next line, and its
+     * output is not accepted anymore. Exit code is ignored, as in
+     * {@link Shell.Plain}; if the shell fails, the stream throws
+     * {@link UncheckedIOException} at the end.</p>
+     *
+     * @since 2.0
+     */
+    @ToString(of = "origin")
+    @EqualsAndHashCode(of = "origin")
+    final class Lines {
+
+        /**
+         * How many lines may wait for the consumer.
+         */
+        private static final int CAPACITY = 1024;
+
+        /**
+         * Original.
+         */
+        private final transient Shell origin;
+
+        /**
+         * Executor to run commands in.
+         */
+        private final transient Executor threads;
+
+        /**
+         * Ctor.
+         * @param shell Original shell
+         */
+        public Lines(final Shell shell) {
+            this(shell, new VirtualThreads());
+        }
+
+        /**
+         * Ctor.
+         * @param shell Original shell
+         * @param exec Executor to run commands in
+         */
+        public Lines(final Shell shell, final Executor exec) {
+            this.origin = shell;
+            this.threads = exec;
+        }
+
+        /**
+         * Run the command, sending stderr to the log.
+         * @param cmd Command
+         * @return Lines of stdout (must be closed)
+         */
+        public Stream<String> exec(final String cmd) {
+            return this.exec(
+                cmd, line -> Logger.warn(this, "%s", line)
+            );
+        }
+
+        /**
+         * Run the command.
+         * @param cmd Command
+         * @param errors Receiver of stderr lines, called as they arrive
+         * @return Lines of stdout (must be closed)
+         */
+        public Stream<String> exec(final String cmd,
+            final Consumer<String> errors) {
+            final LineQueue queue = new LineQueue(Shell.Lines.CAPACITY);
+            final Interruptible<Void> future = new Interruptible<>();
+            this.threads.execute(
+                () -> future.run(
+                    () -> {
+                        try {
+                            this.origin.exec(
+                                cmd, new DeadInput().stream(),
+                                new LineOutput(StandardCharsets.UTF_8, queue),
+                                new LineOutput(
+                                    StandardCharsets.UTF_8, errors::accept
+                                )
+                            );
+                            queue.end();
+                        } catch (final IOException ex) {
+                            queue.fail(ex);
+                        }
+                        return null;
+                    }
+                )
+            );
+            return queue.stream().onClose(() -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Shell for byte channels, like {@link java.nio.channels.FileChannel}.
+     *
+     * <pre> try (FileChannel out = FileChannel.open(path, WRITE, CREATE)) {
+     *   new Shell.Nio(shell).exec("cat data.bin", Channels.newChannel(
+     *     InputStream.nullInputStream()), out, err);
+     * }</pre>
+     *
+     * <p>Data moves through direct buffers of 64 KiB, which are taken from
+     * a pool shared by all instances and given back after the command,
+     * so bulk transfers don't allocate memory for every chunk. The channels
+     * are read and written in blocks of that size: stdout and stderr
+     * reach their channels only when the buffer is full or when the command
+     * is over, which is good for files and bad for interactive
+     * consumers. The channels must be in blocking mode and are closed
+     * at the end, as streams of {@link Shell}.</p>
+     *
+     * @since 2.0
+     */
+    @ToString(of = "origin")
+    @EqualsAndHashCode(of = "origin")
+    final class Nio {
+
+        /**
+         * Buffers of all instances.
+         */
+        private static final Buffers POOL = new Buffers(1 << 16, 64);
+
+        /**
+         * Original.
+         */
+        private final transient Shell origin;
+
+        /**
+         * Pool of buffers.
+         */
+        private final transient Buffers buffers;
+
+        /**
+         * Ctor.
+         * @param shell Original shell
+         */
+        public Nio(final Shell shell) {
+            this(shell, Shell.Nio.POOL);
+        }
+
+        /**
+         * Ctor.
+         * @param shell Original shell
+         * @param pool Pool of buffers
+         */
+        Nio(final Shell shell, final Buffers pool) {
+            this.origin = shell;
+            this.buffers = pool;
+        }
+
+        /**
+         * Execute a command.
+         * @param command The command
+         * @param stdin Stdin (will be closed)
+         * @param stdout Stdout (will be closed)
+         * @param stderr Stderr (will be closed)
+         * @return Exit code
+         * @throws IOException If fails
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        public int exec(final String command, final ReadableByteChannel stdin,
+            final WritableByteChannel stdout, final WritableByteChannel stderr)
+            throws IOException {
+            try (InputStream input = new ChannelInput(stdin, this.buffers);
+                OutputStream output = new ChannelOutput(stdout, this.buffers);
+                OutputStream error = new ChannelOutput(stderr, this.buffers)) {
+                return this.origin.exec(command, input, output, error);
+            }
+        }
+    }
+
+    /**
+     * Shell that measures commands and reports to {@link Metrics}.
+     *
+     * <pre> MetricsRegistry registry = new MetricsRegistry();
+     * Shell shell = new Shell.Metered(new SshPool(new Ssh(...)), registry);</pre>
+     *
+     * <p>Total time, bytes sent and received, and exit codes are reported
+     * for any shell. When the shell is {@link Ssh}, {@link SshByPassword}
+     * or {@link SshPool}, the phases of every command are reported too:
+     * handshake, channel opening, remote run and so on,
+     * see {@link Metrics.Phase}.</p>
+     *
+     * @since 2.0
+     */
+    @ToString(of = "host")
+    final class Metered implements Shell {
+
+        /**
+         * Original shell.
+         */
+        private final transient Probe.Target origin;
+
+        /**
+         * Name of the host.
+         */
+        private final transient String host;
+
+        /**
+         * Where to report.
+         */
+        private final transient Probe probe;
+
+        /**
+         * Ctor.
+         * @param shell Original shell
+         * @param mtr Where to report
+         */
+        public Metered(final AbstractSshShell shell, final Metrics mtr) {
+            this(
+                (cmd, stdin, stdout, stderr, prb) -> shell.exec(
+                    cmd, stdin, stdout, stderr, prb
+                ),
+                String.format("%s:%d", shell.getAddr(), shell.getPort()),
+                mtr
+            );
+        }
+
+        /**
+         * Ctor.
+         * @param shell Original shell
+         * @param name Name of the host, to report
+         * @param mtr Where to report
+         */
+        public Metered(final Shell shell, final String name,
+            final Metrics mtr) {
+            this(
+                (cmd, stdin, stdout, stderr, prb) -> shell.exec(
+                    cmd, stdin, stdout, stderr
+                ),
+                name,
+                mtr
+            );
+        }
+
+        /**
+         * Ctor.
+         * @param shell Original shell
+         * @param name Name of the host, to report
+         * @param mtr Where to report
+         */
+        private Metered(final Probe.Target shell, final String name,
+            final Metrics mtr) {
+            this.origin = shell;
+            this.host = name;
+            this.probe = new Probe(mtr, name);
+        }
+
+        @Override
+        public int exec(final String command, final InputStream stdin,
+            final OutputStream stdout, final OutputStream stderr)
+            throws IOException {
+            final long start = System.nanoTime();
+            final CountingInput input = new CountingInput(stdin);
+            final CountingOutput out = new CountingOutput(stdout);
+            final CountingOutput err = new CountingOutput(stderr);
+            try {
+                final int code = this.origin.exec(
+                    command, input, out, err, this.probe
+                );
+                this.probe.exit(code);
+                return code;
+            } finally {
+                this.probe.bytes(input.bytes(), out.bytes() + err.bytes());
+                this.probe.since(Metrics.Phase.TOTAL, start);
+            }
+        }
+    }
+
+    /**
+     * Shell with a deadline for every command.
+     *
+     * <p>When the time is over, the remote command is killed,
+     * the channel is closed and {@link #EXPIRED} is returned
+     * instead of the exit code:</p>
+     *
+     * <pre> int code = new Shell.Timed(shell, 30L, TimeUnit.SECONDS).exec(
+     *   "make", new DeadInputStream(), stdout, stderr
+     * );
+     * if (code == Shell.Timed.EXPIRED) {
+     *   // it took too long
+     * }</pre>
+     *
+     * <p>The deadline interrupts the thread which runs the command,
+     * so it works with any shell, which stops when interrupted, like
+     * all shells of this package do. The time includes waiting for
+     * a session, for example in the queue of {@link Throttle}, but
+     * the handshake of a new session can't be interrupted: it is limited
+     * only by the connect timeout of {@link Options}, and the command
+     * may end that much later than its deadline.</p>
+     *
+     * @since 2.0
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode(of = { "origin", "nanos" })
+    final class Timed implements Shell {
+
+        /**
+         * Result of a command, which was killed, because it took too long
+         * (real exit codes are never negative, while -1 means that
+         * there is no exit code).
+         */
+        public static final int EXPIRED = -2;
+
+        /**
+         * Original shell.
+         */
+        private final transient Shell origin;
+
+        /**
+         * Time given to every command, in nanoseconds.
+         */
+        private final transient long nanos;
+
+        /**
+         * Ctor.
+         * @param shell Original shell
+         * @param time Time given to every command
+         * @param unit Unit of time
+         */
+        public Timed(final Shell shell, final long time, final TimeUnit unit) {
+            this.origin = shell;
+            this.nanos = unit.toNanos(time);
+        }
+
+        @Override
+        public int exec(final String command, final InputStream stdin,
+            final OutputStream stdout, final OutputStream stderr)
+            throws IOException {
+            final Deadline deadline = new Deadline(
+                this.nanos, TimeUnit.NANOSECONDS
+            ).start();
+            int code;
+            try {
+                code = this.origin.exec(command, stdin, stdout, stderr);
+            } catch (final IOException ex) {
+                if (!deadline.stop()) {
+                    throw ex;
+                }
+                Logger.warn(
+                    this, "Expired in %[nano]s: %s", this.nanos, command
+                );
+                code = Shell.Timed.EXPIRED;
+            } finally {
+                deadline.stop();
+            }
+            return code;
+        }
+    }
 }
@@ -0,0 +1,321 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.log.Logger;
+import com.jcraft.jsch.Channel;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SOCKS5 proxy on a local port, which opens every connection
+ * through the SSH session.
+ *
+ * <p>Only CONNECT command without authentication is supported,
+ * with IPv4, IPv6 and domain names. Domain names are resolved by
+ * the server.</p>
+ *
+ * @since 2.0
+ */
+final class Socks {
+
+    /**
+     * Version of the protocol.
+     */
+    private static final int VERSION = 5;
+
+    /**
+     * Where to get sessions.
+     */
+    private final transient Socks.Sessions sessions;
+
+    /**
+     * The socket listening.
+     */
+    private final transient ServerSocket server;
+
+    /**
+     * Address to listen on.
+     */
+    private final transient InetSocketAddress address;
+
+    /**
+     * Threads.
+     */
+    private final transient Executor threads;
+
+    /**
+     * Ctor.
+     * @param src Where to get sessions
+     * @param host Address to listen on
+     * @param port Port to listen on, or zero
+     * @throws IOException If fails
+     */
+    Socks(final Socks.Sessions src, final String host, final int port)
+        throws IOException {
+        this.sessions = src;
+        this.server = new ServerSocket();
+        this.address = new InetSocketAddress(host, port);
+        this.threads = new VirtualThreads();
+    }
+
+    /**
+     * Start listening.
+     * @throws IOException If fails
+     */
+    void start() throws IOException {
+        this.server.bind(this.address);
+        this.threads.execute(this::accept);
+    }
+
+    /**
+     * The port it listens on.
+     * @return Port
+     */
+    int port() {
+        return this.server.getLocalPort();
+    }
+
+    /**
+     * Stop listening; connections already open stay open.
+     */
+    void close() {
+        try {
+            this.server.close();
+        } catch (final IOException ex) {
+            Logger.warn(this, "Can't close SOCKS proxy: %s", ex.getMessage());
+        }
+    }
+
+    /**
+     * Accept connections until closed.
+     */
+    private void accept() {
+        while (!this.server.isClosed()) {
+            try {
+                final Socket client = this.server.accept();
+                this.threads.execute(() -> this.serve(client));
+            } catch (final IOException ex) {
+                if (!this.server.isClosed()) {
+                    Logger.warn(
+                        this, "SOCKS proxy failed to accept: %s",
+                        ex.getMessage()
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Serve one client.
+     * @param client The socket
+     */
+    private void serve(final Socket client) {
+        try {
+            client.setTcpNoDelay(true);
+            final DataInputStream input = new DataInputStream(
+                client.getInputStream()
+            );
+            final Socks.Held output = new Socks.Held(client.getOutputStream());
+            if (Socks.greet(input, output)) {
+                this.connect(client, input, output);
+            } else {
+                client.close();
+            }
+        } catch (final IOException ex) {
+            Logger.debug(this, "SOCKS connection failed: %s", ex.getMessage());
+            try {
+                client.close();
+            } catch (final IOException none) {
+                Logger.debug(this, "Can't close: %s", none.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Read the request and connect.
+     * @param client The socket
+     * @param input Its input
+     * @param output Its output
+     * @throws IOException If fails
+     */
+    private void connect(final Socket client, final DataInputStream input,
+        final Socks.Held output) throws IOException {
+        final int ver = input.readUnsignedByte();
+        final int cmd = input.readUnsignedByte();
+        input.readUnsignedByte();
+        final String host = Socks.host(input);
+        final int port = input.readUnsignedShort();
+        if (ver != Socks.VERSION || cmd != 1) {
+            Socks.reply(output.origin, 7);
+            client.close();
+        } else {
+            synchronized (output) {
+                try {
+                    final Session session = this.sessions.session();
+                    final Channel channel = session.getStreamForwarder(
+                        host, port
+                    );
+                    channel.setInputStream(input);
+                    channel.setOutputStream(output);
+                    channel.connect((int) TimeUnit.SECONDS.toMillis(10L));
+                    Socks.reply(output.origin, 0);
+                } catch (final JSchException ex) {
+                    Socks.reply(output.origin, 5);
+                    client.close();
+                    Logger.debug(
+                        this, "Can't connect to %s:%d: %s",
+                        host, port, ex.getMessage()
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the greeting and choose "no authentication".
+     * @param input Input of the client
+     * @param output Output of the client
+     * @return TRUE if the client accepts it
+     * @throws IOException If fails
+     */
+    private static boolean greet(final DataInputStream input,
+        final Socks.Held output) throws IOException {
+        final int ver = input.readUnsignedByte();
+        final byte[] methods = new byte[input.readUnsignedByte()];
+        input.readFully(methods);
+        boolean found = false;
+        for (final byte method : methods) {
+            if (method == 0) {
+                found = true;
+                break;
+            }
+        }
+        final boolean accepted = ver == Socks.VERSION && found;
+        int method = 0xFF;
+        if (accepted) {
+            method = 0;
+        }
+        output.origin.write(new byte[] {(byte) Socks.VERSION, (byte) method});
+        output.origin.flush();
+        return accepted;
+    }
+
+    /**
+     * Read the address.
+     * @param input Input of the client
+     * @return Host name or IP address
+     * @throws IOException If fails
+     */
+    private static String host(final DataInputStream input)
+        throws IOException {
+        final int type = input.readUnsignedByte();
+        final String host;
+        if (type == 3) {
+            final byte[] name = new byte[input.readUnsignedByte()];
+            input.readFully(name);
+            host = new String(name, StandardCharsets.US_ASCII);
+        } else if (type == 1 || type == 4) {
+            final byte[] addr = new byte[(type - 1) * 4 + 4];
+            input.readFully(addr);
+            host = InetAddress.getByAddress(addr).getHostAddress();
+        } else {
+            throw new IOException(
+                String.format("Unknown type of address: %d", type)
+            );
+        }
+        return host;
+    }
+
+    /**
+     * Send the reply.
+     * @param output Output of the client
+     * @param code Reply code
+     * @throws IOException If fails
+     */
+    private static void reply(final OutputStream output, final int code)
+        throws IOException {
+        output.write(
+            new byte[] {
+                (byte) Socks.VERSION, (byte) code, 0, 1, 0, 0, 0, 0, 0, 0,
+            }
+        );
+        output.flush();
+    }
+
+    /**
+     * Source of sessions.
+     * @since 2.0
+     */
+    @FunctionalInterface
+    interface Sessions {
+        /**
+         * Current session.
+         * @return The session, connected
+         * @throws IOException If fails
+         */
+        Session session() throws IOException;
+    }
+
+    /**
+     * Output of the client, which JSch writes into only after
+     * the reply is sent: the lock is held by the proxy while
+     * it is connecting.
+     * @since 2.0
+     */
+    private static final class Held extends OutputStream {
+
+        /**
+         * Original stream.
+         */
+        private final OutputStream origin;
+
+        /**
+         * Ctor.
+         * @param out Original stream
+         */
+        Held(final OutputStream out) {
+            super();
+            this.origin = out;
+        }
+
+        @Override
+        public void write(final int data) throws IOException {
+            synchronized (this) {
+                this.origin.write(data);
+            }
+        }
+
+        @Override
+        public void write(final byte[] data, final int off, final int len)
+            throws IOException {
+            synchronized (this) {
+                this.origin.write(data, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (this) {
+                this.origin.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.origin.close();
+        }
+    }
+}
@@ -4,12 +4,10 @@
  */
 package com.jcabi.ssh;
 
-import com.jcabi.aspects.RetryOnFailure;
 import com.jcabi.log.Logger;
 import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.JSchException;
 import com.jcraft.jsch.Session;
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -17,13 +15,13 @@ import java.net.InetAddress;
 import java.net.URL;
 import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.cactoos.io.TeeInput;
-import org.cactoos.scalar.LengthOf;
-import org.cactoos.scalar.Unchecked;
+import org.cactoos.Scalar;
+import org.cactoos.scalar.IoChecked;
+import org.cactoos.scalar.Sticky;
+import org.cactoos.scalar.Synced;
 import org.cactoos.text.TextOf;
 import org.cactoos.text.UncheckedText;
 
@@ -70,9 +68,14 @@ public final class Ssh extends AbstractSshShell {
     private final transient String key;
 
     /**
-     * Private SSH key pass phrase.
+     * JSch with the private key already parsed and decrypted.
      */
-    private final transient String passphrase;
+    private final transient Scalar<JSch> jsch;
+
+    /**
+     * Options of connections.
+     */
+    private final transient Options options;
 
     /**
      * Constructor.
@@ -186,10 +189,33 @@ public final class Ssh extends AbstractSshShell {
     public Ssh(final String adr, final int prt,
         final String user, final String priv,
         final String passphrs
+    ) throws UnknownHostException {
+        this(adr, prt, user, priv, passphrs, new Options());
+    }
+
+    /**
+     * Constructor.
+     * @param adr IP address
+     * @param prt Port of server
+     * @param user Login
+     * @param priv Private SSH key
+     * @param passphrs Pass phrase for encrypted priv. key or NULL
+     * @param opts Options of connections
+     * @throws UnknownHostException when host is unknown.
+     * @since 2.0
+     * @checkstyle ParameterNumberCheck (6 lines)
+     */
+    public Ssh(final String adr, final int prt,
+        final String user, final String priv,
+        final String passphrs, final Options opts
     ) throws UnknownHostException {
         super(adr, prt, user);
         this.key = priv;
-        this.passphrase = passphrs;
+        this.options = opts;
+        // @checkstyle ConstructorsCodeFreeCheck (3 lines)
+        this.jsch = new Synced<>(
+            new Sticky<>(() -> Ssh.context(user, priv, passphrs))
+        );
     }
 
     /**
@@ -202,57 +228,75 @@ public final class Ssh extends AbstractSshShell {
         return String.format("'%s'", arg.replace("'", "'\\''"));
     }
 
-    // @checkstyle ProtectedMethodInFinalClassCheck (10 lines)
+    // @checkstyle ProtectedMethodInFinalClassCheck (3 lines)
     @Override
-    @RetryOnFailure(
-        attempts = 7,
-        delay = 1,
-        unit = TimeUnit.MINUTES,
-        verbose = false,
-        types = IOException.class
-    )
     protected Session session() throws IOException {
-        final File file = File.createTempFile("jcabi-ssh", ".key");
-        try {
-            JSch.setLogger(new JschLogger());
-            final JSch jsch = new JSch();
-            new Unchecked<>(
-                new LengthOf(
-                    new TeeInput(
-                        // @checkstyle ProhibitLineSeparatorInStringsCheck (3 lines)
-                        this.key.replaceAll("\r", "")
-                            .replaceAll("\n\\s+|\n{2,}", "\n")
-                            .trim(),
-                        file
-                    )
-                )
-            ).value();
-            jsch.setHostKeyRepository(new EasyRepo());
-            if (this.passphrase == null) {
-                jsch.addIdentity(file.getAbsolutePath());
-            } else {
-                jsch.addIdentity(
-                    this.getLogin(),
-                    this.key.getBytes(StandardCharsets.UTF_8),
-                    null,
-                    this.passphrase.getBytes(StandardCharsets.UTF_8)
+        return this.session(Probe.NONE);
+    }
+
+    @Override
+    Session session(final Probe probe) throws IOException {
+        return this.options.attempts(this.host()).open(
+            probe,
+            () -> {
+                Logger.debug(
+                    this,
+                    "Opening SSH session to %s (%d bytes in RSA key)...",
+                    this.host(), this.key.length()
                 );
+                return this.session(new IoChecked<>(this.jsch).value(), probe);
             }
-            Logger.debug(
-                this,
-                "Opening SSH session to %s@%s:%s (%d bytes in RSA key)...",
-                this.getLogin(), this.getAddr(), this.getPort(),
-                file.length()
+        );
+    }
+
+    /**
+     * Make JSch with the private key loaded.
+     *
+     * <p>The key is parsed (and decrypted, if it is encrypted) only once,
+     * in memory, and then used by all sessions.</p>
+     *
+     * @param user Login
+     * @param priv Private SSH key
+     * @param passphrs Pass phrase for encrypted priv. key or NULL
+     * @return JSch
+     * @throws JSchException If the key is broken
+     */
+    private static JSch context(final String user, final String priv,
+        final String passphrs) throws JSchException {
+        final JSch jsch = new JSch();
+        jsch.setInstanceLogger(new JschLogger());
+        jsch.setHostKeyRepository(new EasyRepo());
+        if (passphrs == null) {
+            jsch.addIdentity(
+                user,
+                // @checkstyle ProhibitLineSeparatorInStringsCheck (3 lines)
+                priv.replaceAll("\r", "")
+                    .replaceAll("\n\\s+|\n{2,}", "\n")
+                    .trim()
+                    .getBytes(StandardCharsets.UTF_8),
+                null,
+                null
+            );
+        } else {
+            jsch.addIdentity(
+                user,
+                priv.getBytes(StandardCharsets.UTF_8),
+                null,
+                passphrs.getBytes(StandardCharsets.UTF_8)
             );
-            return this.session(jsch);
-        } catch (final JSchException ex) {
-            throw new IOException(ex);
-        } finally {
-            Files.deleteIfExists(file.toPath());
         }
+        return jsch;
     }
 
-    private Session session(final JSch sch) throws JSchException {
+    /**
+     * Open a new session.
+     * @param sch JSch with the key loaded
+     * @param probe Where to report phases of the handshake
+     * @return The session, connected
+     * @throws JSchException If fails
+     */
+    private Session session(final JSch sch, final Probe probe)
+        throws JSchException {
         final Session session = sch.getSession(
             this.getLogin(), this.getAddr(), this.getPort()
         );
@@ -260,12 +304,21 @@ public final class Ssh extends AbstractSshShell {
         session.setTimeout((int) TimeUnit.MINUTES.toMillis(1L));
         session.setServerAliveInterval((int) TimeUnit.SECONDS.toMillis(1L));
         session.setServerAliveCountMax(1_000_000);
-        session.connect((int) TimeUnit.SECONDS.toMillis(10L));
-        Logger.debug(
-            this,
-            "SSH session opened to %s@%s:%s",
-            this.getLogin(), this.getAddr(), this.getPort()
+        this.options.apply(session);
+        Profiles.SHARED.connect(
+            this.host(), session, probe, this.options.timeout()
         );
+        Logger.debug(this, "SSH session opened to %s", this.host());
         return session;
     }
+
+    /**
+     * Name of the host, with login and port.
+     * @return Name, like "login@addr:port"
+     */
+    private String host() {
+        return String.format(
+            "%s@%s:%d", this.getLogin(), this.getAddr(), this.getPort()
+        );
+    }
 }
@@ -4,10 +4,8 @@
  */
 package com.jcabi.ssh;
 
-import com.jcabi.aspects.RetryOnFailure;
 import com.jcabi.log.Logger;
 import com.jcraft.jsch.JSch;
-import com.jcraft.jsch.JSchException;
 import com.jcraft.jsch.Session;
 import java.io.IOException;
 import java.net.UnknownHostException;
@@ -15,6 +13,10 @@ import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.cactoos.Scalar;
+import org.cactoos.scalar.IoChecked;
+import org.cactoos.scalar.Sticky;
+import org.cactoos.scalar.Synced;
 
 /**
  * SSH channel with authentication by password.
@@ -30,6 +32,16 @@ public final class SshByPassword extends AbstractSshShell {
      */
     private final transient String password;
 
+    /**
+     * JSch, shared by all sessions.
+     */
+    private final transient Scalar<JSch> jsch;
+
+    /**
+     * Options of connections.
+     */
+    private final transient Options options;
+
     /**
      * Constructor.
      * @param adr IP address
@@ -42,41 +54,82 @@ public final class SshByPassword extends AbstractSshShell {
     public SshByPassword(final String adr, final int prt,
         final String user, final String passwd)
         throws UnknownHostException {
+        this(adr, prt, user, passwd, new Options());
+    }
+
+    /**
+     * Constructor.
+     * @param adr IP address
+     * @param prt Port of server
+     * @param user Login
+     * @param passwd Password
+     * @param opts Options of connections
+     * @throws UnknownHostException If fails
+     * @since 2.0
+     * @checkstyle ParameterNumberCheck (6 lines)
+     */
+    public SshByPassword(final String adr, final int prt,
+        final String user, final String passwd, final Options opts)
+        throws UnknownHostException {
         super(adr, prt, user);
         this.password = passwd;
+        this.options = opts;
+        // @checkstyle ConstructorsCodeFreeCheck (7 lines)
+        this.jsch = new Synced<>(
+            new Sticky<>(
+                () -> {
+                    final JSch sch = new JSch();
+                    sch.setInstanceLogger(new JschLogger());
+                    return sch;
+                }
+            )
+        );
     }
 
-    // @checkstyle ProtectedMethodInFinalClassCheck (10 lines)
+    // @checkstyle ProtectedMethodInFinalClassCheck (3 lines)
     @Override
-    @RetryOnFailure(
-        attempts = 7,
-        delay = 1,
-        unit = TimeUnit.MINUTES,
-        verbose = false,
-        types = IOException.class
-    )
     protected Session session() throws IOException {
-        try {
-            JSch.setLogger(new JschLogger());
-            final JSch jsch = new JSch();
-            Logger.debug(
-                this,
-                "Opening SSH session to %s@%s:%s (auth with password)...",
-                this.getLogin(), this.getAddr(), this.getPort()
-            );
-            final Session session = jsch.getSession(
-                this.getLogin(), this.getAddr(), this.getPort()
-            );
-            session.setConfig("StrictHostKeyChecking", "no");
-            session.setPassword(this.password.getBytes(StandardCharsets.UTF_8));
-            session.setServerAliveInterval(
-                (int) TimeUnit.SECONDS.toMillis(10)
-            );
-            session.setServerAliveCountMax(1_000_000);
-            session.connect((int) TimeUnit.SECONDS.toMillis(10L));
-            return session;
-        } catch (final JSchException ex) {
-            throw new IOException(ex);
-        }
+        return this.session(Probe.NONE);
+    }
+
+    @Override
+    Session session(final Probe probe) throws IOException {
+        return this.options.attempts(this.host()).open(
+            probe,
+            () -> {
+                Logger.debug(
+                    this,
+                    "Opening SSH session to %s (auth with password)...",
+                    this.host()
+                );
+                final Session session = new IoChecked<>(this.jsch).value()
+                    .getSession(
+                        this.getLogin(), this.getAddr(), this.getPort()
+                    );
+                session.setConfig("StrictHostKeyChecking", "no");
+                session.setPassword(
+                    this.password.getBytes(StandardCharsets.UTF_8)
+                );
+                session.setServerAliveInterval(
+                    (int) TimeUnit.SECONDS.toMillis(10)
+                );
+                session.setServerAliveCountMax(1_000_000);
+                this.options.apply(session);
+                Profiles.SHARED.connect(
+                    this.host(), session, probe, this.options.timeout()
+                );
+                return session;
+            }
+        );
+    }
+
+    /**
+     * Name of the host, with login and port.
+     * @return Name, like "login@addr:port"
+     */
+    private String host() {
+        return String.format(
+            "%s@%s:%d", this.getLogin(), this.getAddr(), this.getPort()
+        );
     }
 }
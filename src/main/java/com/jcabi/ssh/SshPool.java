@@ -0,0 +1,390 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.log.Logger;
+import com.jcraft.jsch.Session;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.UnknownHostException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * SSH shell that keeps authenticated sessions alive between commands.
+ *
+ * <p>Every call to
+ * {@link #exec(String, java.io.InputStream, java.io.OutputStream, java.io.OutputStream)}
+ * opens a new "exec" channel in one of the sessions already connected
+ * to the server, instead of making a new TCP connection, key exchange
+ * and authentication for every command. A single session carries
+ * up to the configured number of channels at the same time, when all of them
+ * are busy a new session is opened:</p>
+ *
+ * <pre> try (SshPool pool = new SshPool(
+ *   new Ssh("ssh.example.com", 22, "yegor", "-----BEGIN RSA...")
+ * )) {
+ *   String uptime = new Shell.Plain(pool).exec("uptime");
+ *   String whoami = new Shell.Plain(pool).exec("whoami");
+ * }</pre>
+ *
+ * <p>Sessions which are not connected anymore are never lent out and
+ * are removed from the pool. All sessions are disconnected by
+ * {@link #close()}, after which the pool refuses to open new ones,
+ * with an {@link IOException}.</p>
+ *
+ * <p>In order to save the first command the time of a handshake, the pool
+ * may keep standby sessions, connected and authenticated, with no
+ * channels open. They are opened in the background after {@link #warm()},
+ * and again every time a standby session is taken by a command or is
+ * lost, until the pool is closed:</p>
+ *
+ * <pre> SshPool pool = new SshPool(
+ *   new Ssh("ssh.example.com", 22, "yegor", "..."), SshPool.CHANNELS, 2
+ * ).warm();</pre>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 2.0
+ */
+@ToString(of = "origin")
+@EqualsAndHashCode(of = "origin", callSuper = true)
+public final class SshPool extends AbstractSshShell implements Closeable {
+
+    /**
+     * Default maximum number of channels per session, the same as
+     * the default {@code MaxSessions} of OpenSSH server.
+     */
+    public static final int CHANNELS = 10;
+
+    /**
+     * How often standby sessions are checked, in milliseconds.
+     */
+    private static final long PERIOD = TimeUnit.SECONDS.toMillis(10L);
+
+    /**
+     * Timer of standby sessions.
+     */
+    private static final ScheduledThreadPoolExecutor TIMER = SshPool.timer();
+
+    /**
+     * Shell that makes new sessions.
+     */
+    private final transient AbstractSshShell origin;
+
+    /**
+     * Maximum number of channels open in one session at the same time.
+     */
+    private final transient int channels;
+
+    /**
+     * Sessions and the number of channels busy in each of them.
+     */
+    private final transient Map<Session, Integer> busy;
+
+    /**
+     * How many sessions without channels to keep.
+     */
+    private final transient int standby;
+
+    /**
+     * Where standby sessions are opened.
+     */
+    private final transient Executor threads;
+
+    /**
+     * Are standby sessions being opened now?
+     */
+    private final transient AtomicBoolean opening;
+
+    /**
+     * Periodic check of standby sessions, or NULL if not warm.
+     */
+    private transient Future<?> keeper;
+
+    /**
+     * Is it closed?
+     */
+    private transient boolean closed;
+
+    /**
+     * Constructor.
+     * @param shell Shell that makes new sessions
+     * @throws UnknownHostException If fails
+     */
+    public SshPool(final AbstractSshShell shell) throws UnknownHostException {
+        this(shell, SshPool.CHANNELS);
+    }
+
+    /**
+     * Constructor.
+     * @param shell Shell that makes new sessions
+     * @param max Maximum number of channels in one session
+     * @throws UnknownHostException If fails
+     */
+    public SshPool(final AbstractSshShell shell, final int max)
+        throws UnknownHostException {
+        this(shell, max, 0);
+    }
+
+    /**
+     * Constructor.
+     * @param shell Shell that makes new sessions
+     * @param max Maximum number of channels in one session
+     * @param spare How many standby sessions to keep after {@link #warm()}
+     * @throws UnknownHostException If fails
+     */
+    public SshPool(final AbstractSshShell shell, final int max,
+        final int spare) throws UnknownHostException {
+        super(shell.getAddr(), shell.getPort(), shell.getLogin());
+        if (max < 1) {
+            throw new IllegalArgumentException(
+                String.format("Channels must be positive: %d", max)
+            );
+        }
+        if (spare < 0) {
+            throw new IllegalArgumentException(
+                String.format("Standby can't be negative: %d", spare)
+            );
+        }
+        this.origin = shell;
+        this.channels = max;
+        this.busy = new LinkedHashMap<>(0);
+        this.standby = spare;
+        this.threads = new VirtualThreads();
+        this.opening = new AtomicBoolean();
+    }
+
+    /**
+     * Start keeping standby sessions, opening them in the background.
+     * @return This
+     */
+    public SshPool warm() {
+        synchronized (this.busy) {
+            if (this.keeper == null && this.standby > 0 && !this.closed) {
+                this.keeper = SshPool.TIMER.scheduleWithFixedDelay(
+                    this::replenish, 0L, SshPool.PERIOD, TimeUnit.MILLISECONDS
+                );
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this.busy) {
+            this.closed = true;
+            if (this.keeper != null) {
+                this.keeper.cancel(false);
+                this.keeper = null;
+            }
+            for (final Session session : this.busy.keySet()) {
+                session.disconnect();
+            }
+            Logger.debug(
+                this, "%d SSH session(s) to %s@%s:%d closed",
+                this.busy.size(), this.getLogin(), this.getAddr(),
+                this.getPort()
+            );
+            this.busy.clear();
+        }
+    }
+
+    /**
+     * Number of sessions currently kept in the pool.
+     * @return Total number of sessions
+     */
+    public int size() {
+        synchronized (this.busy) {
+            return this.busy.size();
+        }
+    }
+
+    // @checkstyle ProtectedMethodInFinalClassCheck (3 lines)
+    @Override
+    protected Session session() throws IOException {
+        return this.session(Probe.NONE);
+    }
+
+    @Override
+    Session session(final Probe probe) throws IOException {
+        Session session = this.lend();
+        this.replenish();
+        if (session == null) {
+            this.refuse();
+            session = this.origin.session(probe);
+            final boolean open;
+            synchronized (this.busy) {
+                open = !this.closed;
+                if (open) {
+                    this.busy.put(session, 1);
+                }
+            }
+            if (!open) {
+                session.disconnect();
+                this.refuse();
+            }
+            Logger.debug(
+                this, "New SSH session to %s@%s:%d added to the pool of %d",
+                this.getLogin(), this.getAddr(), this.getPort(), this.size()
+            );
+        }
+        return session;
+    }
+
+    @Override
+    Session idle() {
+        final Session session = this.lend();
+        this.replenish();
+        return session;
+    }
+
+    // @checkstyle ProtectedMethodInFinalClassCheck (3 lines)
+    @Override
+    protected void release(final Session session) {
+        synchronized (this.busy) {
+            final Integer count = this.busy.get(session);
+            if (count == null || !session.isConnected()) {
+                this.busy.remove(session);
+                session.disconnect();
+            } else {
+                this.busy.put(session, count - 1);
+            }
+        }
+    }
+
+    /**
+     * Fail if the pool is closed.
+     * @throws IOException If it is closed
+     */
+    private void refuse() throws IOException {
+        synchronized (this.busy) {
+            if (this.closed) {
+                throw new IOException(
+                    String.format(
+                        "Pool of SSH sessions to %s@%s:%d is closed",
+                        this.getLogin(), this.getAddr(), this.getPort()
+                    )
+                );
+            }
+        }
+    }
+
+    /**
+     * Open standby sessions in the background, if some are missing.
+     */
+    private void replenish() {
+        synchronized (this.busy) {
+            if (this.keeper != null && this.spare() < this.standby
+                && this.opening.compareAndSet(false, true)) {
+                this.threads.execute(this::refill);
+            }
+        }
+    }
+
+    /**
+     * Open standby sessions, which are missing.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void refill() {
+        try {
+            while (true) {
+                synchronized (this.busy) {
+                    if (this.keeper == null || this.spare() >= this.standby) {
+                        break;
+                    }
+                }
+                final Session session = this.origin.session(Probe.NONE);
+                synchronized (this.busy) {
+                    if (this.keeper == null) {
+                        session.disconnect();
+                        break;
+                    }
+                    this.busy.put(session, 0);
+                }
+                Logger.debug(
+                    this, "Standby SSH session to %s@%s:%d opened",
+                    this.getLogin(), this.getAddr(), this.getPort()
+                );
+            }
+        // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final IOException | RuntimeException ex) {
+            Logger.warn(
+                this, "Failed to open standby SSH session to %s@%s:%d: %s",
+                this.getLogin(), this.getAddr(), this.getPort(),
+                ex.getMessage()
+            );
+        } finally {
+            this.opening.set(false);
+        }
+    }
+
+    /**
+     * Count live sessions without channels; must be called
+     * in the synchronized block.
+     * @return Total
+     */
+    private int spare() {
+        int total = 0;
+        for (final Map.Entry<Session, Integer> entry : this.busy.entrySet()) {
+            if (entry.getValue() == 0 && entry.getKey().isConnected()) {
+                ++total;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Make a timer.
+     * @return Timer, with a daemon thread
+     */
+    private static ScheduledThreadPoolExecutor timer() {
+        final ScheduledThreadPoolExecutor timer =
+            new ScheduledThreadPoolExecutor(
+                1,
+                task -> {
+                    final Thread thread = new Thread(task, "jcabi-ssh-standby");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * Find a live session which can open one more channel.
+     * @return The session or NULL if there is no such session
+     */
+    private Session lend() {
+        Session found = null;
+        synchronized (this.busy) {
+            final Iterator<Map.Entry<Session, Integer>> entries =
+                this.busy.entrySet().iterator();
+            while (entries.hasNext()) {
+                final Map.Entry<Session, Integer> entry = entries.next();
+                if (!entry.getKey().isConnected()) {
+                    if (entry.getValue() == 0) {
+                        entries.remove();
+                    }
+                    continue;
+                }
+                if (found == null && entry.getValue() < this.channels) {
+                    found = entry.getKey();
+                    entry.setValue(entry.getValue() + 1);
+                }
+            }
+        }
+        return found;
+    }
+}
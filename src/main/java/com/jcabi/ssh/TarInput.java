@@ -0,0 +1,358 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reader of a tar archive.
+ *
+ * <p>Understands ustar, pax and GNU formats, including GNU long names
+ * and base-256 encoded sizes, which is what GNU, BSD and BusyBox
+ * tar produce.</p>
+ *
+ * @since 2.0
+ */
+final class TarInput {
+
+    /**
+     * Size of a block.
+     */
+    private static final int BLOCK = 512;
+
+    /**
+     * Where to read from.
+     */
+    private final transient InputStream input;
+
+    /**
+     * Ctor.
+     * @param src Where to read from
+     */
+    TarInput(final InputStream src) {
+        this.input = src;
+    }
+
+    /**
+     * Read all entries.
+     * @param visitor Receives entries, one by one
+     * @throws IOException If fails
+     */
+    void read(final TarInput.Visitor visitor) throws IOException {
+        final Map<String, String> pax = new HashMap<>(0);
+        final byte[] block = new byte[TarInput.BLOCK];
+        while (this.fill(block) && !TarInput.empty(block)) {
+            final char type = (char) block[156];
+            long size = TarInput.number(block, 124, 12);
+            if (type == 'x' || type == 'L' || type == 'K') {
+                final String body = this.text(size);
+                if (type == 'x') {
+                    pax.putAll(TarInput.records(body));
+                } else if (type == 'L') {
+                    pax.put("path", TarInput.trim(body));
+                } else {
+                    pax.put("linkpath", TarInput.trim(body));
+                }
+                continue;
+            }
+            if (pax.containsKey("size")) {
+                size = Long.parseLong(pax.get("size"));
+            }
+            String name = pax.getOrDefault("path", TarInput.name(block));
+            final String target = pax.getOrDefault(
+                "linkpath", TarInput.string(block, 157, 100)
+            );
+            long mtime = TarInput.number(block, 136, 12);
+            if (pax.containsKey("mtime")) {
+                mtime = (long) Double.parseDouble(pax.get("mtime"));
+            }
+            pax.clear();
+            while (name.startsWith("./")) {
+                name = name.substring(2);
+            }
+            if (name.endsWith("/")) {
+                name = name.substring(0, name.length() - 1);
+            }
+            final int mode = (int) TarInput.number(block, 100, 8) & 07777;
+            final TarInput.Content content = new TarInput.Content(this.input, size);
+            if (!name.isEmpty() && !".".equals(name)) {
+                if (type == '5') {
+                    visitor.directory(name, mode, mtime);
+                } else if (type == '2') {
+                    visitor.link(name, target, mtime);
+                } else if (type == '0' || type == 0 || type == '7') {
+                    visitor.file(name, mode, mtime, content);
+                }
+            }
+            content.skip();
+            this.skip((TarInput.BLOCK - size % TarInput.BLOCK) % TarInput.BLOCK);
+        }
+        final byte[] rest = new byte[TarInput.BLOCK];
+        while (this.input.read(rest) >= 0) {
+            continue;
+        }
+    }
+
+    /**
+     * Read a full block.
+     * @param block The block to fill
+     * @return FALSE if the stream is over
+     * @throws IOException If fails
+     */
+    private boolean fill(final byte[] block) throws IOException {
+        int pos = 0;
+        while (pos < block.length) {
+            final int len = this.input.read(block, pos, block.length - pos);
+            if (len < 0) {
+                break;
+            }
+            pos += len;
+        }
+        if (pos > 0 && pos < block.length) {
+            throw new EOFException("Truncated tar archive");
+        }
+        return pos == block.length;
+    }
+
+    /**
+     * Read the content of the entry as text.
+     * @param size Size of the content
+     * @return Text
+     * @throws IOException If fails
+     */
+    private String text(final long size) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final TarInput.Content content = new TarInput.Content(this.input, size);
+        final byte[] buf = new byte[TarInput.BLOCK];
+        while (true) {
+            final int len = content.read(buf);
+            if (len < 0) {
+                break;
+            }
+            baos.write(buf, 0, len);
+        }
+        this.skip((TarInput.BLOCK - size % TarInput.BLOCK) % TarInput.BLOCK);
+        return baos.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Skip bytes.
+     * @param bytes How many
+     * @throws IOException If fails
+     */
+    private void skip(final long bytes) throws IOException {
+        new TarInput.Content(this.input, bytes).skip();
+    }
+
+    /**
+     * Is it an empty block (end of archive)?
+     * @param block The block
+     * @return TRUE if all zeros
+     */
+    private static boolean empty(final byte[] block) {
+        boolean empty = true;
+        for (final byte bte : block) {
+            if (bte != 0) {
+                empty = false;
+                break;
+            }
+        }
+        return empty;
+    }
+
+    /**
+     * Name of the entry, taking ustar prefix into account.
+     * @param block Header block
+     * @return Name
+     */
+    private static String name(final byte[] block) {
+        final String name = TarInput.string(block, 0, 100);
+        final String prefix = TarInput.string(block, 345, 155);
+        final String full;
+        if ("ustar".equals(TarInput.string(block, 257, 6)) && !prefix.isEmpty()) {
+            full = String.format("%s/%s", prefix, name);
+        } else {
+            full = name;
+        }
+        return full;
+    }
+
+    /**
+     * NUL-terminated string from the block.
+     * @param block The block
+     * @param pos Position
+     * @param len Maximum length
+     * @return String
+     */
+    private static String string(final byte[] block, final int pos,
+        final int len) {
+        int end = pos;
+        while (end < pos + len && block[end] != 0) {
+            ++end;
+        }
+        return new String(block, pos, end - pos, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Numeric field, octal or base-256.
+     * @param block The block
+     * @param pos Position
+     * @param len Length of the field
+     * @return The number
+     */
+    private static long number(final byte[] block, final int pos,
+        final int len) {
+        long value = 0L;
+        if ((block[pos] & 0x80) == 0) {
+            final String txt = TarInput.string(block, pos, len).trim();
+            if (!txt.isEmpty()) {
+                value = Long.parseLong(txt, 8);
+            }
+        } else {
+            value = block[pos] & 0x7f;
+            for (int idx = pos + 1; idx < pos + len; ++idx) {
+                value = (value << 8) | Byte.toUnsignedLong(block[idx]);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Parse pax records.
+     * @param body Content of the pax header
+     * @return Records
+     */
+    private static Map<String, String> records(final String body) {
+        final Map<String, String> map = new HashMap<>(0);
+        for (final String line : body.split("\n")) {
+            final int space = line.indexOf(' ');
+            final int equals = line.indexOf('=');
+            if (space > 0 && equals > space) {
+                map.put(line.substring(space + 1, equals), line.substring(equals + 1));
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Remove trailing NULs and new lines.
+     * @param text Text
+     * @return Trimmed text
+     */
+    private static String trim(final String text) {
+        int end = text.length();
+        while (end > 0 && (text.charAt(end - 1) == 0 || text.charAt(end - 1) == '\n')) {
+            --end;
+        }
+        return text.substring(0, end);
+    }
+
+    /**
+     * Receiver of entries.
+     * @since 2.0
+     */
+    interface Visitor {
+        /**
+         * Directory.
+         * @param name Name, relative, without trailing slash
+         * @param mode Permissions
+         * @param mtime Modification time, in seconds
+         * @throws IOException If fails
+         */
+        void directory(String name, int mode, long mtime) throws IOException;
+
+        /**
+         * Symbolic link.
+         * @param name Name, relative
+         * @param target Where it points to
+         * @param mtime Modification time, in seconds
+         * @throws IOException If fails
+         */
+        void link(String name, String target, long mtime) throws IOException;
+
+        /**
+         * Regular file.
+         * @param name Name, relative
+         * @param mode Permissions
+         * @param mtime Modification time, in seconds
+         * @param content Content (doesn't need to be read to the end)
+         * @throws IOException If fails
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        void file(String name, int mode, long mtime, InputStream content)
+            throws IOException;
+    }
+
+    /**
+     * Content of one entry, limited by its size.
+     * @since 2.0
+     */
+    private static final class Content extends InputStream {
+
+        /**
+         * Original stream.
+         */
+        private final InputStream origin;
+
+        /**
+         * Bytes left.
+         */
+        private long left;
+
+        /**
+         * Ctor.
+         * @param input Original stream
+         * @param size Size of the content
+         */
+        Content(final InputStream input, final long size) {
+            super();
+            this.origin = input;
+            this.left = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] one = new byte[1];
+            int data = -1;
+            if (this.read(one, 0, 1) > 0) {
+                data = Byte.toUnsignedInt(one[0]);
+            }
+            return data;
+        }
+
+        @Override
+        public int read(final byte[] buf, final int off, final int len)
+            throws IOException {
+            int done = -1;
+            if (this.left > 0L) {
+                done = this.origin.read(
+                    buf, off, (int) Math.min(len, this.left)
+                );
+                if (done < 0) {
+                    throw new EOFException("Truncated tar archive");
+                }
+                this.left -= done;
+            }
+            return done;
+        }
+
+        /**
+         * Skip the rest of the content.
+         * @throws IOException If fails
+         */
+        void skip() throws IOException {
+            final byte[] buf = new byte[8192];
+            while (this.read(buf) >= 0) {
+                continue;
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writer of a tar archive, in POSIX (pax) format.
+ *
+ * <p>Names longer than 100 bytes, link targets longer than 100 bytes and
+ * files larger than 8Gb are written with pax extended headers, which all
+ * modern tar implementations understand.</p>
+ *
+ * @since 2.0
+ */
+final class TarOutput {
+
+    /**
+     * Size of a block.
+     */
+    private static final int BLOCK = 512;
+
+    /**
+     * Maximum size which fits into the octal size field.
+     */
+    private static final long MAX_SIZE = 077_777_777_777L;
+
+    /**
+     * Where to write.
+     */
+    private final transient OutputStream output;
+
+    /**
+     * Buffer to copy files through.
+     */
+    private final transient byte[] buffer;
+
+    /**
+     * Ctor.
+     * @param out Where to write
+     */
+    TarOutput(final OutputStream out) {
+        this.output = out;
+        this.buffer = new byte[1 << 16];
+    }
+
+    /**
+     * Add a directory.
+     * @param name Name, relative, without trailing slash
+     * @param mode Permissions, like 0755
+     * @param mtime Modification time, in seconds
+     * @throws IOException If fails
+     */
+    void directory(final String name, final int mode, final long mtime)
+        throws IOException {
+        this.header(String.format("%s/", name), '5', mode, mtime, 0L, "");
+    }
+
+    /**
+     * Add a symbolic link.
+     * @param name Name, relative
+     * @param target Where it points to
+     * @param mtime Modification time, in seconds
+     * @throws IOException If fails
+     */
+    void link(final String name, final String target, final long mtime)
+        throws IOException {
+        this.header(name, '2', 0777, mtime, 0L, target);
+    }
+
+    /**
+     * Add a regular file.
+     * @param name Name, relative
+     * @param mode Permissions, like 0644
+     * @param mtime Modification time, in seconds
+     * @param size Size of the file, in bytes
+     * @param content Content, exactly {@code size} bytes (will NOT be closed)
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    void file(final String name, final int mode, final long mtime,
+        final long size, final InputStream content) throws IOException {
+        this.header(name, '0', mode, mtime, size, "");
+        long left = size;
+        while (left > 0L) {
+            final int len = content.read(
+                this.buffer, 0, (int) Math.min(left, this.buffer.length)
+            );
+            if (len < 0) {
+                throw new IOException(
+                    String.format("File '%s' is shorter than %d bytes", name, size)
+                );
+            }
+            this.output.write(this.buffer, 0, len);
+            left -= len;
+        }
+        this.pad(size);
+    }
+
+    /**
+     * Write the end of the archive and flush (the stream is NOT closed).
+     * @throws IOException If fails
+     */
+    void finish() throws IOException {
+        this.output.write(new byte[TarOutput.BLOCK * 2]);
+        this.output.flush();
+    }
+
+    /**
+     * Write a header, with an extended header before it, if necessary.
+     * @param name Name
+     * @param type Type of entry
+     * @param mode Permissions
+     * @param mtime Modification time, in seconds
+     * @param size Size
+     * @param target Link target
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private void header(final String name, final char type, final int mode,
+        final long mtime, final long size, final String target)
+        throws IOException {
+        final byte[] bname = name.getBytes(StandardCharsets.UTF_8);
+        final byte[] btarget = target.getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream pax = new ByteArrayOutputStream();
+        if (bname.length > 100) {
+            TarOutput.record(pax, "path", name);
+        }
+        if (btarget.length > 100) {
+            TarOutput.record(pax, "linkpath", target);
+        }
+        if (size > TarOutput.MAX_SIZE) {
+            TarOutput.record(pax, "size", Long.toString(size));
+        }
+        if (pax.size() > 0) {
+            this.output.write(
+                TarOutput.block(
+                    "PaxHeader", 'x', 0644, mtime, pax.size(), new byte[0]
+                )
+            );
+            pax.writeTo(this.output);
+            this.pad(pax.size());
+        }
+        this.output.write(
+            TarOutput.block(
+                name, type, mode, mtime,
+                Math.min(size, TarOutput.MAX_SIZE),
+                Arrays.copyOf(btarget, Math.min(btarget.length, 100))
+            )
+        );
+    }
+
+    /**
+     * Pad the content to the end of the block.
+     * @param size Size of the content
+     * @throws IOException If fails
+     */
+    private void pad(final long size) throws IOException {
+        final int rest = (int) (size % TarOutput.BLOCK);
+        if (rest > 0) {
+            this.output.write(new byte[TarOutput.BLOCK - rest]);
+        }
+    }
+
+    /**
+     * Make one header block.
+     * @param name Name
+     * @param type Type of entry
+     * @param mode Permissions
+     * @param mtime Modification time, in seconds
+     * @param size Size
+     * @param target Link target, no longer than 100 bytes
+     * @return The block
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static byte[] block(final String name, final char type,
+        final int mode, final long mtime, final long size,
+        final byte[] target) {
+        final byte[] block = new byte[TarOutput.BLOCK];
+        final byte[] bname = name.getBytes(StandardCharsets.UTF_8);
+        if (bname.length <= 100) {
+            System.arraycopy(bname, 0, block, 0, bname.length);
+        } else {
+            System.arraycopy(bname, bname.length - 100, block, 0, 100);
+        }
+        TarOutput.octal(block, 100, 8, mode);
+        TarOutput.octal(block, 108, 8, 0L);
+        TarOutput.octal(block, 116, 8, 0L);
+        TarOutput.octal(block, 124, 12, size);
+        TarOutput.octal(block, 136, 12, mtime);
+        Arrays.fill(block, 148, 156, (byte) ' ');
+        block[156] = (byte) type;
+        System.arraycopy(target, 0, block, 157, target.length);
+        System.arraycopy(
+            "ustar\u000000".getBytes(StandardCharsets.US_ASCII), 0, block, 257, 8
+        );
+        long sum = 0L;
+        for (final byte bte : block) {
+            sum += Byte.toUnsignedInt(bte);
+        }
+        TarOutput.octal(block, 148, 7, sum);
+        return block;
+    }
+
+    /**
+     * Write octal number, zero-padded and NUL-terminated.
+     * @param block The block
+     * @param pos Position of the field
+     * @param len Length of the field, including NUL
+     * @param value The value
+     */
+    private static void octal(final byte[] block, final int pos,
+        final int len, final long value) {
+        final String txt = String.format(
+            String.format("%%0%do", len - 1), value
+        );
+        System.arraycopy(
+            txt.getBytes(StandardCharsets.US_ASCII), 0, block, pos, len - 1
+        );
+        block[pos + len - 1] = 0;
+    }
+
+    /**
+     * Add a pax record.
+     * @param pax Where to add
+     * @param key Key
+     * @param value Value
+     */
+    private static void record(final ByteArrayOutputStream pax,
+        final String key, final String value) {
+        final int body = String.format(" %s=%s\n", key, value)
+            .getBytes(StandardCharsets.UTF_8).length;
+        int len = body + 1;
+        while (Integer.toString(len).length() + body != len) {
+            len = Integer.toString(len).length() + body;
+        }
+        final byte[] rec = String.format("%d %s=%s\n", len, key, value)
+            .getBytes(StandardCharsets.UTF_8);
+        pax.write(rec, 0, rec.length);
+    }
+}
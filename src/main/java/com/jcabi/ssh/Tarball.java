@@ -0,0 +1,671 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.log.Logger;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.cactoos.io.DeadInputStream;
+
+/**
+ * Directory tree, transferred as a tar stream through one command.
+ *
+ * <pre> new Tarball(
+ *   new SshPool(new Ssh("ssh.example.com", 22, "yegor", key)),
+ *   Collections.singleton("src"),
+ *   Arrays.asList("{*.log,**&#47;*.log}", "src/test")
+ * ).upload(Paths.get("/home/me/project"), "/opt/project");</pre>
+ *
+ * <p>The archive is generated on the fly and piped into
+ * {@code tar -x} running on the server (or read from {@code tar -c}
+ * on the server, for downloads), nothing is stored on disk, and all files
+ * go through one "exec" channel. Permissions and modification times
+ * are preserved.</p>
+ *
+ * <p>Includes are paths relative to the directory, only these subtrees
+ * are transferred ({@code "."} means everything); they can't go up
+ * with {@code ".."}. Excludes are glob patterns of
+ * {@link FileSystems#getPathMatcher(String)}, which are matched against
+ * relative paths of files and directories, in both directions the same
+ * way: on upload they are applied locally, on download they are applied
+ * to entries of the archive as they arrive. On download they are also
+ * given to the remote tar as {@code --exclude}, with braces expanded,
+ * so most of excluded files never go over the wire; this needs
+ * GNU tar on the server.</p>
+ *
+ * @since 2.0
+ */
+@ToString(of = { "shell", "includes", "excludes" })
+@EqualsAndHashCode(of = { "shell", "includes", "excludes" })
+public final class Tarball {
+
+    /**
+     * Size of the pipe buffer.
+     */
+    private static final int PIPE = 1 << 16;
+
+    /**
+     * Shell to run tar in.
+     */
+    private final transient Shell shell;
+
+    /**
+     * Relative paths of subtrees to transfer.
+     */
+    private final transient Collection<String> includes;
+
+    /**
+     * Glob patterns of paths to skip.
+     */
+    private final transient Collection<String> excludes;
+
+    /**
+     * Executor for the other end of the pipe.
+     */
+    private final transient Executor threads;
+
+    /**
+     * Ctor.
+     * @param sh Shell to run tar in
+     */
+    public Tarball(final Shell sh) {
+        this(sh, Collections.singleton("."), Collections.emptyList());
+    }
+
+    /**
+     * Ctor.
+     * @param sh Shell to run tar in
+     * @param incl Relative paths of subtrees to transfer
+     * @param excl Glob patterns of paths to skip
+     */
+    public Tarball(final Shell sh, final Collection<String> incl,
+        final Collection<String> excl) {
+        this(sh, incl, excl, new VirtualThreads());
+    }
+
+    /**
+     * Ctor.
+     * @param sh Shell to run tar in
+     * @param incl Relative paths of subtrees to transfer
+     * @param excl Glob patterns of paths to skip
+     * @param exec Executor for the other end of the pipe
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Tarball(final Shell sh, final Collection<String> incl,
+        final Collection<String> excl, final Executor exec) {
+        for (final String include : incl) {
+            final Path path = Paths.get(include);
+            if (path.isAbsolute() || path.normalize().startsWith("..")) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "Include must be inside of the directory: '%s'",
+                        include
+                    )
+                );
+            }
+        }
+        this.shell = sh;
+        this.includes = Collections.unmodifiableCollection(incl);
+        this.excludes = Collections.unmodifiableCollection(excl);
+        this.threads = exec;
+    }
+
+    /**
+     * Upload local directory into remote one (created, if absent).
+     * @param local Local directory
+     * @param remote Remote directory
+     * @throws IOException If fails
+     */
+    public void upload(final Path local, final String remote)
+        throws IOException {
+        final long start = System.currentTimeMillis();
+        final PipedInputStream stdin = new PipedInputStream(Tarball.PIPE);
+        final PipedOutputStream pipe = new PipedOutputStream(stdin);
+        final CompletableFuture<Void> writer = CompletableFuture.runAsync(
+            () -> {
+                try (OutputStream out = pipe) {
+                    this.pack(local, new TarOutput(out));
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            },
+            this.threads
+        );
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        final int code;
+        try {
+            code = this.shell.exec(
+                String.format(
+                    "mkdir -p %1$s && tar -x -p -f - -C %1$s",
+                    Ssh.escape(remote)
+                ),
+                stdin,
+                OutputStream.nullOutputStream(),
+                stderr
+            );
+        } finally {
+            stdin.close();
+        }
+        Tarball.check(code, remote, stderr, writer);
+        Logger.info(
+            this, "%s uploaded to %s in %[ms]s",
+            local, remote, System.currentTimeMillis() - start
+        );
+    }
+
+    /**
+     * Download remote directory into local one (created, if absent).
+     *
+     * <p>Entries that lead outside of the local directory, by their names
+     * or through symbolic links, are refused; so are links
+     * with absolute targets.</p>
+     *
+     * @param remote Remote directory
+     * @param local Local directory
+     * @throws IOException If fails
+     */
+    public void download(final String remote, final Path local)
+        throws IOException {
+        final long start = System.currentTimeMillis();
+        Files.createDirectories(local);
+        final PipedInputStream stdout = new PipedInputStream(Tarball.PIPE);
+        final PipedOutputStream pipe = new PipedOutputStream(stdout);
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        final CompletableFuture<Integer> exec = CompletableFuture.supplyAsync(
+            () -> {
+                try (OutputStream out = pipe) {
+                    return this.shell.exec(
+                        this.create(remote), new DeadInputStream(), out, stderr
+                    );
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            },
+            this.threads
+        );
+        final Tarball.Unpack unpack = new Tarball.Unpack(
+            local, this.matchers()
+        );
+        IOException broken = null;
+        try (InputStream input = stdout) {
+            new TarInput(input).read(unpack);
+        } catch (final IOException ex) {
+            broken = ex;
+        }
+        final int code;
+        try {
+            code = exec.join();
+        } catch (final CompletionException ex) {
+            final IOException error = new IOException(ex.getCause());
+            if (broken != null) {
+                error.addSuppressed(broken);
+            }
+            throw error;
+        }
+        if (broken != null) {
+            throw broken;
+        }
+        Tarball.check(
+            code, remote, stderr, CompletableFuture.completedFuture(null)
+        );
+        unpack.finish();
+        Logger.info(
+            this, "%s downloaded to %s in %[ms]s",
+            remote, local, System.currentTimeMillis() - start
+        );
+    }
+
+    /**
+     * Remote command to make a tar archive.
+     * @param remote Remote directory
+     * @return Command
+     */
+    private String create(final String remote) {
+        final StringBuilder cmd = new StringBuilder("tar -c -f -");
+        if (!this.excludes.isEmpty()) {
+            cmd.append(" --anchored --no-wildcards-match-slash");
+        }
+        for (final String exclude : this.excludes) {
+            for (final String glob : Tarball.expand(exclude)) {
+                cmd.append(" --exclude=").append(Ssh.escape(glob))
+                    .append(" --exclude=").append(Ssh.escape("./" + glob));
+            }
+        }
+        cmd.append(" -C ").append(Ssh.escape(remote));
+        for (final String include : this.includes) {
+            cmd.append(' ').append(Ssh.escape(include));
+        }
+        return cmd.toString();
+    }
+
+    /**
+     * Write local directory into the archive.
+     * @param local Local directory
+     * @param tar The archive
+     * @throws IOException If fails
+     */
+    private void pack(final Path local, final TarOutput tar)
+        throws IOException {
+        final List<PathMatcher> matchers = this.matchers();
+        for (final String include : this.includes) {
+            Files.walkFileTree(
+                local.resolve(include).normalize(),
+                new Tarball.Pack(local, tar, matchers)
+            );
+        }
+        tar.finish();
+    }
+
+    /**
+     * Matchers of excluded paths.
+     * @return Matchers
+     */
+    private List<PathMatcher> matchers() {
+        return this.excludes.stream()
+            .map(glob -> FileSystems.getDefault().getPathMatcher(
+                String.format("glob:%s", glob)
+            ))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Expand braces of the glob, which tar doesn't understand.
+     * @param glob The glob, like {@code "{*.log,**&#47;*.log}"}
+     * @return Globs without braces, like {@code "*.log"}
+     *  and {@code "**&#47;*.log"}
+     */
+    private static List<String> expand(final String glob) {
+        final int open = glob.indexOf('{');
+        final int close = glob.indexOf('}', open);
+        final List<String> globs = new ArrayList<>(1);
+        if (open < 0 || close < 0) {
+            globs.add(glob);
+        } else {
+            for (final String alt
+                : glob.substring(open + 1, close).split(",", -1)) {
+                globs.addAll(
+                    Tarball.expand(
+                        String.join(
+                            "", glob.substring(0, open), alt,
+                            glob.substring(close + 1)
+                        )
+                    )
+                );
+            }
+        }
+        return globs;
+    }
+
+    /**
+     * Throw if the command or the other end of the pipe failed.
+     * @param code Exit code of the command
+     * @param remote Remote directory
+     * @param stderr Stderr of the command
+     * @param other The other end of the pipe
+     * @throws IOException If failed
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static void check(final int code, final String remote,
+        final ByteArrayOutputStream stderr, final CompletableFuture<?> other)
+        throws IOException {
+        IOException error = null;
+        if (code != 0) {
+            error = new IOException(
+                String.format(
+                    "tar failed with exit code #%d in %s: %s",
+                    code, remote, stderr.toString(StandardCharsets.UTF_8)
+                )
+            );
+        }
+        try {
+            other.join();
+        } catch (final CompletionException ex) {
+            if (error == null) {
+                error = new IOException(ex.getCause());
+            } else {
+                error.addSuppressed(ex.getCause());
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Relative name with forward slashes.
+     * @param root Root directory
+     * @param path The path inside it
+     * @return Relative name
+     */
+    private static String name(final Path root, final Path path) {
+        final List<String> parts = new ArrayList<>(0);
+        for (final Path part : root.relativize(path)) {
+            parts.add(part.toString());
+        }
+        return String.join("/", parts);
+    }
+
+    /**
+     * Permissions of the file, as a number.
+     * @param path The file
+     * @param fallback Permissions to use if the file system is not POSIX
+     * @return Permissions, like 0644
+     * @throws IOException If fails
+     */
+    private static int mode(final Path path, final int fallback)
+        throws IOException {
+        int mode = 0;
+        try {
+            final Set<PosixFilePermission> perms = Files.getPosixFilePermissions(
+                path, LinkOption.NOFOLLOW_LINKS
+            );
+            for (final PosixFilePermission perm : perms) {
+                mode |= 1 << 8 - perm.ordinal();
+            }
+        } catch (final UnsupportedOperationException ex) {
+            mode = fallback;
+            if (Files.isExecutable(path)) {
+                mode |= 0111;
+            }
+        }
+        return mode;
+    }
+
+    /**
+     * Apply permissions to the file, if the file system is POSIX.
+     * @param path The file
+     * @param mode Permissions, like 0644
+     * @throws IOException If fails
+     */
+    private static void chmod(final Path path, final int mode)
+        throws IOException {
+        final Set<PosixFilePermission> perms =
+            EnumSet.noneOf(PosixFilePermission.class);
+        for (final PosixFilePermission perm : PosixFilePermission.values()) {
+            if ((mode & 1 << 8 - perm.ordinal()) != 0) {
+                perms.add(perm);
+            }
+        }
+        try {
+            Files.setPosixFilePermissions(path, perms);
+        } catch (final UnsupportedOperationException ex) {
+            Logger.debug(Tarball.class, "Can't chmod %s: %s", path, ex);
+        }
+    }
+
+    /**
+     * Walker of local files, which adds them to the archive.
+     * @since 2.0
+     */
+    private static final class Pack extends SimpleFileVisitor<Path> {
+
+        /**
+         * Root directory.
+         */
+        private final Path root;
+
+        /**
+         * The archive.
+         */
+        private final TarOutput tar;
+
+        /**
+         * Matchers of excluded paths.
+         */
+        private final List<PathMatcher> matchers;
+
+        /**
+         * Ctor.
+         * @param dir Root directory
+         * @param out The archive
+         * @param excl Matchers of excluded paths
+         */
+        Pack(final Path dir, final TarOutput out,
+            final List<PathMatcher> excl) {
+            super();
+            this.root = dir;
+            this.tar = out;
+            this.matchers = excl;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(final Path dir,
+            final BasicFileAttributes attrs) throws IOException {
+            FileVisitResult result = FileVisitResult.CONTINUE;
+            if (this.excluded(dir)) {
+                result = FileVisitResult.SKIP_SUBTREE;
+            } else if (!dir.equals(this.root)) {
+                this.tar.directory(
+                    Tarball.name(this.root, dir), Tarball.mode(dir, 0755),
+                    attrs.lastModifiedTime().to(TimeUnit.SECONDS)
+                );
+            }
+            return result;
+        }
+
+        @Override
+        public FileVisitResult visitFile(final Path file,
+            final BasicFileAttributes attrs) throws IOException {
+            if (!this.excluded(file)) {
+                final String name = Tarball.name(this.root, file);
+                final long mtime = attrs.lastModifiedTime().to(TimeUnit.SECONDS);
+                if (attrs.isSymbolicLink()) {
+                    this.tar.link(
+                        name, Files.readSymbolicLink(file).toString(), mtime
+                    );
+                } else if (attrs.isRegularFile()) {
+                    try (InputStream input = Files.newInputStream(file)) {
+                        this.tar.file(
+                            name, Tarball.mode(file, 0644), mtime,
+                            attrs.size(), input
+                        );
+                    }
+                }
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        /**
+         * Is it excluded?
+         * @param path The path
+         * @return TRUE if excluded
+         */
+        private boolean excluded(final Path path) {
+            final Path rel = this.root.relativize(path);
+            return this.matchers.stream().anyMatch(mtr -> mtr.matches(rel));
+        }
+    }
+
+    /**
+     * Receiver of tar entries, which writes them to local directory.
+     * @since 2.0
+     */
+    private static final class Unpack implements TarInput.Visitor {
+
+        /**
+         * Root directory.
+         */
+        private final Path root;
+
+        /**
+         * Directories, with their permissions and times, to be applied
+         * when all files are in place.
+         */
+        private final Map<Path, long[]> dirs;
+
+        /**
+         * Matchers of excluded paths.
+         */
+        private final List<PathMatcher> matchers;
+
+        /**
+         * Ctor.
+         * @param dir Root directory
+         * @param excl Matchers of excluded paths
+         */
+        Unpack(final Path dir, final List<PathMatcher> excl) {
+            this.root = dir.toAbsolutePath().normalize();
+            this.dirs = new LinkedHashMap<>(0);
+            this.matchers = excl;
+        }
+
+        @Override
+        public void directory(final String name, final int mode,
+            final long mtime) throws IOException {
+            if (!this.excluded(name)) {
+                final Path path = this.resolve(name);
+                this.mkdirs(path);
+                this.dirs.put(path, new long[] {mode, mtime});
+            }
+        }
+
+        @Override
+        public void link(final String name, final String target,
+            final long mtime) throws IOException {
+            if (!this.excluded(name)) {
+                final Path path = this.resolve(name);
+                final Path dest = Paths.get(target);
+                if (dest.isAbsolute()
+                    || !path.getParent().resolve(dest).normalize()
+                        .startsWith(this.root)) {
+                    throw new IOException(
+                        String.format(
+                            "Illegal link in tar archive: '%s' -> '%s'",
+                            name, target
+                        )
+                    );
+                }
+                this.mkdirs(path.getParent());
+                Files.deleteIfExists(path);
+                Files.createSymbolicLink(path, dest);
+            }
+        }
+
+        @Override
+        public void file(final String name, final int mode, final long mtime,
+            final InputStream content) throws IOException {
+            if (!this.excluded(name)) {
+                final Path path = this.resolve(name);
+                this.mkdirs(path.getParent());
+                Files.deleteIfExists(path);
+                try (OutputStream output = Files.newOutputStream(
+                    path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                    LinkOption.NOFOLLOW_LINKS
+                )) {
+                    content.transferTo(output);
+                }
+                Tarball.chmod(path, mode);
+                Files.setLastModifiedTime(path, FileTime.from(mtime, TimeUnit.SECONDS));
+            }
+        }
+
+        /**
+         * Apply permissions and times to directories, deepest first.
+         * @throws IOException If fails
+         */
+        void finish() throws IOException {
+            final List<Path> paths = new ArrayList<>(this.dirs.keySet());
+            Collections.reverse(paths);
+            for (final Path path : paths) {
+                if (!Files.isSymbolicLink(path)) {
+                    final long[] attrs = this.dirs.get(path);
+                    Tarball.chmod(path, (int) attrs[0]);
+                    Files.setLastModifiedTime(
+                        path, FileTime.from(attrs[1], TimeUnit.SECONDS)
+                    );
+                }
+            }
+        }
+
+        /**
+         * Resolve name inside the root, refusing to go outside of it.
+         * @param name Relative name from the archive
+         * @return Local path
+         * @throws IOException If the name points outside of the root
+         */
+        private Path resolve(final String name) throws IOException {
+            final Path path = this.root.resolve(name).normalize();
+            if (!path.startsWith(this.root) || path.equals(this.root)) {
+                throw new IOException(
+                    String.format("Illegal path in tar archive: '%s'", name)
+                );
+            }
+            return path;
+        }
+
+        /**
+         * Is it excluded, by itself or by one of its parents?
+         * @param name Relative name from the archive
+         * @return TRUE if excluded
+         */
+        private boolean excluded(final String name) {
+            boolean skip = false;
+            Path path = Paths.get(name).normalize();
+            while (path != null && !skip) {
+                final Path rel = path;
+                skip = this.matchers.stream().anyMatch(mtr -> mtr.matches(rel));
+                path = path.getParent();
+            }
+            return skip;
+        }
+
+        /**
+         * Make the directory, one level at a time, refusing to go
+         * through links that lead outside of the root.
+         * @param dir The directory, inside the root
+         * @throws IOException If fails or a link leads outside of the root
+         */
+        private void mkdirs(final Path dir) throws IOException {
+            final Path real = this.root.toRealPath();
+            Path current = this.root;
+            for (final Path part : this.root.relativize(dir)) {
+                current = current.resolve(part);
+                if (!Files.exists(current, LinkOption.NOFOLLOW_LINKS)) {
+                    Files.createDirectory(current);
+                } else if (!current.toRealPath().startsWith(real)) {
+                    throw new IOException(
+                        String.format(
+                            "Illegal path in tar archive, '%s' leads outside",
+                            this.root.relativize(current)
+                        )
+                    );
+                }
+            }
+        }
+    }
+}
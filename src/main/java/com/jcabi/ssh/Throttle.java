@@ -0,0 +1,437 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcraft.jsch.Session;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.UnknownHostException;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * SSH shell, which limits the number of commands running on a host
+ * at the same time and the rate of new sessions to it.
+ *
+ * <p>SSH servers refuse connections when too many of them arrive
+ * at once ({@code MaxStartups} of OpenSSH) and channels when too many
+ * are open ({@code MaxSessions}). This shell makes commands wait instead:
+ * when the host has the configured number of commands running, new
+ * ones wait in a queue, and new sessions are opened no faster than
+ * the configured number per second. Commands that get a session
+ * from a pool, without a handshake, don't wait for the rate, so put
+ * the throttle outside of {@link SshPool} ({@link Breaker} between
+ * them is fine, it lets pooled sessions through):</p>
+ *
+ * <pre> Shell bulk = new Throttle(
+ *   new SshPool(new Ssh("ssh.example.com", 22, "yegor", "...")), 16, 5
+ * );
+ * Shell health = bulk.with(Throttle.Priority.HIGH);</pre>
+ *
+ * <p>The queue of every host is shared by all throttles in the JVM
+ * with the same address and port, and so are the limits: the first
+ * throttle of the host sets them for the life of the JVM, and a throttle
+ * of the same host with other limits can't be made, its constructor
+ * throws {@link IllegalArgumentException}. Commands with higher priority are
+ * taken from the queue first, commands of the same priority are taken
+ * in the order they came. The time spent in the queue is reported
+ * to {@link Shell.Metered} as {@link Metrics.Phase#QUEUE}, and
+ * {@link #queued()} tells how many commands are waiting now.
+ * A command interrupted while waiting fails with
+ * {@link InterruptedIOException}. Don't put a throttle inside
+ * {@link SshPool}: sessions kept by the pool never give their slots
+ * back.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 2.0
+ */
+@ToString(of = { "origin", "priority" })
+@EqualsAndHashCode(
+    of = { "origin", "channels", "rate", "priority" }, callSuper = true
+)
+public final class Throttle extends AbstractSshShell {
+
+    /**
+     * Default maximum number of commands running on a host.
+     */
+    public static final int CHANNELS = 10;
+
+    /**
+     * Default maximum number of new sessions per second, the same as
+     * the start of the default {@code MaxStartups} of OpenSSH server.
+     */
+    public static final int HANDSHAKES = 10;
+
+    /**
+     * Hosts of this JVM, by "addr:port".
+     */
+    private static final ConcurrentMap<String, Throttle.Host> HOSTS =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Shell that makes sessions.
+     */
+    private final transient AbstractSshShell origin;
+
+    /**
+     * Maximum number of commands running on the host.
+     */
+    private final transient int channels;
+
+    /**
+     * Maximum number of new sessions per second.
+     */
+    private final transient int rate;
+
+    /**
+     * Priority of commands.
+     */
+    private final transient Throttle.Priority priority;
+
+    /**
+     * Constructor, with default limits.
+     * @param shell Shell that makes sessions
+     * @throws UnknownHostException If fails
+     */
+    public Throttle(final AbstractSshShell shell)
+        throws UnknownHostException {
+        this(shell, Throttle.CHANNELS, Throttle.HANDSHAKES);
+    }
+
+    /**
+     * Constructor.
+     * @param shell Shell that makes sessions
+     * @param max Maximum number of commands running on the host
+     * @param sessions Maximum number of new sessions per second
+     * @throws UnknownHostException If fails
+     */
+    public Throttle(final AbstractSshShell shell, final int max,
+        final int sessions) throws UnknownHostException {
+        this(shell, max, sessions, Throttle.Priority.NORMAL);
+    }
+
+    /**
+     * Constructor.
+     * @param shell Shell that makes sessions
+     * @param max Maximum number of commands running on the host
+     * @param sessions Maximum number of new sessions per second
+     * @param prio Priority of commands
+     * @throws UnknownHostException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Throttle(final AbstractSshShell shell, final int max,
+        final int sessions, final Throttle.Priority prio)
+        throws UnknownHostException {
+        super(shell.getAddr(), shell.getPort(), shell.getLogin());
+        if (max < 1 || sessions < 1) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Limits must be positive: %d commands, %d sessions/s",
+                    max, sessions
+                )
+            );
+        }
+        this.origin = shell;
+        this.channels = max;
+        this.rate = sessions;
+        this.priority = prio;
+        final Throttle.Host host = this.host();
+        if (!host.limits(max, sessions)) {
+            throw new IllegalArgumentException(
+                String.format(
+                    String.join(
+                        "",
+                        "Limits of %s:%d are %s already, ",
+                        "can't make them %d commands, %d sessions/s"
+                    ),
+                    this.getAddr(), this.getPort(), host, max, sessions
+                )
+            );
+        }
+    }
+
+    /**
+     * The same throttle, with another priority of commands.
+     * @param prio Priority
+     * @return New throttle, sharing the queue of the host with this one
+     * @throws UnknownHostException If fails
+     */
+    public Throttle with(final Throttle.Priority prio)
+        throws UnknownHostException {
+        return new Throttle(this.origin, this.channels, this.rate, prio);
+    }
+
+    /**
+     * Number of commands waiting in the queue of the host now.
+     * @return Total, for all throttles of the host
+     */
+    public int queued() {
+        return this.host().queued();
+    }
+
+    /**
+     * Number of commands running on the host now.
+     * @return Total, for all throttles of the host
+     */
+    public int active() {
+        return this.host().active();
+    }
+
+    // @checkstyle ProtectedMethodInFinalClassCheck (3 lines)
+    @Override
+    protected Session session() throws IOException {
+        return this.session(Probe.NONE);
+    }
+
+    // @checkstyle ProtectedMethodInFinalClassCheck (3 lines)
+    @Override
+    protected void release(final Session session) {
+        try {
+            this.origin.release(session);
+        } finally {
+            this.host().leave();
+        }
+    }
+
+    @Override
+    Session session(final Probe probe) throws IOException {
+        final Throttle.Host host = this.host();
+        final long start = System.nanoTime();
+        try {
+            host.enter(this.priority);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw Throttle.interrupted(ex);
+        }
+        probe.since(Metrics.Phase.QUEUE, start);
+        try {
+            Session session = this.origin.idle();
+            if (session == null) {
+                TimeUnit.NANOSECONDS.sleep(host.reserve());
+                session = this.origin.session(probe);
+            }
+            return session;
+        } catch (final InterruptedException ex) {
+            host.leave();
+            Thread.currentThread().interrupt();
+            throw Throttle.interrupted(ex);
+        } catch (final IOException | RuntimeException ex) {
+            host.leave();
+            throw ex;
+        }
+    }
+
+    /**
+     * Queue of the host.
+     * @return The queue, shared
+     */
+    private Throttle.Host host() {
+        return Throttle.HOSTS.computeIfAbsent(
+            String.format("%s:%d", this.getAddr(), this.getPort()),
+            key -> new Throttle.Host(this.channels, this.rate)
+        );
+    }
+
+    /**
+     * Exception about the interruption.
+     * @param cause The cause
+     * @return Exception to throw
+     */
+    private static InterruptedIOException interrupted(
+        final InterruptedException cause) {
+        final InterruptedIOException ex = new InterruptedIOException(
+            "Interrupted while waiting for the host"
+        );
+        ex.initCause(cause);
+        return ex;
+    }
+
+    /**
+     * Priority of commands in the queue of a host.
+     *
+     * @since 2.0
+     */
+    public enum Priority {
+        /**
+         * Interactive commands and health checks.
+         */
+        HIGH,
+
+        /**
+         * Usual commands.
+         */
+        NORMAL,
+
+        /**
+         * Bulk jobs, which may wait.
+         */
+        LOW
+    }
+
+    /**
+     * Queue of one host.
+     *
+     * @since 2.0
+     */
+    private static final class Host {
+
+        /**
+         * Maximum number of commands running.
+         */
+        private final int max;
+
+        /**
+         * Maximum number of new sessions per second.
+         */
+        private final int rate;
+
+        /**
+         * Commands waiting, in the order of their turns.
+         */
+        private final Queue<Throttle.Ticket> waiting = new PriorityQueue<>(
+            Comparator.comparing((Throttle.Ticket tkt) -> tkt.priority)
+                .thenComparingLong(tkt -> tkt.number)
+        );
+
+        /**
+         * Number of the next ticket.
+         */
+        private long tickets;
+
+        /**
+         * Commands running.
+         */
+        private int running;
+
+        /**
+         * When the next session may be opened, as in
+         * {@link System#nanoTime()}.
+         */
+        private long next = System.nanoTime();
+
+        /**
+         * Ctor.
+         * @param channels Maximum number of commands running
+         * @param sessions Maximum number of new sessions per second
+         */
+        Host(final int channels, final int sessions) {
+            this.max = channels;
+            this.rate = sessions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%d commands, %d sessions/s", this.max, this.rate
+            );
+        }
+
+        /**
+         * Are these the limits of the host?
+         * @param channels Maximum number of commands running
+         * @param sessions Maximum number of new sessions per second
+         * @return TRUE if they are
+         */
+        boolean limits(final int channels, final int sessions) {
+            return this.max == channels && this.rate == sessions;
+        }
+
+        /**
+         * Wait for the turn and take a slot.
+         * @param prio Priority of the command
+         * @throws InterruptedException If interrupted
+         */
+        synchronized void enter(final Throttle.Priority prio)
+            throws InterruptedException {
+            final Throttle.Ticket ticket = new Throttle.Ticket(
+                prio, this.tickets
+            );
+            ++this.tickets;
+            this.waiting.add(ticket);
+            try {
+                while (this.waiting.peek() != ticket || this.running >= this.max) {
+                    this.wait();
+                }
+            } catch (final InterruptedException ex) {
+                this.waiting.remove(ticket);
+                this.notifyAll();
+                throw ex;
+            }
+            this.waiting.remove();
+            ++this.running;
+            this.notifyAll();
+        }
+
+        /**
+         * Give the slot back.
+         */
+        synchronized void leave() {
+            --this.running;
+            this.notifyAll();
+        }
+
+        /**
+         * Reserve the time to open a new session.
+         * @return How long to wait for it, in nanoseconds
+         */
+        synchronized long reserve() {
+            final long now = System.nanoTime();
+            final long slot = Math.max(now, this.next);
+            this.next = slot + TimeUnit.SECONDS.toNanos(1L) / this.rate;
+            return slot - now;
+        }
+
+        /**
+         * Commands waiting.
+         * @return Total
+         */
+        synchronized int queued() {
+            return this.waiting.size();
+        }
+
+        /**
+         * Commands running.
+         * @return Total
+         */
+        synchronized int active() {
+            return this.running;
+        }
+    }
+
+    /**
+     * Turn of a command in the queue.
+     *
+     * @since 2.0
+     */
+    private static final class Ticket {
+
+        /**
+         * Priority.
+         */
+        private final Throttle.Priority priority;
+
+        /**
+         * Number, in the order of arrival.
+         */
+        private final long number;
+
+        /**
+         * Ctor.
+         * @param prio Priority
+         * @param num Number
+         */
+        Ticket(final Throttle.Priority prio, final long num) {
+            this.priority = prio;
+            this.number = num;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.Closeable;
+
+/**
+ * Port forwarding, made by {@link Tunnels}.
+ *
+ * <p>The forwarding stays open until it is closed, or until
+ * the {@link Tunnels} it belongs to is closed.</p>
+ *
+ * @since 2.0
+ */
+public interface Tunnel extends Closeable {
+
+    /**
+     * Port, which is listened to: the local one for local and
+     * dynamic forwarding, the remote one for remote forwarding.
+     * @return Port number
+     */
+    int port();
+}
@@ -0,0 +1,645 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.log.Logger;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Pool of port forwardings through one SSH session.
+ *
+ * <pre> try (Tunnels tunnels = new Tunnels(
+ *   new Ssh("bastion.example.com", 22, "yegor", "...")
+ * )) {
+ *   Tunnel db = tunnels.local("db.internal", 5432);
+ *   Connection conn = DriverManager.getConnection(
+ *     String.format("jdbc:postgresql://127.0.0.1:%d/app", db.port())
+ *   );
+ *   Tunnel socks = tunnels.socks();
+ *   // use 127.0.0.1:socks.port() as a SOCKS5 proxy
+ * }</pre>
+ *
+ * <p>All forwardings share one session, taken from the shell when
+ * the first one is made. The session is checked periodically and,
+ * if it is not connected anymore, a new one is opened and all forwardings
+ * are made again, with the same ports. A forwarding that can't be made
+ * again, for example because its port is taken by now, is tried again
+ * with every check, until it is made or closed. Local and dynamic
+ * forwardings listen on the loopback interface only.</p>
+ *
+ * <p>Sessions are opened and forwardings are made one at a time,
+ * but without blocking {@link #close()}, {@link #size()} and connections
+ * through the live session.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 2.0
+ */
+@ToString(of = "shell")
+@EqualsAndHashCode(of = "shell")
+public final class Tunnels implements Closeable {
+
+    /**
+     * Loopback address.
+     */
+    private static final String LOOPBACK = "127.0.0.1";
+
+    /**
+     * Shell that makes sessions.
+     */
+    private final transient AbstractSshShell shell;
+
+    /**
+     * How often to check the session, in milliseconds.
+     */
+    private final transient long period;
+
+    /**
+     * Forwardings, alive.
+     */
+    private final transient List<Tunnels.Forward> forwards;
+
+    /**
+     * Forwardings, which are not made in the current session.
+     */
+    private final transient List<Tunnels.Forward> unbound;
+
+    /**
+     * Lock, for opening sessions and making forwardings.
+     */
+    private final transient Object opening;
+
+    /**
+     * The session, or NULL if not opened yet.
+     */
+    private transient Session session;
+
+    /**
+     * How many times it was closed.
+     */
+    private transient int closes;
+
+    /**
+     * Checker of the session, or NULL if not started yet.
+     */
+    private transient ScheduledThreadPoolExecutor keeper;
+
+    /**
+     * Ctor, which checks the session every five seconds.
+     * @param sh Shell that makes sessions
+     */
+    public Tunnels(final AbstractSshShell sh) {
+        this(sh, 5L, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Ctor.
+     * @param sh Shell that makes sessions
+     * @param time How often to check the session
+     * @param unit Unit of time
+     */
+    public Tunnels(final AbstractSshShell sh, final long time,
+        final TimeUnit unit) {
+        this.shell = sh;
+        this.period = unit.toMillis(time);
+        this.forwards = new ArrayList<>(0);
+        this.unbound = new ArrayList<>(0);
+        this.opening = new Object();
+    }
+
+    /**
+     * Forward a free local port to the host and port, as seen from
+     * the server, like {@code ssh -L}.
+     * @param host Host to connect to, from the server
+     * @param port Port to connect to
+     * @return Tunnel, with the local port
+     * @throws IOException If fails
+     */
+    public Tunnel local(final String host, final int port) throws IOException {
+        return this.local(0, host, port);
+    }
+
+    /**
+     * Forward the local port to the host and port, as seen from
+     * the server, like {@code ssh -L}.
+     * @param lport Local port, or zero to take a free one
+     * @param host Host to connect to, from the server
+     * @param port Port to connect to
+     * @return Tunnel, with the local port
+     * @throws IOException If fails
+     */
+    public Tunnel local(final int lport, final String host, final int port)
+        throws IOException {
+        return this.add(new Tunnels.Local(this, lport, host, port));
+    }
+
+    /**
+     * Forward the port of the server to the host and port, as seen from
+     * here, like {@code ssh -R}.
+     * @param rport Port of the server, must be positive
+     * @param host Host to connect to, from here
+     * @param port Port to connect to
+     * @return Tunnel, with the port of the server
+     * @throws IOException If fails
+     */
+    public Tunnel remote(final int rport, final String host, final int port)
+        throws IOException {
+        if (rport <= 0) {
+            throw new IllegalArgumentException(
+                String.format("Remote port must be positive: %d", rport)
+            );
+        }
+        return this.add(new Tunnels.Remote(this, rport, host, port));
+    }
+
+    /**
+     * Dynamic forwarding through a SOCKS5 proxy on a free local port,
+     * like {@code ssh -D}.
+     * @return Tunnel, with the local port of the proxy
+     * @throws IOException If fails
+     */
+    public Tunnel socks() throws IOException {
+        return this.socks(0);
+    }
+
+    /**
+     * Dynamic forwarding through a SOCKS5 proxy on the local port,
+     * like {@code ssh -D}.
+     * @param lport Local port, or zero to take a free one
+     * @return Tunnel, with the local port of the proxy
+     * @throws IOException If fails
+     */
+    public Tunnel socks(final int lport) throws IOException {
+        final Socks socks = new Socks(this::current, Tunnels.LOOPBACK, lport);
+        socks.start();
+        return this.add(new Tunnels.Dynamic(this, socks));
+    }
+
+    /**
+     * Number of forwardings open.
+     * @return Total
+     */
+    public int size() {
+        synchronized (this.forwards) {
+            return this.forwards.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this.forwards) {
+            if (this.keeper != null) {
+                this.keeper.shutdownNow();
+                this.keeper = null;
+            }
+            for (final Tunnels.Forward fwd : new ArrayList<>(this.forwards)) {
+                fwd.close();
+            }
+            ++this.closes;
+            if (this.session != null) {
+                this.shell.release(this.session);
+                this.session = null;
+            }
+        }
+    }
+
+    /**
+     * Make the forwarding and keep it.
+     * @param fwd The forwarding
+     * @return The same
+     * @throws IOException If fails
+     */
+    private Tunnel add(final Tunnels.Forward fwd) throws IOException {
+        synchronized (this.opening) {
+            try {
+                fwd.bind(this.current());
+            } catch (final JSchException ex) {
+                fwd.close();
+                throw new IOException(
+                    String.format("Can't forward %s", fwd), ex
+                );
+            } catch (final IOException ex) {
+                fwd.close();
+                throw ex;
+            }
+            synchronized (this.forwards) {
+                this.forwards.add(fwd);
+                if (this.keeper == null) {
+                    this.keeper = new ScheduledThreadPoolExecutor(
+                        1,
+                        task -> {
+                            final Thread thread = new Thread(
+                                task, "jcabi-ssh-tunnels"
+                            );
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    );
+                    this.keeper.scheduleWithFixedDelay(
+                        this::heal, this.period, this.period,
+                        TimeUnit.MILLISECONDS
+                    );
+                }
+            }
+            Logger.info(this, "Forwarding %s", fwd);
+            return fwd;
+        }
+    }
+
+    /**
+     * Forget the forwarding and undo it.
+     * @param fwd The forwarding
+     */
+    private void drop(final Tunnels.Forward fwd) {
+        Session live = null;
+        synchronized (this.forwards) {
+            this.unbound.remove(fwd);
+            if (this.forwards.remove(fwd) && this.session != null
+                && this.session.isConnected()) {
+                live = this.session;
+            }
+        }
+        if (live != null) {
+            this.undo(fwd, live);
+        }
+    }
+
+    /**
+     * Undo the forwarding in the session.
+     * @param fwd The forwarding
+     * @param sess The session
+     */
+    private void undo(final Tunnels.Forward fwd, final Session sess) {
+        try {
+            fwd.unbind(sess);
+        } catch (final JSchException ex) {
+            Logger.warn(
+                this, "Can't stop forwarding %s: %s", fwd, ex.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Check the session, make a new one if it is dead, and make
+     * the forwardings that are not made yet.
+     */
+    private void heal() {
+        if (this.size() > 0) {
+            synchronized (this.opening) {
+                try {
+                    this.restore(this.current());
+                } catch (final IOException ex) {
+                    Logger.warn(
+                        this, "Can't restore %d forwarding(s) to %s: %s",
+                        this.size(), this.shell, ex.getMessage()
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Current session, connected, with all forwardings made.
+     * @return The session
+     * @throws IOException If fails
+     */
+    private Session current() throws IOException {
+        Session live = this.live();
+        if (live == null) {
+            synchronized (this.opening) {
+                live = this.live();
+                if (live == null) {
+                    live = this.reopen();
+                }
+            }
+        }
+        return live;
+    }
+
+    /**
+     * The session, if it is connected.
+     * @return The session or NULL
+     */
+    private Session live() {
+        synchronized (this.forwards) {
+            Session live = null;
+            if (this.session != null && this.session.isConnected()) {
+                live = this.session;
+            }
+            return live;
+        }
+    }
+
+    /**
+     * Open a new session instead of the dead one and make all
+     * forwardings in it.
+     *
+     * <p>The session is opened without holding {@link #forwards}, so
+     * other threads may use them meanwhile; only one thread, which holds
+     * {@link #opening}, may call this method.</p>
+     *
+     * @return The session
+     * @throws IOException If fails
+     */
+    private Session reopen() throws IOException {
+        final Session stale;
+        final int before;
+        synchronized (this.forwards) {
+            stale = this.session;
+            this.session = null;
+            before = this.closes;
+        }
+        if (stale != null) {
+            this.shell.release(stale);
+            Logger.warn(
+                this, "Session is lost, restoring %d forwarding(s)",
+                this.size()
+            );
+        }
+        final Session fresh = this.shell.session();
+        final boolean open;
+        synchronized (this.forwards) {
+            open = this.closes == before;
+            if (open) {
+                this.session = fresh;
+                this.unbound.clear();
+                this.unbound.addAll(this.forwards);
+            }
+        }
+        if (!open) {
+            this.shell.release(fresh);
+            throw new IOException(
+                String.format("Tunnels to %s were closed", this.shell)
+            );
+        }
+        this.restore(fresh);
+        return fresh;
+    }
+
+    /**
+     * Make forwardings, which are not made yet, in the session.
+     * @param sess The session
+     */
+    private void restore(final Session sess) {
+        final List<Tunnels.Forward> todo;
+        synchronized (this.forwards) {
+            todo = new ArrayList<>(this.unbound);
+        }
+        for (final Tunnels.Forward fwd : todo) {
+            boolean bound = false;
+            try {
+                fwd.bind(sess);
+                bound = true;
+            } catch (final JSchException ex) {
+                Logger.warn(
+                    this, "Can't restore forwarding %s: %s",
+                    fwd, ex.getMessage()
+                );
+            }
+            if (bound) {
+                final boolean kept;
+                synchronized (this.forwards) {
+                    kept = this.unbound.remove(fwd);
+                }
+                if (kept) {
+                    Logger.info(this, "Forwarding %s restored", fwd);
+                } else {
+                    this.undo(fwd, sess);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forwarding in the pool.
+     * @since 2.0
+     */
+    private interface Forward extends Tunnel {
+
+        /**
+         * Make it in the session.
+         * @param sess The session
+         * @throws JSchException If fails
+         */
+        void bind(Session sess) throws JSchException;
+
+        /**
+         * Undo it in the session.
+         * @param sess The session
+         * @throws JSchException If fails
+         */
+        void unbind(Session sess) throws JSchException;
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Local forwarding.
+     * @since 2.0
+     */
+    private static final class Local implements Tunnels.Forward {
+
+        /**
+         * The pool.
+         */
+        private final Tunnels pool;
+
+        /**
+         * Remote host.
+         */
+        private final String host;
+
+        /**
+         * Remote port.
+         */
+        private final int rport;
+
+        /**
+         * Local port, or zero until it is bound.
+         */
+        private volatile int lport;
+
+        /**
+         * Ctor.
+         * @param tunnels The pool
+         * @param local Local port, or zero
+         * @param addr Remote host
+         * @param port Remote port
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Local(final Tunnels tunnels, final int local, final String addr,
+            final int port) {
+            this.pool = tunnels;
+            this.lport = local;
+            this.host = addr;
+            this.rport = port;
+        }
+
+        @Override
+        public int port() {
+            return this.lport;
+        }
+
+        @Override
+        public void bind(final Session sess) throws JSchException {
+            this.lport = sess.setPortForwardingL(
+                Tunnels.LOOPBACK, this.lport, this.host, this.rport
+            );
+        }
+
+        @Override
+        public void unbind(final Session sess) throws JSchException {
+            sess.delPortForwardingL(Tunnels.LOOPBACK, this.lport);
+        }
+
+        @Override
+        public void close() {
+            this.pool.drop(this);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "L %s:%d -> %s:%d",
+                Tunnels.LOOPBACK, this.lport, this.host, this.rport
+            );
+        }
+    }
+
+    /**
+     * Remote forwarding.
+     * @since 2.0
+     */
+    private static final class Remote implements Tunnels.Forward {
+
+        /**
+         * The pool.
+         */
+        private final Tunnels pool;
+
+        /**
+         * Port of the server.
+         */
+        private final int rport;
+
+        /**
+         * Local host.
+         */
+        private final String host;
+
+        /**
+         * Local port.
+         */
+        private final int lport;
+
+        /**
+         * Ctor.
+         * @param tunnels The pool
+         * @param remote Port of the server
+         * @param addr Local host
+         * @param port Local port
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Remote(final Tunnels tunnels, final int remote, final String addr,
+            final int port) {
+            this.pool = tunnels;
+            this.rport = remote;
+            this.host = addr;
+            this.lport = port;
+        }
+
+        @Override
+        public int port() {
+            return this.rport;
+        }
+
+        @Override
+        public void bind(final Session sess) throws JSchException {
+            sess.setPortForwardingR(this.rport, this.host, this.lport);
+        }
+
+        @Override
+        public void unbind(final Session sess) throws JSchException {
+            sess.delPortForwardingR(this.rport);
+        }
+
+        @Override
+        public void close() {
+            this.pool.drop(this);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "R %d -> %s:%d", this.rport, this.host, this.lport
+            );
+        }
+    }
+
+    /**
+     * Dynamic forwarding.
+     * @since 2.0
+     */
+    private static final class Dynamic implements Tunnels.Forward {
+
+        /**
+         * The pool.
+         */
+        private final Tunnels pool;
+
+        /**
+         * The proxy.
+         */
+        private final Socks socks;
+
+        /**
+         * Ctor.
+         * @param tunnels The pool
+         * @param proxy The proxy, started
+         */
+        Dynamic(final Tunnels tunnels, final Socks proxy) {
+            this.pool = tunnels;
+            this.socks = proxy;
+        }
+
+        @Override
+        public int port() {
+            return this.socks.port();
+        }
+
+        @Override
+        public void bind(final Session sess) {
+            // the proxy takes the current session for every connection
+        }
+
+        @Override
+        public void unbind(final Session sess) {
+            // nothing to undo in the session
+        }
+
+        @Override
+        public void close() {
+            this.pool.drop(this);
+            this.socks.close();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "D %s:%d", Tunnels.LOOPBACK, this.socks.port()
+            );
+        }
+    }
+}
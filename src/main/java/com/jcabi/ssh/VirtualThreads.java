@@ -0,0 +1,67 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Executor that starts a new virtual thread for every task.
+ *
+ * <p>Virtual threads are available only in Java 21+. On an earlier
+ * JVM every task gets a daemon platform thread from a cached pool.
+ * All instances share the same underlying executor.</p>
+ *
+ * @since 2.0
+ */
+@ToString
+@EqualsAndHashCode
+final class VirtualThreads implements Executor {
+
+    @Override
+    public void execute(final Runnable task) {
+        VirtualThreads.Holder.EXECUTOR.execute(task);
+    }
+
+    /**
+     * Lazy holder of the shared executor.
+     * @since 2.0
+     */
+    private static final class Holder {
+
+        /**
+         * The executor.
+         */
+        private static final ExecutorService EXECUTOR =
+            VirtualThreads.Holder.make();
+
+        /**
+         * Make an executor.
+         * @return Executor with virtual threads, if possible
+         */
+        private static ExecutorService make() {
+            ExecutorService svc;
+            try {
+                svc = ExecutorService.class.cast(
+                    Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null)
+                );
+            } catch (final ReflectiveOperationException ex) {
+                svc = Executors.newCachedThreadPool(
+                    task -> {
+                        final Thread thread = new Thread(task, "jcabi-ssh");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                );
+            }
+            return svc;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh.mock;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Answer of an embedded SSH server to a command.
+ *
+ * <p>The signature is the same as of {@link com.jcabi.ssh.Shell}, so any
+ * shell may be an answer, like {@code new Shell.Fake(0, "ok", "")::exec}.
+ * Streams are flushed and closed by the server after the answer.</p>
+ *
+ * @since 2.0
+ */
+@FunctionalInterface
+public interface MkAnswer {
+
+    /**
+     * Answer the command.
+     * @param command The command
+     * @param stdin Stdin of the client
+     * @param stdout Stdout to the client
+     * @param stderr Stderr to the client
+     * @return Exit code
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    int exec(String command, InputStream stdin, OutputStream stdout,
+        OutputStream stderr) throws IOException;
+
+    /**
+     * Prints the command back.
+     *
+     * @since 2.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    final class Echo implements MkAnswer {
+        @Override
+        public int exec(final String command, final InputStream stdin,
+            final OutputStream stdout, final OutputStream stderr)
+            throws IOException {
+            stdout.write(command.getBytes(StandardCharsets.UTF_8));
+            return 0;
+        }
+    }
+
+    /**
+     * Prints fixed output and exits with a fixed code.
+     *
+     * @since 2.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    final class Fixed implements MkAnswer {
+
+        /**
+         * Exit code.
+         */
+        private final transient int code;
+
+        /**
+         * Stdout.
+         */
+        private final transient String out;
+
+        /**
+         * Stderr.
+         */
+        private final transient String err;
+
+        /**
+         * Ctor.
+         * @param exit Exit code
+         */
+        public Fixed(final int exit) {
+            this(exit, "", "");
+        }
+
+        /**
+         * Ctor.
+         * @param exit Exit code
+         * @param stdout Stdout
+         * @param stderr Stderr
+         */
+        public Fixed(final int exit, final String stdout,
+            final String stderr) {
+            this.code = exit;
+            this.out = stdout;
+            this.err = stderr;
+        }
+
+        @Override
+        public int exec(final String command, final InputStream stdin,
+            final OutputStream stdout, final OutputStream stderr)
+            throws IOException {
+            stdout.write(this.out.getBytes(StandardCharsets.UTF_8));
+            stderr.write(this.err.getBytes(StandardCharsets.UTF_8));
+            return this.code;
+        }
+    }
+
+    /**
+     * Prints the given number of bytes, generated on the fly.
+     *
+     * @since 2.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    final class Bytes implements MkAnswer {
+
+        /**
+         * How many bytes to print.
+         */
+        private final transient long total;
+
+        /**
+         * Ctor.
+         * @param bytes How many bytes to print
+         */
+        public Bytes(final long bytes) {
+            this.total = bytes;
+        }
+
+        @Override
+        public int exec(final String command, final InputStream stdin,
+            final OutputStream stdout, final OutputStream stderr)
+            throws IOException {
+            final byte[] chunk = new byte[1 << 16];
+            Arrays.fill(chunk, (byte) 'x');
+            long left = this.total;
+            while (left > 0L) {
+                final int len = (int) Math.min(left, chunk.length);
+                stdout.write(chunk, 0, len);
+                left -= len;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Reads stdin to the end and prints the number of bytes read.
+     *
+     * @since 2.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    final class Consume implements MkAnswer {
+        @Override
+        public int exec(final String command, final InputStream stdin,
+            final OutputStream stdout, final OutputStream stderr)
+            throws IOException {
+            final byte[] buf = new byte[1 << 16];
+            long total = 0L;
+            while (true) {
+                final int len = stdin.read(buf);
+                if (len < 0) {
+                    break;
+                }
+                total += len;
+            }
+            stdout.write(Long.toString(total).getBytes(StandardCharsets.UTF_8));
+            return 0;
+        }
+    }
+
+    /**
+     * Waits before answering.
+     *
+     * @since 2.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    final class Slow implements MkAnswer {
+
+        /**
+         * Original answer.
+         */
+        private final transient MkAnswer origin;
+
+        /**
+         * Milliseconds to wait.
+         */
+        private final transient long msec;
+
+        /**
+         * Ctor.
+         * @param answer Original answer
+         * @param time How long to wait
+         * @param unit Unit of time
+         */
+        public Slow(final MkAnswer answer, final long time,
+            final TimeUnit unit) {
+            this.origin = answer;
+            this.msec = unit.toMillis(time);
+        }
+
+        @Override
+        public int exec(final String command, final InputStream stdin,
+            final OutputStream stdout, final OutputStream stderr)
+            throws IOException {
+            try {
+                Thread.sleep(this.msec);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(ex.getMessage());
+            }
+            return this.origin.exec(command, stdin, stdout, stderr);
+        }
+    }
+
+    /**
+     * Answers according to the command, like a tiny shell.
+     *
+     * <p>It understands {@code bytes N} (prints N bytes),
+     * {@code consume} (reads stdin and prints how many bytes were read),
+     * {@code sleep MS} (waits MS milliseconds) and {@code exit N}
+     * (exits with the code N); anything else is printed back.</p>
+     *
+     * @since 2.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    final class Script implements MkAnswer {
+        @Override
+        public int exec(final String command, final InputStream stdin,
+            final OutputStream stdout, final OutputStream stderr)
+            throws IOException {
+            final String[] parts = command.trim().split("\\s+", 2);
+            final MkAnswer answer;
+            if (parts.length == 2 && "bytes".equals(parts[0])) {
+                answer = new MkAnswer.Bytes(Long.parseLong(parts[1]));
+            } else if (parts.length == 2 && "sleep".equals(parts[0])) {
+                answer = new MkAnswer.Slow(
+                    new MkAnswer.Fixed(0), Long.parseLong(parts[1]),
+                    TimeUnit.MILLISECONDS
+                );
+            } else if (parts.length == 2 && "exit".equals(parts[0])) {
+                answer = new MkAnswer.Fixed(Integer.parseInt(parts[1]));
+            } else if ("consume".equals(command.trim())) {
+                answer = new MkAnswer.Consume();
+            } else {
+                answer = new MkAnswer.Echo();
+            }
+            return answer.exec(command, stdin, stdout, stderr);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh.mock;
+
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.apache.sshd.server.Environment;
+import org.apache.sshd.server.ExitCallback;
+import org.apache.sshd.server.channel.ChannelSession;
+import org.apache.sshd.server.command.Command;
+
+/**
+ * Command of an embedded SSH server, which runs the answer.
+ *
+ * <p>The answer works in a thread of the executor, in order not to block
+ * the IO threads of the server. When the channel is closed by the client,
+ * the thread is interrupted.</p>
+ *
+ * @since 2.0
+ */
+public final class MkCommand implements Command {
+
+    /**
+     * Command being executed.
+     */
+    private final transient String command;
+
+    /**
+     * The answer.
+     */
+    private final transient MkAnswer answer;
+
+    /**
+     * Where to run it.
+     */
+    private final transient ExecutorService threads;
+
+    /**
+     * Exit callback.
+     */
+    private transient ExitCallback callback;
+
+    /**
+     * Stdin.
+     */
+    private transient InputStream input;
+
+    /**
+     * Stdout.
+     */
+    private transient OutputStream output;
+
+    /**
+     * Stderr.
+     */
+    private transient OutputStream error;
+
+    /**
+     * Running answer, or NULL if not started.
+     */
+    private transient Future<?> running;
+
+    /**
+     * Constructor.
+     * @param cmd Command to run
+     * @param ans The answer
+     * @param exec Where to run it
+     */
+    public MkCommand(final String cmd, final MkAnswer ans,
+        final ExecutorService exec) {
+        this.command = cmd;
+        this.answer = ans;
+        this.threads = exec;
+    }
+
+    @Override
+    public void setInputStream(final InputStream stream) {
+        this.input = stream;
+    }
+
+    @Override
+    public void setOutputStream(final OutputStream stream) {
+        this.output = stream;
+    }
+
+    @Override
+    public void setErrorStream(final OutputStream stream) {
+        this.error = stream;
+    }
+
+    @Override
+    public void setExitCallback(final ExitCallback cllbck) {
+        this.callback = cllbck;
+    }
+
+    @Override
+    public void start(final ChannelSession session, final Environment env) {
+        Logger.debug(this, "#start(): starting '%s'", this.command);
+        synchronized (this) {
+            this.running = this.threads.submit(this::run);
+        }
+    }
+
+    @Override
+    public void destroy(final ChannelSession session) {
+        synchronized (this) {
+            if (this.running != null) {
+                this.running.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Run the answer and report the exit code.
+     */
+    private void run() {
+        int code;
+        String msg = "";
+        try {
+            code = this.answer.exec(
+                this.command, this.input, this.output, this.error
+            );
+            this.output.close();
+            this.error.close();
+        } catch (final IOException | RuntimeException ex) {
+            Logger.debug(
+                this, "#run(): '%s' failed: %s", this.command, ex.getMessage()
+            );
+            code = 1;
+            msg = String.valueOf(ex.getMessage());
+        }
+        this.callback.onExit(code, msg);
+    }
+}
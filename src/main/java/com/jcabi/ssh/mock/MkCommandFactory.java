@@ -0,0 +1,77 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh.mock;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.sshd.server.channel.ChannelSession;
+import org.apache.sshd.server.command.Command;
+import org.apache.sshd.server.command.CommandFactory;
+
+/**
+ * Factory of commands, which all run the same answer.
+ *
+ * <p>Set it to any Apache SSHD server:</p>
+ *
+ * <pre> sshd.setCommandFactory(new MkCommandFactory(new MkAnswer.Script()));
+ * </pre>
+ *
+ * @since 2.0
+ */
+public final class MkCommandFactory implements CommandFactory {
+
+    /**
+     * Threads of all commands without their own executor.
+     */
+    private static final ExecutorService THREADS =
+        Executors.newCachedThreadPool(
+            task -> {
+                final Thread thread = new Thread(task, "jcabi-ssh-mock");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+
+    /**
+     * The answer.
+     */
+    private final transient MkAnswer answer;
+
+    /**
+     * Where to run commands.
+     */
+    private final transient ExecutorService threads;
+
+    /**
+     * Ctor, which echoes commands back.
+     */
+    public MkCommandFactory() {
+        this(new MkAnswer.Echo());
+    }
+
+    /**
+     * Ctor.
+     * @param ans The answer
+     */
+    public MkCommandFactory(final MkAnswer ans) {
+        this(ans, MkCommandFactory.THREADS);
+    }
+
+    /**
+     * Ctor.
+     * @param ans The answer
+     * @param exec Where to run commands
+     */
+    public MkCommandFactory(final MkAnswer ans, final ExecutorService exec) {
+        this.answer = ans;
+        this.threads = exec;
+    }
+
+    @Override
+    public Command createCommand(final ChannelSession session,
+        final String cmd) {
+        return new MkCommand(cmd, this.answer, this.threads);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh.mock;
+
+import com.jcabi.log.Logger;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Many embedded SSH servers, each on its own port, to load-test
+ * connections to a fleet of hosts from one machine.
+ *
+ * <pre> try (MkFleet fleet = new MkFleet(500, new MkAnswer.Script()).start()) {
+ *   for (MkServer server : fleet.servers()) {
+ *     new Shell.Plain(server.shell()).exec("sleep 100");
+ *   }
+ * }</pre>
+ *
+ * <p>If one of the servers fails to start, the ones already started
+ * are stopped.</p>
+ *
+ * @since 2.0
+ */
+@ToString(of = "all")
+@EqualsAndHashCode(of = "all")
+public final class MkFleet implements Closeable {
+
+    /**
+     * All servers.
+     */
+    private final transient List<MkServer> all;
+
+    /**
+     * Ctor.
+     * @param size How many servers
+     * @param answer The answer of all of them
+     */
+    public MkFleet(final int size, final MkAnswer answer) {
+        this(size, answer, 0, 0);
+    }
+
+    /**
+     * Ctor.
+     * @param size How many servers
+     * @param answer The answer of all of them
+     * @param sessions Maximum concurrent sessions of one login, or zero
+     * @param channels Maximum concurrent channels of one session, or zero
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public MkFleet(final int size, final MkAnswer answer,
+        final int sessions, final int channels) {
+        if (size < 1) {
+            throw new IllegalArgumentException(
+                String.format("At least one server is required: %d", size)
+            );
+        }
+        final List<MkServer> list = new ArrayList<>(size);
+        for (int idx = 0; idx < size; ++idx) {
+            list.add(new MkServer(answer, sessions, channels));
+        }
+        this.all = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Start all servers.
+     * @return This
+     * @throws IOException If fails
+     */
+    public MkFleet start() throws IOException {
+        final long start = System.currentTimeMillis();
+        try {
+            for (final MkServer server : this.all) {
+                server.start();
+            }
+        } catch (final IOException ex) {
+            this.close();
+            throw ex;
+        }
+        Logger.info(
+            this, "%d SSH servers started in %[ms]s",
+            this.all.size(), System.currentTimeMillis() - start
+        );
+        return this;
+    }
+
+    /**
+     * All servers.
+     * @return Servers
+     */
+    public List<MkServer> servers() {
+        return this.all;
+    }
+
+    /**
+     * Number of servers.
+     * @return Total
+     */
+    public int size() {
+        return this.all.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (final MkServer server : this.all) {
+            try {
+                server.close();
+            } catch (final IOException ex) {
+                if (failure == null) {
+                    failure = ex;
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
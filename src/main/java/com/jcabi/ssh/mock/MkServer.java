@@ -0,0 +1,257 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh.mock;
+
+import com.jcabi.ssh.Options;
+import com.jcabi.ssh.SshByPassword;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.sshd.common.keyprovider.KeyPairProvider;
+import org.apache.sshd.core.CoreModuleProperties;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.auth.password.UserAuthPasswordFactory;
+import org.apache.sshd.server.auth.pubkey.UserAuthPublicKeyFactory;
+import org.apache.sshd.server.forward.AcceptAllForwardingFilter;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+
+/**
+ * Embedded SSH server on a free loopback port.
+ *
+ * <pre> try (MkServer server = new MkServer(new MkAnswer.Script()).start()) {
+ *   String out = new Shell.Plain(server.shell()).exec("bytes 1024");
+ * }</pre>
+ *
+ * <p>Any login with the password {@link #PASSWORD} is accepted, as well
+ * as any public key, so {@link com.jcabi.ssh.Ssh} with any key works
+ * too. Port forwarding is allowed. The server uses one IO thread;
+ * the timer and the host key are shared by all servers of the JVM,
+ * so that hundreds of them may run on one machine.</p>
+ *
+ * @since 2.0
+ */
+@ToString(of = { "answer", "sessions", "channels" })
+@EqualsAndHashCode(of = { "answer", "sessions", "channels" })
+public final class MkServer implements Closeable {
+
+    /**
+     * Login, which {@link #shell()} uses.
+     */
+    public static final String LOGIN = "mk";
+
+    /**
+     * Password.
+     */
+    public static final String PASSWORD = "secret";
+
+    /**
+     * Loopback address.
+     */
+    private static final String HOST = "127.0.0.1";
+
+    /**
+     * Timer of all servers.
+     */
+    private static final ScheduledExecutorService TIMER = MkServer.timer();
+
+    /**
+     * Host key of all servers.
+     */
+    private static final KeyPairProvider KEYS =
+        new SimpleGeneratorHostKeyProvider();
+
+    /**
+     * The answer.
+     */
+    private final transient MkAnswer answer;
+
+    /**
+     * Maximum concurrent sessions of one login, or zero if not limited.
+     */
+    private final transient int sessions;
+
+    /**
+     * Maximum concurrent channels of one session, or zero if not limited.
+     */
+    private final transient int channels;
+
+    /**
+     * The server, or NULL if not started.
+     */
+    private transient SshServer sshd;
+
+    /**
+     * Ctor, which understands {@link MkAnswer.Script} commands.
+     */
+    public MkServer() {
+        this(new MkAnswer.Script());
+    }
+
+    /**
+     * Ctor.
+     * @param ans The answer to all commands
+     */
+    public MkServer(final MkAnswer ans) {
+        this(ans, 0, 0);
+    }
+
+    /**
+     * Ctor.
+     *
+     * <p>When there are too many sessions, new ones are rejected
+     * after authentication; when there are too many channels, new ones
+     * fail to open, like with {@code MaxSessions} of OpenSSH.</p>
+     *
+     * @param ans The answer to all commands
+     * @param max Maximum concurrent sessions of one login, or zero
+     * @param chnls Maximum concurrent channels of one session, or zero
+     */
+    public MkServer(final MkAnswer ans, final int max, final int chnls) {
+        if (max < 0 || chnls < 0) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Limits can't be negative: %d sessions, %d channels",
+                    max, chnls
+                )
+            );
+        }
+        this.answer = ans;
+        this.sessions = max;
+        this.channels = chnls;
+    }
+
+    /**
+     * Start it.
+     * @return This
+     * @throws IOException If fails
+     */
+    public MkServer start() throws IOException {
+        synchronized (this) {
+            if (this.sshd != null) {
+                throw new IllegalStateException("The server is started");
+            }
+            final SshServer server = SshServer.setUpDefaultServer();
+            server.setHost(MkServer.HOST);
+            server.setPort(0);
+            server.setKeyPairProvider(MkServer.KEYS);
+            server.setScheduledExecutorService(MkServer.TIMER, false);
+            CoreModuleProperties.NIO_WORKERS.set(server, 1);
+            if (this.sessions > 0) {
+                CoreModuleProperties.MAX_CONCURRENT_SESSIONS.set(
+                    server, this.sessions
+                );
+            }
+            if (this.channels > 0) {
+                // SSHD refuses a channel only when more than that many
+                // are open already, so it lets one extra channel in
+                CoreModuleProperties.MAX_CONCURRENT_CHANNELS.set(
+                    server, this.channels - 1
+                );
+            }
+            server.setUserAuthFactories(
+                Arrays.asList(
+                    new UserAuthPasswordFactory(),
+                    new UserAuthPublicKeyFactory()
+                )
+            );
+            server.setPasswordAuthenticator(
+                (login, pwd, session) -> MkServer.PASSWORD.equals(pwd)
+            );
+            server.setPublickeyAuthenticator((login, key, session) -> true);
+            server.setForwardingFilter(AcceptAllForwardingFilter.INSTANCE);
+            server.setCommandFactory(new MkCommandFactory(this.answer));
+            server.start();
+            this.sshd = server;
+        }
+        return this;
+    }
+
+    /**
+     * Port it listens on.
+     * @return Port
+     */
+    public int port() {
+        return this.server().getPort();
+    }
+
+    /**
+     * Shell to this server, with a password.
+     * @return Shell
+     * @throws IOException If fails
+     */
+    public SshByPassword shell() throws IOException {
+        return this.shell(new Options());
+    }
+
+    /**
+     * Shell to this server, with a password and options.
+     * @param opts Options of connections
+     * @return Shell
+     * @throws IOException If fails
+     */
+    public SshByPassword shell(final Options opts) throws IOException {
+        return new SshByPassword(
+            MkServer.HOST, this.port(), MkServer.LOGIN, MkServer.PASSWORD,
+            opts
+        );
+    }
+
+    /**
+     * Number of sessions open now.
+     * @return Total
+     */
+    public int active() {
+        return this.server().getActiveSessions().size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        final SshServer server;
+        synchronized (this) {
+            server = this.sshd;
+            this.sshd = null;
+        }
+        if (server != null) {
+            server.stop(true);
+        }
+    }
+
+    /**
+     * The server, started.
+     * @return Server
+     */
+    private SshServer server() {
+        synchronized (this) {
+            if (this.sshd == null) {
+                throw new IllegalStateException("The server is not started");
+            }
+            return this.sshd;
+        }
+    }
+
+    /**
+     * Make a timer.
+     * @return Timer, with a daemon thread
+     */
+    private static ScheduledExecutorService timer() {
+        final ScheduledThreadPoolExecutor timer =
+            new ScheduledThreadPoolExecutor(
+                1,
+                task -> {
+                    final Thread thread = new Thread(
+                        task, "jcabi-ssh-mock-timer"
+                    );
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+
+/**
+ * Embedded SSH servers on loopback, for tests.
+ *
+ * <p>Classes of this package need Apache MINA SSHD, which is an optional
+ * dependency of jcabi-ssh, so add it to your test scope:</p>
+ *
+ * <pre>&lt;dependency&gt;
+ *   &lt;groupId&gt;org.apache.sshd&lt;/groupId&gt;
+ *   &lt;artifactId&gt;sshd-core&lt;/artifactId&gt;
+ *   &lt;scope&gt;test&lt;/scope&gt;
+ * &lt;/dependency&gt;</pre>
+ *
+ * <p>Then start one server, or a fleet of them:</p>
+ *
+ * <pre> try (MkFleet fleet = new MkFleet(500, new MkAnswer.Script()).start()) {
+ *   for (MkServer server : fleet.servers()) {
+ *     new Shell.Plain(server.shell()).exec("bytes 1048576");
+ *   }
+ * }</pre>
+ *
+ * @since 2.0
+ */
+package com.jcabi.ssh.mock;
@@ -0,0 +1,87 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.cactoos.io.DeadInputStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link AsyncShell}.
+ * @since 2.0
+ */
+final class AsyncShellTest {
+
+    @Test
+    void returnsExitCodeInFuture() {
+        MatcherAssert.assertThat(
+            "should return exit code of the original shell",
+            new AsyncShell.Wrap(new Shell.Fake(3, "", "")).exec(
+                "ls",
+                new DeadInputStream(),
+                new ByteArrayOutputStream(),
+                new ByteArrayOutputStream()
+            ).join(),
+            Matchers.equalTo(3)
+        );
+    }
+
+    @Test
+    void failsOnNonZeroExitCode() {
+        final CompletionException error = Assertions.assertThrows(
+            CompletionException.class,
+            () -> new AsyncShell.Safe(
+                new AsyncShell.Wrap(new Shell.Fake(1, "", ""))
+            ).exec(
+                "false",
+                new DeadInputStream(),
+                new ByteArrayOutputStream(),
+                new ByteArrayOutputStream()
+            ).join()
+        );
+        MatcherAssert.assertThat(
+            "should report the exit code",
+            error.getCause(),
+            Matchers.instanceOf(IllegalArgumentException.class)
+        );
+    }
+
+    @Test
+    void interruptsCommandWhenCancelled() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final CompletableFuture<Integer> future = new AsyncShell.Wrap(
+            (cmd, stdin, stdout, stderr) -> {
+                started.countDown();
+                try {
+                    TimeUnit.MINUTES.sleep(1L);
+                } catch (final InterruptedException ex) {
+                    interrupted.countDown();
+                    Thread.currentThread().interrupt();
+                }
+                return 0;
+            }
+        ).exec(
+            "sleep 60",
+            new DeadInputStream(),
+            new ByteArrayOutputStream(),
+            new ByteArrayOutputStream()
+        );
+        started.await();
+        future.cancel(true);
+        MatcherAssert.assertThat(
+            "should interrupt the thread of the command",
+            interrupted.await(1L, TimeUnit.MINUTES),
+            Matchers.is(true)
+        );
+    }
+}
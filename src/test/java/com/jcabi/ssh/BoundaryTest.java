@@ -0,0 +1,67 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Boundary}.
+ * @since 2.0
+ */
+final class BoundaryTest {
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void splitsOutputByMarker() throws Exception {
+        final InputStream input = new ByteArrayInputStream(
+            "hello\n\u001e\u001eab-\u001eabc 42\nnext\u001eabc 0\n"
+                .getBytes(StandardCharsets.UTF_8)
+        );
+        final Boundary boundary = new Boundary("\u001eabc");
+        final ByteArrayOutputStream first = new ByteArrayOutputStream();
+        MatcherAssert.assertThat(
+            "should return the exit code after the first marker",
+            boundary.copy(input, first),
+            Matchers.equalTo("42")
+        );
+        MatcherAssert.assertThat(
+            "should copy everything before the first marker",
+            first.toString(StandardCharsets.UTF_8),
+            Matchers.equalTo("hello\n\u001e\u001eab-")
+        );
+        final ByteArrayOutputStream second = new ByteArrayOutputStream();
+        MatcherAssert.assertThat(
+            "should return the exit code after the second marker",
+            boundary.copy(input, second),
+            Matchers.equalTo("0")
+        );
+        MatcherAssert.assertThat(
+            "should copy output of the second command only",
+            second.toString(StandardCharsets.UTF_8),
+            Matchers.equalTo("next")
+        );
+    }
+
+    @Test
+    void failsWhenStreamEndsBeforeMarker() {
+        Assertions.assertThrows(
+            EOFException.class,
+            () -> new Boundary("\u001exyz").copy(
+                new ByteArrayInputStream(
+                    "no marker here".getBytes(StandardCharsets.UTF_8)
+                ),
+                new ByteArrayOutputStream()
+            )
+        );
+    }
+}
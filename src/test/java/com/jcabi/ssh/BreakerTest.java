@@ -0,0 +1,260 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.UnknownHostException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Breaker}.
+ * @since 2.0
+ */
+final class BreakerTest {
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void failsFastWhenOpen() throws Exception {
+        final BreakerTest.Target target = new BreakerTest.Target("alice");
+        final Breaker breaker = new Breaker(target, 2, 1L, TimeUnit.HOURS);
+        for (int idx = 0; idx < 2; ++idx) {
+            Assertions.assertThrows(
+                IOException.class, () -> breaker.session(Probe.NONE)
+            );
+        }
+        MatcherAssert.assertThat(
+            "should open after two failures",
+            breaker.state(),
+            Matchers.equalTo(Breaker.State.OPEN)
+        );
+        Assertions.assertThrows(
+            IOException.class, () -> breaker.session(Probe.NONE)
+        );
+        MatcherAssert.assertThat(
+            "should not try to connect, while open",
+            target.attempts.get(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    @Test
+    void sharesStateOfHost() throws Exception {
+        final BreakerTest.Target target = new BreakerTest.Target("bob");
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new Breaker(target, 1, 1L, TimeUnit.HOURS)
+                .session(Probe.NONE)
+        );
+        MatcherAssert.assertThat(
+            "should be open for another breaker of the same host",
+            new Breaker(
+                new BreakerTest.Target("bob"), 1, 1L, TimeUnit.HOURS
+            ).state(),
+            Matchers.equalTo(Breaker.State.OPEN)
+        );
+    }
+
+    @Test
+    void refusesOtherSettingsOfHost() throws Exception {
+        new Breaker(new BreakerTest.Target("bill"), 3, 1L, TimeUnit.HOURS);
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new Breaker(
+                new BreakerTest.Target("bill"), 3, 1L, TimeUnit.MINUTES
+            ),
+            "should refuse another cool-down for the same host"
+        );
+    }
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void closesAfterSuccessfulTrial() throws Exception {
+        final BreakerTest.Target target = new BreakerTest.Target("carol");
+        final Breaker breaker = new Breaker(
+            target, 1, 1L, TimeUnit.MILLISECONDS
+        );
+        Assertions.assertThrows(
+            IOException.class, () -> breaker.session(Probe.NONE)
+        );
+        TimeUnit.MILLISECONDS.sleep(10L);
+        MatcherAssert.assertThat(
+            "should be half-open after cool-down",
+            breaker.state(),
+            Matchers.equalTo(Breaker.State.HALF_OPEN)
+        );
+        target.broken.set(false);
+        breaker.session(Probe.NONE);
+        MatcherAssert.assertThat(
+            "should be closed after the trial",
+            breaker.state(),
+            Matchers.equalTo(Breaker.State.CLOSED)
+        );
+    }
+
+    @Test
+    void countsErrorsOfTrialAsFailures() throws Exception {
+        final BreakerTest.Target target = new BreakerTest.Target("dave");
+        final Breaker breaker = new Breaker(
+            target, 1, 1L, TimeUnit.MILLISECONDS
+        );
+        Assertions.assertThrows(
+            IOException.class, () -> breaker.session(Probe.NONE)
+        );
+        TimeUnit.MILLISECONDS.sleep(10L);
+        target.fatal.set(true);
+        Assertions.assertThrows(
+            LinkageError.class, () -> breaker.session(Probe.NONE)
+        );
+        TimeUnit.MILLISECONDS.sleep(10L);
+        target.fatal.set(false);
+        target.broken.set(false);
+        breaker.session(Probe.NONE);
+        MatcherAssert.assertThat(
+            "should try again after the error of the trial",
+            breaker.state(),
+            Matchers.equalTo(Breaker.State.CLOSED)
+        );
+    }
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void givesIdleSessionsWhenOpen() throws Exception {
+        final BreakerTest.Target target = new BreakerTest.Target("erin");
+        final Breaker breaker = new Breaker(target, 1, 1L, TimeUnit.HOURS);
+        Assertions.assertThrows(
+            IOException.class, () -> breaker.session(Probe.NONE)
+        );
+        final Session idle = new JSch().getSession("erin", "127.0.0.1", 22);
+        target.pooled.set(idle);
+        MatcherAssert.assertThat(
+            "should give the idle session, even though the circuit is open",
+            breaker.session(Probe.NONE),
+            Matchers.sameInstance(idle)
+        );
+        MatcherAssert.assertThat(
+            "should not try to connect for the idle session",
+            target.attempts.get(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void ignoresInterruptedAttempts() throws Exception {
+        final BreakerTest.Target target = new BreakerTest.Target("frank");
+        final Breaker breaker = new Breaker(
+            target, 1, 1L, TimeUnit.MILLISECONDS
+        );
+        Assertions.assertThrows(
+            IOException.class, () -> breaker.session(Probe.NONE)
+        );
+        TimeUnit.MILLISECONDS.sleep(10L);
+        target.interrupted.set(true);
+        Assertions.assertThrows(
+            InterruptedIOException.class, () -> breaker.session(Probe.NONE)
+        );
+        MatcherAssert.assertThat(
+            "should not count the interrupted trial as a failure",
+            breaker.failures(),
+            Matchers.equalTo(1)
+        );
+        MatcherAssert.assertThat(
+            "should let the next trial through",
+            breaker.state(),
+            Matchers.equalTo(Breaker.State.HALF_OPEN)
+        );
+        target.interrupted.set(false);
+        target.broken.set(false);
+        breaker.session(Probe.NONE);
+        MatcherAssert.assertThat(
+            "should close after the next trial",
+            breaker.state(),
+            Matchers.equalTo(Breaker.State.CLOSED)
+        );
+    }
+
+    /**
+     * Shell that fails to open sessions, while it is broken.
+     * @since 2.0
+     */
+    private static final class Target extends AbstractSshShell {
+
+        /**
+         * Is it broken?
+         */
+        private final AtomicBoolean broken;
+
+        /**
+         * Does it throw an error instead of an exception?
+         */
+        private final AtomicBoolean fatal;
+
+        /**
+         * Is the attempt interrupted?
+         */
+        private final AtomicBoolean interrupted;
+
+        /**
+         * Idle session of the pool, or NULL.
+         */
+        private final AtomicReference<Session> pooled;
+
+        /**
+         * How many sessions were requested.
+         */
+        private final AtomicInteger attempts;
+
+        /**
+         * Ctor.
+         * @param user Login
+         * @throws UnknownHostException If fails
+         */
+        Target(final String user) throws UnknownHostException {
+            super("127.0.0.1", 22, user);
+            this.broken = new AtomicBoolean(true);
+            this.fatal = new AtomicBoolean();
+            this.interrupted = new AtomicBoolean();
+            this.pooled = new AtomicReference<>();
+            this.attempts = new AtomicInteger();
+        }
+
+        @Override
+        Session idle() {
+            return this.pooled.get();
+        }
+
+        @Override
+        protected Session session() throws IOException {
+            this.attempts.incrementAndGet();
+            if (this.interrupted.get()) {
+                throw new InterruptedIOException("Timed out by the caller");
+            }
+            if (this.fatal.get()) {
+                throw new LinkageError("Class is broken");
+            }
+            if (this.broken.get()) {
+                throw new IOException("Connection refused");
+            }
+            try {
+                return new JSch().getSession(
+                    this.getLogin(), this.getAddr(), this.getPort()
+                );
+            } catch (final JSchException ex) {
+                throw new IOException(ex);
+            }
+        }
+    }
+}
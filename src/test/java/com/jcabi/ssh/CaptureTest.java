@@ -0,0 +1,101 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Capture}.
+ * @since 2.0
+ */
+final class CaptureTest {
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void keepsOnlyTheTail() throws Exception {
+        final Capture.Tail out = new Capture.Tail(8);
+        out.write("0123456789abc".getBytes(StandardCharsets.UTF_8));
+        out.write('d');
+        MatcherAssert.assertThat(
+            "should keep last bytes only",
+            new String(out.input().readAllBytes(), StandardCharsets.UTF_8),
+            Matchers.equalTo("6789abcd")
+        );
+        MatcherAssert.assertThat(
+            "should count all bytes",
+            out.size(),
+            Matchers.equalTo(14L)
+        );
+        MatcherAssert.assertThat(
+            "should be truncated",
+            out.truncated(),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void spillsToFile() throws Exception {
+        final byte[] data = new byte[100_000];
+        new Random(0L).nextBytes(data);
+        final Capture.Spill spill = new Capture.Spill(1000);
+        try {
+            for (int pos = 0; pos < data.length; pos += 777) {
+                spill.write(data, pos, Math.min(777, data.length - pos));
+            }
+            spill.close();
+            MatcherAssert.assertThat(
+                "should move bytes to the file",
+                spill.spilled(),
+                Matchers.is(true)
+            );
+            try (InputStream input = spill.input()) {
+                MatcherAssert.assertThat(
+                    "should read all bytes back",
+                    input.readAllBytes(),
+                    Matchers.equalTo(data)
+                );
+            }
+            MatcherAssert.assertThat(
+                "should not be truncated",
+                spill.truncated(),
+                Matchers.is(false)
+            );
+        } finally {
+            spill.delete();
+        }
+    }
+
+    @Test
+    void dropsBytesBeyondTheLimit() throws Exception {
+        final Capture.Spill spill = new Capture.Spill(4, 6L);
+        spill.write("hello, world".getBytes(StandardCharsets.UTF_8));
+        spill.close();
+        try (InputStream input = spill.input()) {
+            MatcherAssert.assertThat(
+                "should keep bytes until the limit",
+                new String(input.readAllBytes(), StandardCharsets.UTF_8),
+                Matchers.equalTo("hello,")
+            );
+        } finally {
+            spill.delete();
+        }
+    }
+
+    @Test
+    void refusesNegativeSizes() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new Capture.Spill(-1, 6L),
+            "should refuse negative size of memory"
+        );
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Cluster}.
+ * @since 2.0
+ */
+final class ClusterTest {
+
+    @Test
+    void collectsOutputOfEachHostSeparately() throws Exception {
+        final Map<String, Shell> shells = new LinkedHashMap<>(0);
+        for (int idx = 0; idx < 10; ++idx) {
+            shells.put(String.format("host-%d", idx), ClusterTest.echo(0));
+        }
+        final List<Cluster.Result> results = new Cluster(shells, 3)
+            .exec("hello");
+        MatcherAssert.assertThat(
+            "should run on all hosts",
+            results,
+            Matchers.hasSize(10)
+        );
+        for (final Cluster.Result result : results) {
+            MatcherAssert.assertThat(
+                "should keep output of the host",
+                result.stdout(),
+                Matchers.equalTo("hello on x")
+            );
+        }
+    }
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void stopsAfterFirstFailure() throws Exception {
+        final Map<String, Shell> shells = new LinkedHashMap<>(0);
+        shells.put("bad", ClusterTest.echo(1));
+        shells.put("good", ClusterTest.echo(0));
+        final List<Cluster.Result> results =
+            new Cluster(shells, 1, true).exec("ls");
+        MatcherAssert.assertThat(
+            "should report all hosts",
+            results,
+            Matchers.hasSize(2)
+        );
+        MatcherAssert.assertThat(
+            "should run the first host",
+            results.get(0).skipped(),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            "should not start second host",
+            results.get(1).host(),
+            Matchers.equalTo("good")
+        );
+        MatcherAssert.assertThat(
+            "should mark second host as skipped",
+            results.get(1).skipped(),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void deliversAllResultsWhenListenerFails() throws Exception {
+        final Map<String, Shell> shells = new LinkedHashMap<>(0);
+        for (int idx = 0; idx < 4; ++idx) {
+            shells.put(String.format("host-%d", idx), ClusterTest.echo(0));
+        }
+        final List<String> delivered = new CopyOnWriteArrayList<>();
+        final IllegalStateException thrown = Assertions.assertThrows(
+            IllegalStateException.class,
+            () -> new Cluster(shells, 1).exec(
+                "ls",
+                result -> {
+                    delivered.add(result.host());
+                    throw new IllegalStateException("Listener is broken");
+                }
+            ),
+            "should throw the failure of the listener"
+        );
+        MatcherAssert.assertThat(
+            "should deliver results of all hosts",
+            delivered,
+            Matchers.hasSize(4)
+        );
+        MatcherAssert.assertThat(
+            "should keep other failures of the listener",
+            thrown.getSuppressed().length,
+            Matchers.equalTo(3)
+        );
+    }
+
+    /**
+     * Make a shell, which prints the command back.
+     * @param exit Exit code to return
+     * @return Shell
+     */
+    private static Shell echo(final int exit) {
+        return (cmd, stdin, stdout, stderr) -> {
+            stdout.write(
+                String.format("%s on %s", cmd, "x")
+                    .getBytes(StandardCharsets.UTF_8)
+            );
+            stdout.close();
+            stderr.close();
+            return exit;
+        };
+    }
+}
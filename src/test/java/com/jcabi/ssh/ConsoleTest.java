@@ -0,0 +1,166 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.UUID;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.server.shell.ProcessShellFactory;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Console}, with a real {@code /bin/sh} behind
+ * an embedded SSH server.
+ * @since 2.0
+ */
+final class ConsoleTest {
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void keepsStateBetweenCommands() throws Exception {
+        try (ConsoleTest.Sh server = new ConsoleTest.Sh();
+            Console console = new Console(server.shell())) {
+            final Shell.Plain plain = new Shell.Plain(console);
+            plain.exec("cd /tmp");
+            plain.exec("export GREETING=hello");
+            MatcherAssert.assertThat(
+                "should stay in the directory",
+                plain.exec("pwd"),
+                Matchers.equalTo("/tmp\n")
+            );
+            MatcherAssert.assertThat(
+                "should keep the variable",
+                plain.exec("echo \"$GREETING\""),
+                Matchers.equalTo("hello\n")
+            );
+        }
+    }
+
+    @Test
+    void reportsExitCode() throws Exception {
+        try (ConsoleTest.Sh server = new ConsoleTest.Sh();
+            Console console = new Console(server.shell())) {
+            MatcherAssert.assertThat(
+                "should return the code of the failed command",
+                console.exec(
+                    "ls /no/such/dir; (exit 3)",
+                    new ByteArrayInputStream(new byte[0]),
+                    new ByteArrayOutputStream(), new ByteArrayOutputStream()
+                ),
+                Matchers.equalTo(3)
+            );
+            MatcherAssert.assertThat(
+                "should run next command after the failed one",
+                new Shell.Plain(console).exec("echo ok"),
+                Matchers.equalTo("ok\n")
+            );
+        }
+    }
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void separatesStdoutAndStderr() throws Exception {
+        try (ConsoleTest.Sh server = new ConsoleTest.Sh();
+            Console console = new Console(server.shell())) {
+            final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+            console.exec(
+                "echo out; echo err >&2; echo more",
+                new ByteArrayInputStream(new byte[0]), stdout, stderr
+            );
+            MatcherAssert.assertThat(
+                "should copy only stdout to stdout",
+                stdout.toString(StandardCharsets.UTF_8),
+                Matchers.equalTo("out\nmore\n")
+            );
+            MatcherAssert.assertThat(
+                "should copy only stderr to stderr",
+                stderr.toString(StandardCharsets.UTF_8),
+                Matchers.equalTo("err\n")
+            );
+        }
+    }
+
+    @Test
+    void readsOutputWithoutTrailingNewline() throws Exception {
+        try (ConsoleTest.Sh server = new ConsoleTest.Sh();
+            Console console = new Console(server.shell())) {
+            final Shell.Plain plain = new Shell.Plain(console);
+            plain.exec("printf first");
+            MatcherAssert.assertThat(
+                "should not mix output of the next command",
+                plain.exec("printf second"),
+                Matchers.equalTo("second")
+            );
+        }
+    }
+
+    /**
+     * Embedded SSH server, which runs {@code /bin/sh} in "shell" channels.
+     * @since 2.0
+     */
+    private static final class Sh implements Closeable {
+
+        /**
+         * Password, unique for the server.
+         */
+        private final String password;
+
+        /**
+         * The server.
+         */
+        private final SshServer sshd;
+
+        /**
+         * Ctor.
+         * @throws IOException If fails
+         */
+        Sh() throws IOException {
+            Assumptions.assumeTrue(
+                Files.isExecutable(Paths.get("/bin/sh")),
+                "/bin/sh is required"
+            );
+            this.password = UUID.randomUUID().toString();
+            this.sshd = SshServer.setUpDefaultServer();
+            this.sshd.setHost("127.0.0.1");
+            this.sshd.setPort(0);
+            this.sshd.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
+            this.sshd.setPasswordAuthenticator(
+                (login, pwd, session) -> this.password.equals(pwd)
+            );
+            this.sshd.setShellFactory(
+                new ProcessShellFactory("/bin/sh", "/bin/sh")
+            );
+            this.sshd.start();
+        }
+
+        /**
+         * Shell to this server.
+         * @return Shell
+         * @throws IOException If fails
+         */
+        AbstractSshShell shell() throws IOException {
+            return new SshByPassword(
+                "127.0.0.1", this.sshd.getPort(),
+                System.getProperty("user.name"), this.password
+            );
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.sshd.stop(true);
+        }
+    }
+}
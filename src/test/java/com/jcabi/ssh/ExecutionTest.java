@@ -7,6 +7,10 @@ package com.jcabi.ssh;
 import com.jcraft.jsch.ChannelExec;
 import com.jcraft.jsch.Session;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import org.cactoos.io.DeadInputStream;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
@@ -44,4 +48,41 @@ final class ExecutionTest {
             Matchers.equalTo(ExecutionTest.EXIT_CODE)
         );
     }
+
+    @Test
+    void returnsAsSoonAsStreamsAreClosed() throws Exception {
+        final Session session = Mockito.mock(Session.class);
+        final ChannelExec channel = Mockito.mock(ChannelExec.class);
+        Mockito.when(session.openChannel(Mockito.anyString()))
+            .thenReturn(channel);
+        final List<OutputStream> streams = new CopyOnWriteArrayList<>();
+        Mockito.doAnswer(
+            inv -> streams.add(inv.getArgument(0))
+        ).when(channel).setOutputStream(Mockito.any(), Mockito.anyBoolean());
+        Mockito.doAnswer(
+            inv -> streams.add(inv.getArgument(0))
+        ).when(channel).setErrStream(Mockito.any(), Mockito.anyBoolean());
+        Mockito.doAnswer(
+            inv -> {
+                for (final OutputStream stream : streams) {
+                    stream.close();
+                }
+                return null;
+            }
+        ).when(channel).connect(Mockito.anyInt());
+        Mockito.when(channel.getExitStatus()).thenReturn(0);
+        final long start = System.currentTimeMillis();
+        new Execution(
+            "true",
+            new DeadInputStream(),
+            new ByteArrayOutputStream(),
+            new ByteArrayOutputStream(),
+            session
+        ).exec();
+        MatcherAssert.assertThat(
+            "should not wait for a second",
+            System.currentTimeMillis() - start,
+            Matchers.lessThan(TimeUnit.SECONDS.toMillis(1L))
+        );
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Faulty}.
+ * @since 2.0
+ */
+final class FaultyTest {
+
+    @Test
+    void repeatsFaultsWithSameSeed() throws Exception {
+        MatcherAssert.assertThat(
+            "should meet the same faults in the same order",
+            FaultyTest.outcomes(
+                new Faulty(new Shell.Fake(), 42L)
+                    .refusals(0.3d)
+                    .failures(0.3d, 255)
+            ),
+            Matchers.equalTo(
+                FaultyTest.outcomes(
+                    new Faulty(new Shell.Fake(), 42L)
+                        .refusals(0.3d)
+                        .failures(0.3d, 255)
+                )
+            )
+        );
+    }
+
+    @Test
+    void refusesConnections() {
+        Assertions.assertThrows(
+            ConnectException.class,
+            () -> new Shell.Plain(
+                new Faulty(new Shell.Fake(), 1L).refusals(1.0d)
+            ).exec("ls")
+        );
+    }
+
+    @Test
+    void breaksConnectionInTheMiddle() {
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        Assertions.assertThrows(
+            SocketException.class,
+            () -> new Faulty(
+                new Shell.Fake(0, new byte[100], new byte[0]), 1L
+            ).drops(1.0d, 50L).exec(
+                "cat", new ByteArrayInputStream(new byte[0]),
+                stdout, new ByteArrayOutputStream()
+            )
+        );
+        MatcherAssert.assertThat(
+            "should pass only a part of the output",
+            stdout.size(),
+            Matchers.lessThanOrEqualTo(50)
+        );
+    }
+
+    @Test
+    void limitsBandwidth() throws Exception {
+        final long start = System.nanoTime();
+        new Shell.Plain(
+            new Faulty(new Shell.Fake(0, new byte[2000], new byte[0]), 1L)
+                .bandwidth(10_000L)
+        ).exec("cat");
+        MatcherAssert.assertThat(
+            "should take as long as the bandwidth requires",
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+            Matchers.greaterThanOrEqualTo(150L)
+        );
+    }
+
+    @Test
+    void waitsBeforeCommand() throws Exception {
+        final long start = System.nanoTime();
+        new Shell.Plain(
+            new Faulty(new Shell.Fake(), 1L).latency(
+                new Faulty.Uniform(100L, 150L, TimeUnit.MILLISECONDS)
+            )
+        ).exec("ls");
+        MatcherAssert.assertThat(
+            "should wait before the command",
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+            Matchers.greaterThanOrEqualTo(100L)
+        );
+    }
+
+    @Test
+    void failsCommands() throws Exception {
+        MatcherAssert.assertThat(
+            "should replace the exit code",
+            new Faulty(new Shell.Fake(), 1L).failures(1.0d, 255).exec(
+                "ls", new ByteArrayInputStream(new byte[0]),
+                new ByteArrayOutputStream(), new ByteArrayOutputStream()
+            ),
+            Matchers.equalTo(255)
+        );
+    }
+
+    /**
+     * Run many commands and record what happened.
+     * @param shell The shell
+     * @return Exit codes, or -1 for refused connections
+     * @throws IOException If fails
+     */
+    private static List<Integer> outcomes(final Shell shell)
+        throws IOException {
+        final List<Integer> codes = new ArrayList<>(50);
+        for (int idx = 0; idx < 50; ++idx) {
+            try {
+                codes.add(
+                    shell.exec(
+                        "ls", new ByteArrayInputStream(new byte[0]),
+                        new ByteArrayOutputStream(),
+                        new ByteArrayOutputStream()
+                    )
+                );
+            } catch (final ConnectException ex) {
+                codes.add(-1);
+            }
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.ssh.mock.MkCommandFactory;
+import com.jcraft.jsch.Session;
+import java.io.IOException;
+import java.net.ServerSocket;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.forward.AcceptAllForwardingFilter;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Jump}.
+ * @since 2.0
+ */
+final class JumpTest {
+
+    @Test
+    void executesThroughBastion() throws Exception {
+        final SshServer bastion = JumpTest.server();
+        final SshServer target = JumpTest.server();
+        try {
+            MatcherAssert.assertThat(
+                "should run the command on the target",
+                new Shell.Plain(
+                    new SshByPassword(
+                        "127.0.0.1", target.getPort(), "jeff", "secret",
+                        new Options().jump(JumpTest.shell(bastion))
+                    )
+                ).exec("hello through bastion"),
+                Matchers.equalTo("hello through bastion")
+            );
+        } finally {
+            target.stop();
+            bastion.stop();
+        }
+    }
+
+    @Test
+    void sharesSessionToBastion() throws Exception {
+        final SshServer bastion = JumpTest.server();
+        final SshServer first = JumpTest.server();
+        final SshServer second = JumpTest.server();
+        try {
+            final Options opts = new Options().jump(JumpTest.shell(bastion));
+            final Session one = new SshByPassword(
+                "127.0.0.1", first.getPort(), "jeff", "secret", opts
+            ).session();
+            final Session two = new SshByPassword(
+                "127.0.0.1", second.getPort(), "jeff", "secret", opts
+            ).session();
+            try {
+                MatcherAssert.assertThat(
+                    "should open one session to the bastion",
+                    bastion.getActiveSessions(),
+                    Matchers.hasSize(1)
+                );
+            } finally {
+                one.disconnect();
+                two.disconnect();
+            }
+        } finally {
+            second.stop();
+            first.stop();
+            bastion.stop();
+        }
+    }
+
+    @Test
+    void jumpsThroughManyHosts() throws Exception {
+        final SshServer outer = JumpTest.server();
+        final SshServer inner = JumpTest.server();
+        final SshServer target = JumpTest.server();
+        try {
+            MatcherAssert.assertThat(
+                "should run the command behind two bastions",
+                new Shell.Plain(
+                    new SshByPassword(
+                        "127.0.0.1", target.getPort(), "jeff", "secret",
+                        new Options().jump(
+                            new SshByPassword(
+                                "127.0.0.1", inner.getPort(), "jeff", "secret",
+                                new Options().jump(JumpTest.shell(outer))
+                            )
+                        )
+                    )
+                ).exec("deep"),
+                Matchers.equalTo("deep")
+            );
+        } finally {
+            target.stop();
+            inner.stop();
+            outer.stop();
+        }
+    }
+
+    /**
+     * Start SSH server, which allows forwarding and runs commands.
+     * @return The server
+     * @throws IOException If fails
+     */
+    private static SshServer server() throws IOException {
+        final SshServer sshd = new MockSshServerBuilder(JumpTest.port())
+            .usePasswordAuthentication("jeff", "secret")
+            .build();
+        sshd.setForwardingFilter(AcceptAllForwardingFilter.INSTANCE);
+        sshd.setCommandFactory(new MkCommandFactory());
+        sshd.start();
+        return sshd;
+    }
+
+    /**
+     * Shell to the server.
+     * @param sshd The server
+     * @return Shell
+     * @throws IOException If fails
+     */
+    private static SshByPassword shell(final SshServer sshd)
+        throws IOException {
+        return new SshByPassword("127.0.0.1", sshd.getPort(), "jeff", "secret");
+    }
+
+    private static int port() throws IOException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        return port;
+    }
+}
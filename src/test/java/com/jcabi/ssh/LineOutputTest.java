@@ -0,0 +1,51 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link LineOutput}.
+ * @since 2.0
+ */
+final class LineOutputTest {
+
+    @Test
+    void decodesCharactersSplitBetweenWrites() throws Exception {
+        final List<String> lines = new ArrayList<>(0);
+        final byte[] bytes = "привет\n"
+            .getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = new LineOutput(StandardCharsets.UTF_8, lines::add)) {
+            for (final byte bte : bytes) {
+                out.write(new byte[] {bte});
+            }
+        }
+        MatcherAssert.assertThat(
+            "should decode multi-byte characters written byte by byte",
+            lines,
+            Matchers.contains("привет")
+        );
+    }
+
+    @Test
+    void splitsLinesAndKeepsTheLastOne() throws Exception {
+        final List<String> lines = new ArrayList<>(0);
+        try (OutputStream out = new LineOutput(StandardCharsets.UTF_8, lines::add)) {
+            out.write("first\r\n\nthird\nla".getBytes(StandardCharsets.UTF_8));
+            out.write("st".getBytes(StandardCharsets.UTF_8));
+        }
+        MatcherAssert.assertThat(
+            "should split lines by LF and CRLF",
+            lines,
+            Matchers.contains("first", "", "third", "last")
+        );
+    }
+}
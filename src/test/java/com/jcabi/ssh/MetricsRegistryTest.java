@@ -0,0 +1,126 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.ssh.mock.MkCommandFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import org.apache.sshd.server.SshServer;
+import org.cactoos.io.ResourceOf;
+import org.cactoos.text.TextOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link MetricsRegistry}.
+ * @since 2.0
+ */
+final class MetricsRegistryTest {
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void countsLatenciesInHistogram() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        for (int idx = 0; idx < 3; ++idx) {
+            registry.phase("a", Metrics.Phase.RUN, 1000L);
+        }
+        registry.phase("a", Metrics.Phase.RUN, 1_000_000L);
+        final MetricsRegistry.Histogram hist =
+            registry.histogram("a", Metrics.Phase.RUN);
+        MatcherAssert.assertThat(
+            "should count all measurements",
+            hist.count(),
+            Matchers.equalTo(4L)
+        );
+        MatcherAssert.assertThat(
+            "should calculate the mean",
+            hist.mean(),
+            Matchers.equalTo(250_750L)
+        );
+        MatcherAssert.assertThat(
+            "should find the median bucket",
+            hist.percentile(0.5),
+            Matchers.equalTo(1023L)
+        );
+        MatcherAssert.assertThat(
+            "should find the maximum bucket",
+            hist.percentile(1.0),
+            Matchers.equalTo(1_048_575L)
+        );
+    }
+
+    @Test
+    void countsExitCodes() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.exit("b", 0);
+        registry.exit("b", 0);
+        registry.exit("b", 1);
+        registry.exit("b", -1);
+        MatcherAssert.assertThat(
+            "should count exit codes, including unusual ones",
+            registry.exits("b").toString(),
+            Matchers.equalTo("{-1=1, 0=2, 1=1}")
+        );
+    }
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void reportsPhasesOfSshCommand() throws Exception {
+        final int port = MetricsRegistryTest.port();
+        final SshServer sshd = new MockSshServerBuilder(port)
+            .usePublicKeyAuthentication().build();
+        try {
+            sshd.setCommandFactory(new MkCommandFactory());
+            sshd.start();
+            final MetricsRegistry registry = new MetricsRegistry();
+            new Shell.Plain(
+                new Shell.Metered(
+                    new Ssh(
+                        InetAddress.getLocalHost().getCanonicalHostName(),
+                        port,
+                        "test",
+                        new TextOf(
+                            new ResourceOf("com/jcabi/ssh/private.key")
+                        ).asString()
+                    ),
+                    registry
+                )
+            ).exec("hello");
+            final String host = registry.hosts().iterator().next();
+            MatcherAssert.assertThat(
+                "should measure the key exchange",
+                registry.histogram(host, Metrics.Phase.KEX).count(),
+                Matchers.equalTo(1L)
+            );
+            MatcherAssert.assertThat(
+                "should measure the run",
+                registry.histogram(host, Metrics.Phase.RUN).count(),
+                Matchers.equalTo(1L)
+            );
+            MatcherAssert.assertThat(
+                "should count bytes received",
+                registry.received(host),
+                Matchers.greaterThanOrEqualTo(5L)
+            );
+            MatcherAssert.assertThat(
+                "should count the exit code",
+                registry.exits(host).get(0),
+                Matchers.equalTo(1L)
+            );
+        } finally {
+            sshd.stop();
+        }
+    }
+
+    private static int port() throws IOException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        return port;
+    }
+}
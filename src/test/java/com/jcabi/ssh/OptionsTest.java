@@ -0,0 +1,260 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.ssh.mock.MkCommandFactory;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.Session;
+import com.jcabi.ssh.mock.MkServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.sshd.server.SshServer;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Options}.
+ * @since 2.0
+ */
+final class OptionsTest {
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void configuresSession() throws Exception {
+        final Session session = new JSch().getSession("a", "localhost", 22);
+        new Options()
+            .ciphers("aes256-ctr", "aes128-ctr")
+            .compression(6)
+            .readTimeout(3L, TimeUnit.SECONDS)
+            .apply(session);
+        MatcherAssert.assertThat(
+            "should set ciphers in both directions",
+            session.getConfig("cipher.s2c"),
+            Matchers.equalTo("aes256-ctr,aes128-ctr")
+        );
+        MatcherAssert.assertThat(
+            "should turn compression on",
+            session.getConfig("compression.c2s"),
+            Matchers.startsWith("zlib@openssh.com,")
+        );
+        MatcherAssert.assertThat(
+            "should set the level of compression",
+            session.getConfig("compression_level"),
+            Matchers.equalTo("6")
+        );
+        MatcherAssert.assertThat(
+            "should set the read timeout",
+            session.getTimeout(),
+            Matchers.equalTo(3000)
+        );
+    }
+
+    @Test
+    void keepsDefaultsOfShell() throws Exception {
+        final Session session = new JSch().getSession("b", "localhost", 22);
+        session.setTimeout(42);
+        new Options().kex("curve25519-sha256").apply(session);
+        MatcherAssert.assertThat(
+            "should not touch the read timeout, if it is not set",
+            session.getTimeout(),
+            Matchers.equalTo(42)
+        );
+    }
+
+    @Test
+    void rejectsWrongCompressionLevel() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new Options().compression(10)
+        );
+    }
+
+    @Test
+    void connectsWithChosenCipher() throws Exception {
+        final int port = OptionsTest.port();
+        final SshServer sshd = new MockSshServerBuilder(port)
+            .usePasswordAuthentication("jane", "secret").build();
+        try {
+            sshd.setCommandFactory(new MkCommandFactory());
+            sshd.start();
+            MatcherAssert.assertThat(
+                "should run the command through the compressed session",
+                new Shell.Plain(
+                    new SshByPassword(
+                        "127.0.0.1", port, "jane", "secret",
+                        new Options()
+                            .ciphers("aes128-ctr")
+                            .macs("hmac-sha2-256")
+                            .compression(1)
+                            .connectTimeout(5L, TimeUnit.SECONDS)
+                    )
+                ).exec("hi"),
+                Matchers.equalTo("hi")
+            );
+        } finally {
+            sshd.stop();
+        }
+    }
+
+    @Test
+    void failsWhenServerStopsAnswering() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        try (MkServer server = new MkServer(
+            (cmd, stdin, stdout, stderr) -> {
+                started.countDown();
+                try {
+                    TimeUnit.MINUTES.sleep(1L);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return 0;
+            }
+        ).start();
+            OptionsTest.Freezer link = new OptionsTest.Freezer(server.port())) {
+            final CompletableFuture<Integer> exec = new AsyncShell.Wrap(
+                new SshByPassword(
+                    "127.0.0.1", link.port(), MkServer.LOGIN, MkServer.PASSWORD,
+                    new Options()
+                        .retry(Retry.NEVER)
+                        .readTimeout(2L, TimeUnit.SECONDS)
+                )
+            ).exec(
+                "sleep", InputStream.nullInputStream(),
+                OutputStream.nullOutputStream(), OutputStream.nullOutputStream()
+            );
+            MatcherAssert.assertThat(
+                "should start the command",
+                started.await(1L, TimeUnit.MINUTES),
+                Matchers.is(true)
+            );
+            link.freeze();
+            final long start = System.nanoTime();
+            Assertions.assertThrows(
+                Exception.class,
+                () -> {
+                    if (exec.get(30L, TimeUnit.SECONDS) != 0) {
+                        throw new IOException("The session is broken");
+                    }
+                },
+                "should fail when the server is silent"
+            );
+            MatcherAssert.assertThat(
+                "should fail soon after the read timeout",
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start),
+                Matchers.lessThan(10L)
+            );
+        }
+    }
+
+    private static int port() throws IOException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        return port;
+    }
+
+    /**
+     * TCP proxy, which may stop passing bytes, as a dead network does.
+     * @since 2.0
+     */
+    private static final class Freezer implements Closeable {
+
+        /**
+         * Listening socket.
+         */
+        private final ServerSocket socket;
+
+        /**
+         * Is it frozen?
+         */
+        private final AtomicBoolean frozen;
+
+        /**
+         * Ctor.
+         * @param target Port to forward to
+         * @throws IOException If fails
+         */
+        Freezer(final int target) throws IOException {
+            this.socket = new ServerSocket(0);
+            this.frozen = new AtomicBoolean();
+            final Thread thread = new Thread(
+                () -> {
+                    try {
+                        while (true) {
+                            final Socket client = this.socket.accept();
+                            final Socket server =
+                                new Socket("127.0.0.1", target);
+                            this.pump(client, server);
+                            this.pump(server, client);
+                        }
+                    } catch (final IOException ex) {
+                        // the proxy is closed
+                    }
+                }
+            );
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /**
+         * Port to connect to.
+         * @return Port
+         */
+        int port() {
+            return this.socket.getLocalPort();
+        }
+
+        /**
+         * Stop passing bytes.
+         */
+        void freeze() {
+            this.frozen.set(true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.socket.close();
+        }
+
+        /**
+         * Pass bytes from one socket to another, until frozen.
+         * @param from Source
+         * @param into Destination
+         */
+        private void pump(final Socket from, final Socket into) {
+            final Thread thread = new Thread(
+                () -> {
+                    final byte[] buf = new byte[1 << 14];
+                    try {
+                        while (true) {
+                            final int len = from.getInputStream().read(buf);
+                            if (len < 0) {
+                                break;
+                            }
+                            if (!this.frozen.get()) {
+                                into.getOutputStream().write(buf, 0, len);
+                            }
+                        }
+                    } catch (final IOException ex) {
+                        // the connection is closed
+                    }
+                }
+            );
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+}
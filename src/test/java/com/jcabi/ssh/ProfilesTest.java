@@ -0,0 +1,77 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.apache.sshd.server.SshServer;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Profiles}.
+ * @since 2.0
+ */
+final class ProfilesTest {
+
+    @Test
+    void putsKnownAuthenticationMethodFirst() throws Exception {
+        final int port = ProfilesTest.port();
+        final SshServer sshd = new MockSshServerBuilder(port)
+            .usePasswordAuthentication("jeff", "secret").build();
+        try {
+            sshd.start();
+            final Profiles profiles = new Profiles(TimeUnit.MINUTES.toMillis(1L));
+            final JSch jsch = new JSch();
+            ProfilesTest.connect(profiles, jsch, port).disconnect();
+            final Session second = ProfilesTest.connect(profiles, jsch, port);
+            try {
+                MatcherAssert.assertThat(
+                    "should try the method that worked before first",
+                    second.getConfig("PreferredAuthentications"),
+                    Matchers.startsWith("password,")
+                );
+            } finally {
+                second.disconnect();
+            }
+        } finally {
+            sshd.stop();
+        }
+    }
+
+    /**
+     * Connect a new session.
+     * @param profiles Profiles
+     * @param jsch JSch
+     * @param port Port
+     * @return Session, connected
+     * @throws JSchException If fails
+     */
+    private static Session connect(final Profiles profiles, final JSch jsch,
+        final int port) throws JSchException {
+        final Session session = jsch.getSession("jeff", "127.0.0.1", port);
+        session.setConfig("StrictHostKeyChecking", "no");
+        session.setPassword("secret".getBytes(StandardCharsets.UTF_8));
+        profiles.connect(
+            "jeff@127.0.0.1", session, Probe.NONE,
+            (int) TimeUnit.SECONDS.toMillis(10L)
+        );
+        return session;
+    }
+
+    private static int port() throws IOException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        return port;
+    }
+}
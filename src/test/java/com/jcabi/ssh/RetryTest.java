@@ -0,0 +1,125 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcraft.jsch.JSchException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+import org.cactoos.io.DeadInputStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Retry}.
+ * @since 2.0
+ */
+final class RetryTest {
+
+    @Test
+    void stopsOnFailedAuthentication() {
+        MatcherAssert.assertThat(
+            "should not retry, if authentication fails",
+            new Retry.Backoff().delay(
+                1, 0L,
+                new IOException(
+                    new JSchException("Auth fail for methods 'password'")
+                )
+            ),
+            Matchers.equalTo(-1L)
+        );
+    }
+
+    @Test
+    void retriesRefusedConnectionFast() {
+        MatcherAssert.assertThat(
+            "should not grow the delay, if connection is refused",
+            new Retry.Backoff(
+                10, 100L, 10_000L, 60_000L, TimeUnit.MILLISECONDS
+            ).delay(
+                    5, 0L,
+                new JSchException(
+                    "java.net.ConnectException: Connection refused",
+                    new ConnectException("Connection refused")
+                )
+            ),
+            Matchers.lessThanOrEqualTo(100L)
+        );
+    }
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void growsDelayUpToMaximum() {
+        final Retry retry = new Retry.Backoff(
+            10, 100L, 1000L, 60_000L, TimeUnit.MILLISECONDS
+        );
+        final Exception error = new JSchException(
+            "timeout: socket is not established"
+        );
+        MatcherAssert.assertThat(
+            "should double the delay",
+            retry.delay(3, 0L, error),
+            Matchers.allOf(
+                Matchers.greaterThanOrEqualTo(200L),
+                Matchers.lessThanOrEqualTo(400L)
+            )
+        );
+        MatcherAssert.assertThat(
+            "should not exceed the maximum",
+            retry.delay(9, 0L, error),
+            Matchers.lessThanOrEqualTo(1000L)
+        );
+    }
+
+    @Test
+    void stopsAtDeadline() {
+        MatcherAssert.assertThat(
+            "should give up, if the deadline is near",
+            new Retry.Backoff(10, 1L, 1L, 5L, TimeUnit.SECONDS)
+                .delay(2, 4500L, new JSchException("timeout")),
+            Matchers.equalTo(-1L)
+        );
+    }
+
+    @Test
+    void reportsRetriesOfRefusedConnection() throws Exception {
+        final int port = RetryTest.port();
+        final MetricsRegistry registry = new MetricsRegistry();
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new Shell.Metered(
+                new SshByPassword(
+                    "127.0.0.1", port, "jeff", "secret",
+                    new Options().retry(
+                        new Retry.Backoff(
+                            3, 1L, 10L, 10L, TimeUnit.SECONDS
+                        )
+                    )
+                ),
+                registry
+            ).exec(
+                "echo", new DeadInputStream(),
+                new ByteArrayOutputStream(), new ByteArrayOutputStream()
+            )
+        );
+        MatcherAssert.assertThat(
+            "should report every retry",
+            registry.retries(registry.hosts().iterator().next()),
+            Matchers.equalTo(2L)
+        );
+    }
+
+    private static int port() throws IOException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        return port;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.ssh.mock.MkServer;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.sftp.server.SftpSubsystemFactory;
+import org.cactoos.io.ResourceOf;
+import org.cactoos.text.TextOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link Sftp}.
+ * @since 2.0
+ */
+final class SftpTest {
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void uploadsAndDownloadsFile(@TempDir final Path temp) throws Exception {
+        final Path root = Files.createDirectory(temp.resolve("remote"));
+        final int port = SftpTest.port();
+        final SshServer sshd = new MockSshServerBuilder(port)
+            .usePublicKeyAuthentication().build();
+        sshd.setSubsystemFactories(
+            Collections.singletonList(new SftpSubsystemFactory())
+        );
+        sshd.setFileSystemFactory(new VirtualFileSystemFactory(root));
+        sshd.start();
+        try {
+            final byte[] data = new byte[3_000_000];
+            new Random(0L).nextBytes(data);
+            final Path local = Files.write(temp.resolve("local.bin"), data);
+            final Sftp sftp = new Sftp(
+                new Ssh(
+                    InetAddress.getLocalHost().getCanonicalHostName(),
+                    port,
+                    "test",
+                    new TextOf(
+                        new ResourceOf("com/jcabi/ssh/private.key")
+                    ).asString()
+                )
+            );
+            final AtomicLong uploaded = new AtomicLong();
+            sftp.upload(local, "data.bin", (done, total) -> uploaded.set(done));
+            MatcherAssert.assertThat(
+                "should report all bytes uploaded",
+                uploaded.get(),
+                Matchers.equalTo((long) data.length)
+            );
+            MatcherAssert.assertThat(
+                "should upload the content",
+                Files.readAllBytes(root.resolve("data.bin")),
+                Matchers.equalTo(data)
+            );
+            final Path back = temp.resolve("back.bin");
+            sftp.download("data.bin", back);
+            MatcherAssert.assertThat(
+                "should download the content",
+                Files.readAllBytes(back),
+                Matchers.equalTo(data)
+            );
+        } finally {
+            sshd.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void keepsLocalFileWhenDownloadFails(@TempDir final Path temp)
+        throws Exception {
+        final Path local = Files.write(
+            temp.resolve("keep.txt"), new byte[] {42}
+        );
+        try (MkServer server = new MkServer().start()) {
+            Assertions.assertThrows(
+                IOException.class,
+                () -> new Sftp(server.shell()).download("absent.txt", local),
+                "should fail, since there is no SFTP on the server"
+            );
+        }
+        MatcherAssert.assertThat(
+            "should keep the local file as it was",
+            Files.readAllBytes(local),
+            Matchers.equalTo(new byte[] {42})
+        );
+        try (Stream<Path> files = Files.list(temp)) {
+            MatcherAssert.assertThat(
+                "should delete the temporary file",
+                files.count(),
+                Matchers.equalTo(1L)
+            );
+        }
+    }
+
+    private static int port() throws IOException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        return port;
+    }
+}
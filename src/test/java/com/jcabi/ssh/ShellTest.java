@@ -0,0 +1,295 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link Shell}.
+ * @since 2.0
+ */
+final class ShellTest {
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void streamsStdoutAndStderrSeparately() {
+        final List<String> errors = new CopyOnWriteArrayList<>();
+        try (Stream<String> lines = new Shell.Lines(
+            (cmd, stdin, stdout, stderr) -> {
+                stdout.write("one\ntwo\n".getBytes(StandardCharsets.UTF_8));
+                stderr.write("oops\n".getBytes(StandardCharsets.UTF_8));
+                stdout.close();
+                stderr.close();
+                return 0;
+            }
+        ).exec("ls", errors::add)) {
+            MatcherAssert.assertThat(
+                "should return lines of stdout",
+                lines.collect(Collectors.toList()),
+                Matchers.contains("one", "two")
+            );
+        }
+        MatcherAssert.assertThat(
+            "should send lines of stderr to the consumer",
+            errors,
+            Matchers.contains("oops")
+        );
+    }
+
+    @Test
+    void cancelsCommandWhenStreamIsClosed() throws Exception {
+        final CountDownLatch stopped = new CountDownLatch(1);
+        final Shell endless = (cmd, stdin, stdout, stderr) -> {
+            try {
+                while (true) {
+                    stdout.write("y\n".getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (final IOException ex) {
+                stopped.countDown();
+                throw ex;
+            }
+        };
+        try (Stream<String> lines = new Shell.Lines(endless).exec("yes")) {
+            MatcherAssert.assertThat(
+                "should return first lines before the command ends",
+                lines.limit(3L).collect(Collectors.toList()),
+                Matchers.contains("y", "y", "y")
+            );
+        }
+        MatcherAssert.assertThat(
+            "should stop the command",
+            stopped.await(1L, TimeUnit.MINUTES),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void cancelsQuietCommandWhenStreamIsClosed() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch stopped = new CountDownLatch(1);
+        final Shell quiet = (cmd, stdin, stdout, stderr) -> {
+            started.countDown();
+            try {
+                TimeUnit.MINUTES.sleep(1L);
+            } catch (final InterruptedException ex) {
+                stopped.countDown();
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            }
+            return 0;
+        };
+        try (Stream<String> lines = new Shell.Lines(quiet).exec("tail -f")) {
+            MatcherAssert.assertThat(
+                "should start the command",
+                started.await(1L, TimeUnit.MINUTES),
+                Matchers.is(true)
+            );
+        }
+        MatcherAssert.assertThat(
+            "should stop the command that prints nothing",
+            stopped.await(5L, TimeUnit.SECONDS),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void reportsFailureAtTheEnd() {
+        Assertions.assertThrows(
+            UncheckedIOException.class,
+            () -> {
+                try (Stream<String> lines = new Shell.Lines(
+                    (cmd, stdin, stdout, stderr) -> {
+                        throw new IOException("broken");
+                    }
+                ).exec("ls")) {
+                    lines.count();
+                }
+            },
+            "should throw when the shell fails"
+        );
+    }
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void interruptsCommandAfterDeadline() throws Exception {
+        final Shell.Timed shell = new Shell.Timed(
+            (cmd, stdin, stdout, stderr) -> {
+                try {
+                    TimeUnit.MINUTES.sleep(1L);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(ex);
+                }
+                return 0;
+            },
+            100L, TimeUnit.MILLISECONDS
+        );
+        MatcherAssert.assertThat(
+            "should return the distinct result",
+            shell.exec(
+                "sleep 60", new ByteArrayInputStream(new byte[0]),
+                new ByteArrayOutputStream(), new ByteArrayOutputStream()
+            ),
+            Matchers.equalTo(Shell.Timed.EXPIRED)
+        );
+        MatcherAssert.assertThat(
+            "should not leave the thread interrupted",
+            Thread.currentThread().isInterrupted(),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void keepsInterruptOfCaller() throws Exception {
+        new Shell.Timed(
+            (cmd, stdin, stdout, stderr) -> {
+                Thread.currentThread().interrupt();
+                final long end = System.nanoTime()
+                    + TimeUnit.MILLISECONDS.toNanos(300L);
+                while (System.nanoTime() < end) {
+                    Thread.onSpinWait();
+                }
+                return 0;
+            },
+            50L, TimeUnit.MILLISECONDS
+        ).exec(
+            "spin", new ByteArrayInputStream(new byte[0]),
+            new ByteArrayOutputStream(), new ByteArrayOutputStream()
+        );
+        MatcherAssert.assertThat(
+            "should leave the interrupt, which the deadline didn't make",
+            Thread.interrupted(),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void returnsExitCodeBeforeDeadline() throws Exception {
+        MatcherAssert.assertThat(
+            "should return the exit code of the command",
+            new Shell.Timed(
+                (cmd, stdin, stdout, stderr) -> 7, 1L, TimeUnit.MINUTES
+            ).exec(
+                "exit 7", new ByteArrayInputStream(new byte[0]),
+                new ByteArrayOutputStream(), new ByteArrayOutputStream()
+            ),
+            Matchers.equalTo(7)
+        );
+    }
+
+    @Test
+    void returnsOutputOfFake() throws Exception {
+        MatcherAssert.assertThat(
+            "should print the stdout given to the fake",
+            new Shell.Plain(new Shell.Fake(0, "fake output", "")).exec("ls"),
+            Matchers.equalTo("fake output")
+        );
+    }
+
+    @Test
+    void copiesStdinToFileThroughChannels(@TempDir final Path temp)
+        throws Exception {
+        final byte[] data = new byte[100_000];
+        new Random(0L).nextBytes(data);
+        final Path input = temp.resolve("input.bin");
+        Files.write(input, data);
+        final Path output = temp.resolve("output.bin");
+        try (FileChannel stdin = FileChannel.open(input);
+            FileChannel stdout = FileChannel.open(
+                output, StandardOpenOption.CREATE, StandardOpenOption.WRITE
+            )) {
+            new Shell.Nio(
+                (cmd, in, out, err) -> {
+                    final byte[] buf = new byte[1000];
+                    while (true) {
+                        final int len = in.read(buf);
+                        if (len < 0) {
+                            break;
+                        }
+                        out.write(buf, 0, len);
+                    }
+                    return 0;
+                },
+                new Buffers(4096, 4)
+            ).exec(
+                "cat", stdin, stdout,
+                Channels.newChannel(new ByteArrayOutputStream())
+            );
+        }
+        MatcherAssert.assertThat(
+            "should copy all bytes of stdin to stdout",
+            Files.readAllBytes(output),
+            Matchers.equalTo(data)
+        );
+    }
+
+    @Test
+    void givesBuffersBackToPool() throws Exception {
+        final Buffers pool = new Buffers(16, 4);
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        new Shell.Nio(new Shell.Fake(0, "abcdefghijklmnopqrstuvwxyz", ""), pool)
+            .exec(
+                "ls",
+                Channels.newChannel(new ByteArrayInputStream(new byte[0])),
+                Channels.newChannel(stdout),
+                Channels.newChannel(new ByteArrayOutputStream())
+            );
+        MatcherAssert.assertThat(
+            "should give buffers of stdin and stdout back to the pool",
+            pool.idle(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    @Test
+    void dropsLinesWhenLogIsBehind() throws Exception {
+        final List<Runnable> waiting = new CopyOnWriteArrayList<>();
+        final Shell.Logged shell = new Shell.Logged(
+            new Shell.Fake(0, "one\ntwo\nthree\nfour\nfive\n", ""),
+            new AsyncLog(ShellTest.class, 2, waiting::add)
+        );
+        new Shell.Plain(shell).exec("ls");
+        MatcherAssert.assertThat(
+            "should drop lines that don't fit into the queue",
+            shell.dropped(),
+            Matchers.equalTo(3L)
+        );
+    }
+
+    @Test
+    void logsAllLinesWhenLogKeepsUp() throws Exception {
+        final Shell.Logged shell = new Shell.Logged(
+            new Shell.Fake(0, "one\ntwo\nthree\nfour\nfive\n", "oops"),
+            new AsyncLog(ShellTest.class, 2, Runnable::run)
+        );
+        new Shell.Plain(shell).exec("ls");
+        MatcherAssert.assertThat(
+            "should not drop any lines",
+            shell.dropped(),
+            Matchers.equalTo(0L)
+        );
+    }
+}
@@ -5,6 +5,7 @@
 package com.jcabi.ssh;
 
 import com.jcabi.log.Logger;
+import com.jcabi.ssh.mock.MkCommandFactory;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.InetAddress;
@@ -0,0 +1,153 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.ssh.mock.MkCommandFactory;
+import com.jcabi.ssh.mock.MkServer;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.apache.sshd.server.SshServer;
+import org.cactoos.io.ResourceOf;
+import org.cactoos.text.TextOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SshPool}.
+ * @since 2.0
+ */
+final class SshPoolTest {
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void reusesOneSessionForManyCommands() throws Exception {
+        final int port = SshPoolTest.port();
+        final SshServer sshd = new MockSshServerBuilder(port)
+            .usePublicKeyAuthentication().build();
+        sshd.setCommandFactory(new MkCommandFactory());
+        sshd.start();
+        try (SshPool pool = new SshPool(
+            new Ssh(
+                InetAddress.getLocalHost().getCanonicalHostName(),
+                port,
+                "test",
+                new TextOf(
+                    new ResourceOf("com/jcabi/ssh/private.key")
+                ).asString()
+            )
+        )) {
+            for (int idx = 0; idx < 3; ++idx) {
+                MatcherAssert.assertThat(
+                    "should echo the command back",
+                    new Shell.Plain(pool).exec(String.format("cmd %d", idx)),
+                    Matchers.equalTo(String.format("cmd %d", idx))
+                );
+            }
+            MatcherAssert.assertThat(
+                "should keep only one session",
+                pool.size(),
+                Matchers.equalTo(1)
+            );
+        } finally {
+            sshd.stop();
+        }
+    }
+
+    @Test
+    void opensStandbySessionsInBackground() throws Exception {
+        try (MkServer server = new MkServer().start();
+            SshPool pool = new SshPool(server.shell(), 1, 2).warm()) {
+            SshPoolTest.await(() -> pool.size() == 2);
+            MatcherAssert.assertThat(
+                "should connect two sessions before any command",
+                server.active(),
+                Matchers.equalTo(2)
+            );
+        }
+    }
+
+    @Test
+    void replacesStandbySessionTakenByCommand() throws Exception {
+        try (MkServer server = new MkServer().start();
+            SshPool pool = new SshPool(server.shell(), 1, 1).warm()) {
+            SshPoolTest.await(() -> pool.size() == 1);
+            final CompletableFuture<String> slow = new AsyncShell.Plain(
+                new AsyncShell.Wrap(pool)
+            ).exec("sleep 2000");
+            SshPoolTest.await(() -> pool.size() == 2);
+            slow.get(1L, TimeUnit.MINUTES);
+            MatcherAssert.assertThat(
+                "should open a new standby session while the command runs",
+                server.active(),
+                Matchers.equalTo(2)
+            );
+        }
+    }
+
+    @Test
+    void refusesNonPositiveChannels() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new SshPool(
+                new SshByPassword("127.0.0.1", 22, "jeff", "secret"), 0
+            ),
+            "should refuse a pool without channels"
+        );
+    }
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void refusesSessionsAfterClose() throws Exception {
+        try (MkServer server = new MkServer().start()) {
+            final SshPool pool = new SshPool(server.shell());
+            new Shell.Plain(pool).exec("echo");
+            pool.close();
+            Assertions.assertThrows(
+                IOException.class,
+                () -> new Shell.Plain(pool).exec("echo"),
+                "should refuse commands after close"
+            );
+            MatcherAssert.assertThat(
+                "should keep no sessions after close",
+                pool.size(),
+                Matchers.equalTo(0)
+            );
+        }
+    }
+
+    /**
+     * Wait for the condition, for up to ten seconds.
+     * @param condition The condition
+     * @throws InterruptedException If interrupted
+     */
+    private static void await(final BooleanSupplier condition)
+        throws InterruptedException {
+        final long end = System.currentTimeMillis()
+            + TimeUnit.SECONDS.toMillis(10L);
+        while (!condition.getAsBoolean()
+            && System.currentTimeMillis() < end) {
+            TimeUnit.MILLISECONDS.sleep(10L);
+        }
+        MatcherAssert.assertThat(
+            "should happen in ten seconds",
+            condition.getAsBoolean(),
+            Matchers.is(true)
+        );
+    }
+
+    private static int port() throws IOException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        return port;
+    }
+}
@@ -5,6 +5,7 @@
 package com.jcabi.ssh;
 
 import com.jcabi.log.Logger;
+import com.jcabi.ssh.mock.MkCommandFactory;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.InetAddress;
@@ -112,6 +113,34 @@ final class SshTest {
         }
     }
 
+    @Test
+    void reusesParsedKeyForManySessions() throws Exception {
+        final int port = SshTest.port();
+        final SshServer sshd = new MockSshServerBuilder(port)
+            .usePublicKeyAuthentication().build();
+        try {
+            sshd.setCommandFactory(new MkCommandFactory());
+            sshd.start();
+            final Shell shell = new Ssh(
+                InetAddress.getLocalHost().getCanonicalHostName(),
+                port,
+                "test",
+                new TextOf(
+                    new ResourceOf("com/jcabi/ssh/encrypted_private.key")
+                ).asString(),
+                "test-passphrase"
+            );
+            new Shell.Plain(shell).exec("first");
+            MatcherAssert.assertThat(
+                "should connect again with the same key",
+                new Shell.Plain(shell).exec("second"),
+                Matchers.is("second")
+            );
+        } finally {
+            sshd.stop();
+        }
+    }
+
     private static int port() throws IOException {
         final int port;
         try (ServerSocket socket = new ServerSocket(0)) {
@@ -0,0 +1,286 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.cactoos.text.TextOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link Tarball}.
+ * @since 2.0
+ */
+final class TarballTest {
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void uploadsTreeAsTarArchive(@TempDir final Path temp) throws Exception {
+        final String deep = String.join("/", Collections.nCopies(30, "deep"));
+        Files.createDirectories(temp.resolve(deep));
+        Files.write(temp.resolve("a.txt"), "hello".getBytes(StandardCharsets.UTF_8));
+        Files.write(temp.resolve(deep).resolve("b.txt"), new byte[70_000]);
+        Files.write(temp.resolve("skip.log"), new byte[1]);
+        final Map<String, String> files = new ConcurrentHashMap<>(0);
+        new Tarball(
+            (cmd, stdin, stdout, stderr) -> {
+                new TarInput(stdin).read(new TarballTest.Collector(files));
+                files.put("command", cmd);
+                return 0;
+            },
+            Collections.singleton("."),
+            Collections.singleton("*.log")
+        ).upload(temp, "/tmp/x");
+        MatcherAssert.assertThat(
+            "should run tar on the server",
+            files.get("command"),
+            Matchers.containsString("tar -x")
+        );
+        MatcherAssert.assertThat(
+            "should send the file",
+            files.get("a.txt"),
+            Matchers.equalTo("hello")
+        );
+        MatcherAssert.assertThat(
+            "should send the file with a long name",
+            files.get(String.format("%s/b.txt", deep)).length(),
+            Matchers.equalTo(70_000)
+        );
+        MatcherAssert.assertThat(
+            "should skip excluded file",
+            files,
+            Matchers.not(Matchers.hasKey("skip.log"))
+        );
+    }
+
+    @Test
+    void downloadsTreeFromTarArchive(@TempDir final Path temp)
+        throws Exception {
+        new Tarball(
+            (cmd, stdin, stdout, stderr) -> {
+                final TarOutput tar = new TarOutput(stdout);
+                tar.directory("./dir", 0755, 0L);
+                tar.file(
+                    "./dir/c.txt", 0644, 0L, 3L,
+                    new ByteArrayInputStream("abc".getBytes(StandardCharsets.UTF_8))
+                );
+                tar.finish();
+                stdout.close();
+                return 0;
+            }
+        ).download("/tmp/y", temp);
+        MatcherAssert.assertThat(
+            "should write the file",
+            new TextOf(temp.resolve("dir/c.txt")).asString(),
+            Matchers.equalTo("abc")
+        );
+    }
+
+    @Test
+    void refusesPathsOutsideOfDirectory(@TempDir final Path temp) {
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new Tarball(
+                (cmd, stdin, stdout, stderr) -> {
+                    final TarOutput tar = new TarOutput(stdout);
+                    tar.file(
+                        "../evil.txt", 0644, 0L, 1L,
+                        new ByteArrayInputStream(new byte[1])
+                    );
+                    tar.finish();
+                    stdout.close();
+                    return 0;
+                }
+            ).download("/tmp/z", temp.resolve("inside")),
+            "should refuse to write outside of the directory"
+        );
+    }
+
+    @Test
+    void refusesWritingThroughLinks(@TempDir final Path temp)
+        throws Exception {
+        final Path outside = Files.createDirectory(temp.resolve("outside"));
+        final String[] targets = {outside.toString(), "../outside"};
+        for (final String target : targets) {
+            Assertions.assertThrows(
+                IOException.class,
+                () -> new Tarball(
+                    (cmd, stdin, stdout, stderr) -> {
+                        final TarOutput tar = new TarOutput(stdout);
+                        tar.link("evil", target, 0L);
+                        tar.file(
+                            "evil/passwd", 0644, 0L, 1L,
+                            new ByteArrayInputStream(new byte[1])
+                        );
+                        tar.finish();
+                        stdout.close();
+                        return 0;
+                    }
+                ).download("/tmp/z", temp.resolve("inside")),
+                "should refuse a link that leads outside of the directory"
+            );
+        }
+        MatcherAssert.assertThat(
+            "should write nothing outside of the directory",
+            Files.exists(outside.resolve("passwd")),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void refusesWritingThroughPlantedLinks(@TempDir final Path temp)
+        throws Exception {
+        final Path outside = Files.createDirectory(temp.resolve("outside"));
+        final Path inside = Files.createDirectory(temp.resolve("inside"));
+        Files.createSymbolicLink(inside.resolve("evil"), outside);
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new Tarball(
+                (cmd, stdin, stdout, stderr) -> {
+                    final TarOutput tar = new TarOutput(stdout);
+                    tar.file(
+                        "evil/passwd", 0644, 0L, 1L,
+                        new ByteArrayInputStream(new byte[1])
+                    );
+                    tar.finish();
+                    stdout.close();
+                    return 0;
+                }
+            ).download("/tmp/z", inside),
+            "should refuse to follow a link that leads outside"
+        );
+        MatcherAssert.assertThat(
+            "should write nothing through the link",
+            Files.exists(outside.resolve("passwd")),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void excludesSameFilesOnDownload(@TempDir final Path temp)
+        throws Exception {
+        final Map<String, String> cmds = new ConcurrentHashMap<>(0);
+        new Tarball(
+            (cmd, stdin, stdout, stderr) -> {
+                cmds.put("command", cmd);
+                final TarOutput tar = new TarOutput(stdout);
+                final String[] names = {"a.log", "d/b.log", "c.txt"};
+                for (final String name : names) {
+                    tar.file(
+                        name, 0644, 0L, 1L,
+                        new ByteArrayInputStream(new byte[1])
+                    );
+                }
+                tar.finish();
+                stdout.close();
+                return 0;
+            },
+            Collections.singleton("."),
+            Collections.singleton("{*.log,**/*.log}")
+        ).download("/tmp/w", temp);
+        MatcherAssert.assertThat(
+            "should skip excluded files",
+            Files.exists(temp.resolve("a.log"))
+                || Files.exists(temp.resolve("d/b.log")),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            "should keep other files",
+            Files.exists(temp.resolve("c.txt")),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            "should give tar the patterns without braces",
+            cmds.get("command"),
+            Matchers.allOf(
+                Matchers.containsString("--exclude='*.log'"),
+                Matchers.containsString("--exclude='**/*.log'")
+            )
+        );
+    }
+
+    @Test
+    void refusesIncludesOutsideOfDirectory() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new Tarball(
+                (cmd, stdin, stdout, stderr) -> 0,
+                Collections.singleton("../etc"),
+                Collections.emptyList()
+            ),
+            "should refuse to go up from the directory"
+        );
+    }
+
+    @Test
+    void failsWhenCommandFailsBeforeOutput(@TempDir final Path temp) {
+        Assertions.assertTimeoutPreemptively(
+            Duration.ofMinutes(1L),
+            () -> Assertions.assertThrows(
+                IOException.class,
+                () -> new Tarball(
+                    (cmd, stdin, stdout, stderr) -> {
+                        throw new IOException("Auth fail");
+                    }
+                ).download("/tmp/v", temp),
+                "should report the failure of the command"
+            ),
+            "should not wait for the output forever"
+        );
+    }
+
+    /**
+     * Collector of files from the archive.
+     * @since 2.0
+     */
+    private static final class Collector implements TarInput.Visitor {
+
+        /**
+         * Files found, with their content.
+         */
+        private final Map<String, String> found;
+
+        /**
+         * Ctor.
+         * @param map Where to put files
+         */
+        Collector(final Map<String, String> map) {
+            this.found = map;
+        }
+
+        @Override
+        public void directory(final String name, final int mode,
+            final long mtime) {
+            // directories are not interesting here
+        }
+
+        @Override
+        public void link(final String name, final String target,
+            final long mtime) {
+            this.found.put(name, target);
+        }
+
+        @Override
+        public void file(final String name, final int mode, final long mtime,
+            final InputStream content) throws IOException {
+            this.found.put(
+                name, new String(content.readAllBytes(), StandardCharsets.UTF_8)
+            );
+        }
+    }
+}
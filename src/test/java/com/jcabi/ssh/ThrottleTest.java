@@ -0,0 +1,191 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import com.jcabi.ssh.mock.MkAnswer;
+import com.jcabi.ssh.mock.MkServer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Throttle}.
+ * @since 2.0
+ */
+final class ThrottleTest {
+
+    @Test
+    void limitsCommandsRunningAtOnce() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        try (MkServer server = new MkServer(
+            (cmd, stdin, stdout, stderr) -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(200L);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+                return 0;
+            }
+        ).start();
+            SshPool pool = new SshPool(server.shell())) {
+            final Throttle throttle = new Throttle(pool, 2, 100);
+            final CompletableFuture<?>[] all = new CompletableFuture<?>[6];
+            for (int idx = 0; idx < all.length; ++idx) {
+                all[idx] = ThrottleTest.async(throttle, "sleep");
+            }
+            CompletableFuture.allOf(all).get(1L, TimeUnit.MINUTES);
+            MatcherAssert.assertThat(
+                "should never run more commands than allowed",
+                peak.get(),
+                Matchers.equalTo(2)
+            );
+        }
+    }
+
+    @Test
+    void runsHighPriorityFirst() throws Exception {
+        final List<String> order = new CopyOnWriteArrayList<>();
+        final CountDownLatch gate = new CountDownLatch(1);
+        try (MkServer server = new MkServer(
+            (cmd, stdin, stdout, stderr) -> {
+                order.add(cmd);
+                if ("first".equals(cmd)) {
+                    try {
+                        gate.await();
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return 0;
+            }
+        ).start();
+            SshPool pool = new SshPool(server.shell())) {
+            final Throttle low = new Throttle(pool, 1, 100)
+                .with(Throttle.Priority.LOW);
+            final CompletableFuture<?> first =
+                ThrottleTest.async(low, "first");
+            while (order.isEmpty()) {
+                TimeUnit.MILLISECONDS.sleep(10L);
+            }
+            final CompletableFuture<?> bulk =
+                ThrottleTest.async(low, "bulk");
+            while (low.queued() < 1) {
+                TimeUnit.MILLISECONDS.sleep(10L);
+            }
+            final CompletableFuture<?> health = ThrottleTest.async(
+                low.with(Throttle.Priority.HIGH), "health"
+            );
+            while (low.queued() < 2) {
+                TimeUnit.MILLISECONDS.sleep(10L);
+            }
+            gate.countDown();
+            CompletableFuture.allOf(first, bulk, health)
+                .get(1L, TimeUnit.MINUTES);
+            MatcherAssert.assertThat(
+                "should run the command with high priority before the bulk one",
+                order,
+                Matchers.contains("first", "health", "bulk")
+            );
+        }
+    }
+
+    @Test
+    void spacesNewSessions() throws Exception {
+        try (MkServer server = new MkServer(new MkAnswer.Echo()).start()) {
+            final Throttle throttle = new Throttle(server.shell(), 10, 5);
+            final long start = System.nanoTime();
+            final CompletableFuture<?>[] all = new CompletableFuture<?>[4];
+            for (int idx = 0; idx < all.length; ++idx) {
+                all[idx] = ThrottleTest.async(throttle, "hi");
+            }
+            CompletableFuture.allOf(all).get(1L, TimeUnit.MINUTES);
+            MatcherAssert.assertThat(
+                "should open no more than five sessions per second",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                Matchers.greaterThanOrEqualTo(600L)
+            );
+        }
+    }
+
+    @Test
+    @SuppressWarnings("PMD.UnitTestContainsTooManyAsserts")
+    void sharesLimitsOfHost() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        try (MkServer server = new MkServer(
+            (cmd, stdin, stdout, stderr) -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(100L);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+                return 0;
+            }
+        ).start();
+            SshPool pool = new SshPool(server.shell())) {
+            final Throttle first = new Throttle(pool, 1, 100);
+            final Throttle second = new Throttle(server.shell(), 1, 100);
+            final CompletableFuture<?>[] all = new CompletableFuture<?>[4];
+            for (int idx = 0; idx < all.length; idx += 2) {
+                all[idx] = ThrottleTest.async(first, "sleep");
+                all[idx + 1] = ThrottleTest.async(second, "sleep");
+            }
+            CompletableFuture.allOf(all).get(1L, TimeUnit.MINUTES);
+            MatcherAssert.assertThat(
+                "should obey the limit shared by all throttles of the host",
+                peak.get(),
+                Matchers.equalTo(1)
+            );
+            Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> new Throttle(pool, 16, 100),
+                "should refuse other limits for the same host"
+            );
+        }
+    }
+
+    @Test
+    void takesPooledSessionsThroughBreaker() throws Exception {
+        try (MkServer server = new MkServer(new MkAnswer.Echo()).start();
+            SshPool pool = new SshPool(server.shell())) {
+            final Shell shell = new Throttle(new Breaker(pool), 10, 1);
+            new Shell.Plain(shell).exec("first");
+            final long start = System.nanoTime();
+            for (int idx = 0; idx < 3; ++idx) {
+                new Shell.Plain(shell).exec("again");
+            }
+            MatcherAssert.assertThat(
+                "should not wait for the rate with a pooled session",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                Matchers.lessThan(900L)
+            );
+        }
+    }
+
+    /**
+     * Run the command in the background.
+     * @param shell The shell
+     * @param cmd The command
+     * @return Stdout, in the future
+     */
+    private static CompletableFuture<String> async(final Shell shell,
+        final String cmd) {
+        return new AsyncShell.Plain(new AsyncShell.Wrap(shell)).exec(cmd);
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh;
+
+import java.io.DataInputStream;
+import com.jcabi.ssh.mock.MkServer;
+import com.jcraft.jsch.Session;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.forward.AcceptAllForwardingFilter;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Tunnels}.
+ * @since 2.0
+ */
+final class TunnelsTest {
+
+    @Test
+    void forwardsLocalPort() throws Exception {
+        final SshServer sshd = TunnelsTest.server();
+        try (ServerSocket echo = TunnelsTest.echo();
+            Tunnels tunnels = new Tunnels(TunnelsTest.shell(sshd))) {
+            final Tunnel tunnel = tunnels.local(
+                "127.0.0.1", echo.getLocalPort()
+            );
+            MatcherAssert.assertThat(
+                "should pass the data through the tunnel",
+                TunnelsTest.roundtrip(
+                    new Socket("127.0.0.1", tunnel.port()), "hello"
+                ),
+                Matchers.equalTo("hello")
+            );
+        } finally {
+            sshd.stop();
+        }
+    }
+
+    @Test
+    void proxiesThroughSocks() throws Exception {
+        final SshServer sshd = TunnelsTest.server();
+        try (ServerSocket echo = TunnelsTest.echo();
+            Tunnels tunnels = new Tunnels(TunnelsTest.shell(sshd))) {
+            final Tunnel socks = tunnels.socks();
+            final Socket socket = new Socket(
+                new Proxy(
+                    Proxy.Type.SOCKS,
+                    new InetSocketAddress("127.0.0.1", socks.port())
+                )
+            );
+            socket.connect(
+                InetSocketAddress.createUnresolved(
+                    "localhost", echo.getLocalPort()
+                )
+            );
+            MatcherAssert.assertThat(
+                "should pass the data through the proxy",
+                TunnelsTest.roundtrip(socket, "world"),
+                Matchers.equalTo("world")
+            );
+        } finally {
+            sshd.stop();
+        }
+    }
+
+    @Test
+    void forgetsClosedTunnels() throws Exception {
+        final SshServer sshd = TunnelsTest.server();
+        try (Tunnels tunnels = new Tunnels(TunnelsTest.shell(sshd))) {
+            final Tunnel first = tunnels.local("127.0.0.1", 1);
+            tunnels.socks();
+            first.close();
+            MatcherAssert.assertThat(
+                "should keep only the open tunnel",
+                tunnels.size(),
+                Matchers.equalTo(1)
+            );
+        } finally {
+            sshd.stop();
+        }
+    }
+
+    @Test
+    void forwardsRemotePort() throws Exception {
+        try (MkServer server = new MkServer().start();
+            ServerSocket echo = TunnelsTest.echo();
+            Tunnels tunnels = new Tunnels(server.shell())) {
+            final Tunnel tunnel = tunnels.remote(
+                TunnelsTest.port(), "127.0.0.1", echo.getLocalPort()
+            );
+            MatcherAssert.assertThat(
+                "should pass the data from the port of the server",
+                TunnelsTest.await(tunnel.port(), "remote"),
+                Matchers.equalTo("remote")
+            );
+        }
+    }
+
+    @Test
+    void restoresTunnelsWhenSessionDies() throws Exception {
+        try (MkServer server = new MkServer().start();
+            ServerSocket echo = TunnelsTest.echo()) {
+            final TunnelsTest.Recorder shell =
+                new TunnelsTest.Recorder(server.shell());
+            try (Tunnels tunnels = new Tunnels(
+                shell, 100L, TimeUnit.MILLISECONDS
+            )) {
+                final Tunnel tunnel = tunnels.local(
+                    "127.0.0.1", echo.getLocalPort()
+                );
+                TunnelsTest.await(tunnel.port(), "before");
+                shell.last().disconnect();
+                MatcherAssert.assertThat(
+                    "should pass the data through the new session",
+                    TunnelsTest.await(tunnel.port(), "after"),
+                    Matchers.equalTo("after")
+                );
+            }
+        }
+    }
+
+    @Test
+    void retriesTunnelsThatFailedToRestore() throws Exception {
+        try (MkServer server = new MkServer().start();
+            ServerSocket echo = TunnelsTest.echo()) {
+            final TunnelsTest.Recorder shell =
+                new TunnelsTest.Recorder(server.shell());
+            try (Tunnels tunnels = new Tunnels(
+                shell, 100L, TimeUnit.MILLISECONDS
+            )) {
+                final Tunnel tunnel = tunnels.local(
+                    "127.0.0.1", echo.getLocalPort()
+                );
+                TunnelsTest.await(tunnel.port(), "before");
+                shell.block(tunnel.port());
+                shell.last().disconnect();
+                while (shell.count() < 2) {
+                    TimeUnit.MILLISECONDS.sleep(10L);
+                }
+                TimeUnit.MILLISECONDS.sleep(300L);
+                shell.unblock();
+                MatcherAssert.assertThat(
+                    "should make the tunnel when the port is free again",
+                    TunnelsTest.await(tunnel.port(), "later"),
+                    Matchers.equalTo("later")
+                );
+            }
+        }
+    }
+
+    /**
+     * Start SSH server, which allows forwarding.
+     * @return The server
+     * @throws IOException If fails
+     */
+    private static SshServer server() throws IOException {
+        final SshServer sshd = new MockSshServerBuilder(TunnelsTest.port())
+            .usePasswordAuthentication("jeff", "secret")
+            .build();
+        sshd.setForwardingFilter(AcceptAllForwardingFilter.INSTANCE);
+        sshd.start();
+        return sshd;
+    }
+
+    /**
+     * Shell to the server.
+     * @param sshd The server
+     * @return Shell
+     * @throws IOException If fails
+     */
+    private static SshByPassword shell(final SshServer sshd)
+        throws IOException {
+        return new SshByPassword("127.0.0.1", sshd.getPort(), "jeff", "secret");
+    }
+
+    /**
+     * Start an echo server on loopback.
+     * @return The socket it listens on
+     * @throws IOException If fails
+     */
+    private static ServerSocket echo() throws IOException {
+        final ServerSocket server = new ServerSocket(0);
+        final Thread thread = new Thread(
+            () -> {
+                while (!server.isClosed()) {
+                    try (Socket socket = server.accept()) {
+                        socket.getInputStream().transferTo(
+                            socket.getOutputStream()
+                        );
+                    } catch (final IOException ex) {
+                        break;
+                    }
+                }
+            }
+        );
+        thread.setDaemon(true);
+        thread.start();
+        return server;
+    }
+
+    /**
+     * Send the text and read it back.
+     * @param socket The socket, connected
+     * @param text The text
+     * @return What was read
+     * @throws IOException If fails
+     */
+    private static String roundtrip(final Socket socket, final String text)
+        throws IOException {
+        try (socket) {
+            socket.setSoTimeout(5000);
+            final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            socket.getOutputStream().write(bytes);
+            socket.getOutputStream().flush();
+            final byte[] back = new byte[bytes.length];
+            new DataInputStream(socket.getInputStream()).readFully(back);
+            return new String(back, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Send the text through the port and read it back, waiting
+     * for the port to be forwarded.
+     * @param port The port
+     * @param text The text
+     * @return What was read
+     * @throws Exception If fails
+     */
+    private static String await(final int port, final String text)
+        throws Exception {
+        final long start = System.nanoTime();
+        String back = null;
+        while (back == null) {
+            try {
+                back = TunnelsTest.roundtrip(
+                    new Socket("127.0.0.1", port), text
+                );
+            } catch (final IOException ex) {
+                if (System.nanoTime() - start
+                    > TimeUnit.SECONDS.toNanos(10L)) {
+                    throw ex;
+                }
+                TimeUnit.MILLISECONDS.sleep(50L);
+            }
+        }
+        return back;
+    }
+
+    /**
+     * Free port.
+     * @return Port
+     * @throws IOException If fails
+     */
+    private static int port() throws IOException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        return port;
+    }
+
+    /**
+     * Shell that remembers the sessions it opened and may take a local
+     * port right after opening one.
+     * @since 2.0
+     */
+    private static final class Recorder extends AbstractSshShell {
+
+        /**
+         * Shell that makes sessions.
+         */
+        private final AbstractSshShell origin;
+
+        /**
+         * Sessions opened.
+         */
+        private final List<Session> sessions;
+
+        /**
+         * Port to take, or zero.
+         */
+        private final AtomicInteger taken;
+
+        /**
+         * Socket that takes the port, or NULL.
+         */
+        private final AtomicReference<ServerSocket> blocker;
+
+        /**
+         * Ctor.
+         * @param shell Shell that makes sessions
+         * @throws UnknownHostException If fails
+         */
+        Recorder(final AbstractSshShell shell) throws UnknownHostException {
+            super(shell.getAddr(), shell.getPort(), shell.getLogin());
+            this.origin = shell;
+            this.sessions = new CopyOnWriteArrayList<>();
+            this.taken = new AtomicInteger();
+            this.blocker = new AtomicReference<>();
+        }
+
+        @Override
+        protected Session session() throws IOException {
+            final Session session = this.origin.session(Probe.NONE);
+            final int port = this.taken.getAndSet(0);
+            if (port > 0) {
+                this.blocker.set(
+                    new ServerSocket(
+                        port, 1, InetAddress.getByName("127.0.0.1")
+                    )
+                );
+            }
+            this.sessions.add(session);
+            return session;
+        }
+
+        /**
+         * Take the port, right after the next session is opened.
+         * @param port The port
+         */
+        void block(final int port) {
+            this.taken.set(port);
+        }
+
+        /**
+         * Free the port.
+         * @throws IOException If fails
+         */
+        void unblock() throws IOException {
+            this.blocker.get().close();
+        }
+
+        /**
+         * Number of sessions opened.
+         * @return Total
+         */
+        int count() {
+            return this.sessions.size();
+        }
+
+        /**
+         * The last session opened.
+         * @return Session
+         */
+        Session last() {
+            return this.sessions.get(this.sessions.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh.mock;
+
+import com.jcabi.ssh.Shell;
+import java.util.HashSet;
+import java.util.Set;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link MkFleet}.
+ * @since 2.0
+ */
+final class MkFleetTest {
+
+    @Test
+    void answersFromEveryServer() throws Exception {
+        try (MkFleet fleet = new MkFleet(8, new MkAnswer.Echo()).start()) {
+            final Set<String> outputs = new HashSet<>(0);
+            for (final MkServer server : fleet.servers()) {
+                outputs.add(
+                    new Shell.Plain(server.shell()).exec(
+                        String.valueOf(server.port())
+                    )
+                );
+            }
+            MatcherAssert.assertThat(
+                "should answer from every server, each on its own port",
+                outputs,
+                Matchers.hasSize(fleet.size())
+            );
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2014-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.ssh.mock;
+
+import com.jcabi.ssh.Shell;
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import java.io.ByteArrayOutputStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link MkServer}.
+ * @since 2.0
+ */
+final class MkServerTest {
+
+    @Test
+    void printsRequestedBytes() throws Exception {
+        try (MkServer server = new MkServer().start()) {
+            MatcherAssert.assertThat(
+                "should print exactly as many bytes as requested",
+                new Shell.Plain(server.shell()).exec("bytes 100000").length(),
+                Matchers.equalTo(100_000)
+            );
+        }
+    }
+
+    @Test
+    void reportsExitCode() throws Exception {
+        try (MkServer server = new MkServer().start()) {
+            MatcherAssert.assertThat(
+                "should exit with the requested code",
+                server.shell().exec(
+                    "exit 7", null,
+                    new ByteArrayOutputStream(), new ByteArrayOutputStream()
+                ),
+                Matchers.equalTo(7)
+            );
+        }
+    }
+
+    @Test
+    void answersWithCustomAnswer() throws Exception {
+        try (MkServer server =
+            new MkServer(new MkAnswer.Fixed(0, "pong", "")).start()) {
+            MatcherAssert.assertThat(
+                "should print what the answer prints",
+                new Shell.Plain(server.shell()).exec("ping"),
+                Matchers.equalTo("pong")
+            );
+        }
+    }
+
+    @Test
+    void limitsChannelsOfSession() throws Exception {
+        try (MkServer server =
+            new MkServer(new MkAnswer.Script(), 0, 1).start()) {
+            final Session session = new JSch().getSession(
+                MkServer.LOGIN, "127.0.0.1", server.port()
+            );
+            session.setPassword(MkServer.PASSWORD);
+            session.setConfig("StrictHostKeyChecking", "no");
+            session.connect();
+            try {
+                final ChannelExec first =
+                    (ChannelExec) session.openChannel("exec");
+                first.setCommand("sleep 5000");
+                first.connect();
+                final ChannelExec second =
+                    (ChannelExec) session.openChannel("exec");
+                second.setCommand("echo");
+                Assertions.assertThrows(
+                    JSchException.class,
+                    second::connect,
+                    "should refuse the second channel of the session"
+                );
+                first.disconnect();
+            } finally {
+                session.disconnect();
+            }
+        }
+    }
+
+    @Test
+    void refusesToStartTwice() throws Exception {
+        try (MkServer server = new MkServer().start()) {
+            Assertions.assertThrows(
+                IllegalStateException.class,
+                server::start,
+                "should not start the same server again"
+            );
+        }
+    }
+}